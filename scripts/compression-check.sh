@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Bytes en la red y latencia de los listados contra una instancia en marcha,
+# sin compresión / gzip, por HTTP/1.1 y h2c (prior knowledge).
+# Uso: scripts/compression-check.sh [base-url] [token]
+# Ejemplo:
+#   scripts/compression-check.sh http://localhost:8080 "$JWT"
+set -euo pipefail
+
+BASE="${1:-http://localhost:8080}"
+TOKEN="${2:-}"
+RUNS="${RUNS:-20}"
+PATHS=("/api/applications" "/api/applications/status/PENDING" "/api/applications/user/${USER_ID:-user_1}")
+
+auth=()
+if [ -n "$TOKEN" ]; then
+  auth=(-H "Authorization: Bearer ${TOKEN}")
+fi
+
+printf "%-40s %-8s %-6s %12s %12s\n" "endpoint" "proto" "enc" "bytes" "avg_ms"
+for path in "${PATHS[@]}"; do
+  for proto in "--http1.1" "--http2-prior-knowledge"; do
+    for enc in identity gzip; do
+      total=0
+      bytes=0
+      for _ in $(seq "$RUNS"); do
+        read -r size time < <(curl -s -o /dev/null "${auth[@]}" "$proto" \
+          -H "Accept-Encoding: ${enc}" -w "%{size_download} %{time_total}\n" "${BASE}${path}")
+        bytes=$size
+        total=$(echo "$total + $time" | bc -l)
+      done
+      avg=$(echo "$total * 1000 / $RUNS" | bc -l)
+      printf "%-40s %-8s %-6s %12d %12.2f\n" "$path" "${proto#--}" "$enc" "$bytes" "$avg"
+    done
+  done
+done
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Mide el tiempo hasta la primera petición respondida (readiness UP).
+# Uso: scripts/startup-time.sh <app.jar> [opciones JVM extra...]
+# Ejemplos:
+#   scripts/startup-time.sh target/davivienda-0.0.1-SNAPSHOT.jar
+#   scripts/startup-time.sh extracted/application.jar -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
+set -euo pipefail
+
+JAR="$1"; shift
+PORT="${PORT:-18080}"
+URL="http://localhost:${PORT}/actuator/health/readiness"
+
+export ALLOWED_ORIGINS_HTTP="${ALLOWED_ORIGINS_HTTP:-http://localhost}"
+export ALLOWED_ORIGINS_HTTPS="${ALLOWED_ORIGINS_HTTPS:-https://localhost}"
+
+start=$(date +%s%N)
+java "$@" -jar "$JAR" --server.port="$PORT" > startup.log 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null || true' EXIT
+
+until curl -sf "$URL" > /dev/null; do
+  if ! kill -0 "$pid" 2>/dev/null; then
+    echo "La aplicación terminó antes de estar lista:" >&2
+    tail -50 startup.log >&2
+    exit 1
+  fi
+  sleep 0.05
+done
+end=$(date +%s%N)
+
+echo "$(( (end - start) / 1000000 ))"
@@ -7,29 +7,42 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 @SpringBootApplication
 @EntityScan(basePackages = {
 		"com.prestek.FinancialEntityCore.model",   // entidades del core (Application, etc.)
-		"com.prestek.Davivienda.model"            // si tienes entidades locales
+		"com.prestek.davivienda.model"            // entidades locales (indicative_rates, ...)
 })
 public class DaviviendaApplication {
 
 	private static final Logger logger = LoggerFactory.getLogger(DaviviendaApplication.class);
 
 	public static void main(String[] args) {
-		// Load environment variables from .env.example file only if not already set
+		loadDotenv();
+		SpringApplication.run(DaviviendaApplication.class, args);
+	}
+
+	// Load environment variables from a local .env file (development only) without
+	// overriding anything already set; containers skip this entirely.
+	private static void loadDotenv() {
+		if (!Files.exists(Path.of(".env"))) {
+			return;
+		}
 		try {
 			Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
-			dotenv.entries().forEach(entry -> {
+			int loaded = 0;
+			for (var entry : dotenv.entries(Dotenv.Filter.DECLARED_IN_ENV_FILE)) {
 				String key = entry.getKey();
-
-				// Only set the system property if it is not already set
-				logger.info("Setting system property: {}={}", key, entry.getValue());
-				System.setProperty(key, entry.getValue());
-			});
+				if (System.getenv(key) == null && System.getProperty(key) == null) {
+					System.setProperty(key, entry.getValue());
+					loaded++;
+				}
+			}
+			logger.debug("Loaded {} properties from .env", loaded);
 		} catch (Exception e) {
-			// Continue without .env.example file
+			// Continue without .env file
 		}
-		SpringApplication.run(DaviviendaApplication.class, args);
 	}
 }
@@ -0,0 +1,187 @@
+package com.prestek.davivienda.archive;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Read side of the application archive. Keeps a sparse in-memory index per
+ * segment with one entry per archived block (first id -> block location).
+ * Segments may cover overlapping or interleaved id ranges (the archiver and
+ * the maintenance purge select different statuses), so a lookup checks every
+ * segment whose range contains the id: a floor search in that segment's
+ * blocks plus one block read. Memory grows with rows / block-rows, not with
+ * rows.
+ *
+ * Other instances write segments to the same directory, so a lookup that
+ * misses rescans it for segments this node has not indexed yet, at most once
+ * per archive.rescan-interval; a flood of unknown ids costs one directory
+ * listing per interval, not one per request.
+ */
+@Component
+@Slf4j
+public class ApplicationArchive {
+
+    private final Path directory;
+    private final long rescanIntervalNanos;
+    private final Map<Path, SegmentIndex> segments = new ConcurrentHashMap<>();
+    private final AtomicLong nextRescan = new AtomicLong(System.nanoTime());
+
+    // Bloques de un segmento: ids ascendentes y sin solapes dentro del segmento
+    private record SegmentIndex(long firstId, long lastId, long[] blockFirstIds,
+                                ArchiveSegmentReader.BlockRef[] blocks) {
+
+        static SegmentIndex of(List<ArchiveSegmentReader.BlockRef> blocks) {
+            ArchiveSegmentReader.BlockRef[] refs = blocks.toArray(ArchiveSegmentReader.BlockRef[]::new);
+            long[] firstIds = new long[refs.length];
+            for (int b = 0; b < refs.length; b++) {
+                firstIds[b] = refs[b].firstId();
+            }
+            return new SegmentIndex(refs[0].firstId(), refs[refs.length - 1].lastId(), firstIds, refs);
+        }
+
+        ArchiveSegmentReader.BlockRef block(long id) {
+            if (id < firstId || id > lastId) {
+                return null;
+            }
+            int b = Arrays.binarySearch(blockFirstIds, id);
+            if (b < 0) {
+                b = -b - 2;
+            }
+            return b >= 0 && blocks[b].lastId() >= id ? blocks[b] : null;
+        }
+    }
+
+    public ApplicationArchive(@Value("${archive.directory:./data/archive}") Path directory,
+                              @Value("${archive.rescan-interval:PT10S}") Duration rescanInterval) {
+        this.directory = directory;
+        this.rescanIntervalNanos = rescanInterval.toNanos();
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            rescan();
+            log.info("Loaded archive index with {} blocks in {} segments from {}", blocks(), segments.size(),
+                    directory);
+        } catch (IOException e) {
+            log.error("Could not load application archive from {}", directory, e);
+        }
+    }
+
+    public void register(Path segment) throws IOException {
+        index(segment);
+    }
+
+    /*
+     * Archived application with this id, if any. I/O problems are logged and
+     * reported as not found so the live read path never fails because of the
+     * archive.
+     */
+    public Optional<ApplicationDto> find(long id) {
+        Optional<ApplicationDto> found = find(id, segments.values());
+        if (found.isPresent() || !rescanDue()) {
+            return found;
+        }
+        try {
+            return find(id, rescan());
+        } catch (IOException e) {
+            log.warn("Could not rescan application archive {}: {}", directory, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<ApplicationDto> find(long id, Collection<SegmentIndex> candidates) {
+        for (SegmentIndex segment : candidates) {
+            ArchiveSegmentReader.BlockRef block = segment.block(id);
+            if (block == null) {
+                continue;
+            }
+            try {
+                Optional<ApplicationDto> found = ArchiveSegmentReader.find(block, id);
+                if (found.isPresent()) {
+                    return found;
+                }
+            } catch (IOException e) {
+                log.warn("Could not read archived application {} from {}: {}", id, block.segment(),
+                        e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Un solo hilo por intervalo relee el directorio; los demás fallos responden vacío
+    private boolean rescanDue() {
+        long now = System.nanoTime();
+        long next = nextRescan.get();
+        return now - next >= 0 && nextRescan.compareAndSet(next, now + rescanIntervalNanos);
+    }
+
+    /*
+     * Indexes the segments in the directory that are not indexed yet and
+     * returns them. Temporary files of segments still being written do not
+     * carry the segment extension, and unreadable segments are logged and
+     * skipped.
+     */
+    private List<SegmentIndex> rescan() throws IOException {
+        List<SegmentIndex> added = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return added;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + ArchiveFormat.EXTENSION)) {
+            for (Path segment : files) {
+                if (segments.containsKey(segment)) {
+                    continue;
+                }
+                try {
+                    SegmentIndex index = index(segment);
+                    if (index != null) {
+                        added.add(index);
+                    }
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable archive segment {}: {}", segment, e.getMessage());
+                }
+            }
+        }
+        if (!added.isEmpty()) {
+            log.debug("Indexed {} new archive segments from {}", added.size(), directory);
+        }
+        return added;
+    }
+
+    private SegmentIndex index(Path segment) throws IOException {
+        List<ArchiveSegmentReader.BlockRef> blocks = ArchiveSegmentReader.readIndex(segment);
+        if (blocks.isEmpty()) {
+            return null;
+        }
+        SegmentIndex index = SegmentIndex.of(blocks);
+        segments.put(segment, index);
+        return index;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public int blocks() {
+        return segments.values().stream().mapToInt(segment -> segment.blocks().length).sum();
+    }
+}
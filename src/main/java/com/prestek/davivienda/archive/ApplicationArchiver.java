@@ -0,0 +1,349 @@
+package com.prestek.davivienda.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+import com.prestek.davivienda.repository.ApplicationLeaseRepository;
+import com.prestek.davivienda.repository.ApplicationRepository;
+import com.prestek.davivienda.service.JobLockService;
+import com.prestek.davivienda.service.RequestCoalescer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Moves closed applications (APPROVED / REJECTED untouched for
+ * archive.archive-after) out of the hot table into archive segments:
+ *
+ *   1. stream up to segment-rows rows in id order through a read-only cursor
+ *      into a temporary segment file, detaching each entity as it is written
+ *   2. fsync and atomically rename the segment, fsync the directory so the
+ *      rename itself is durable, then add it to the index
+ *   3. delete the archived ids in batches of delete-batch-size, each batch in
+ *      its own transaction and guarded by the archiving criteria
+ *
+ * archive.directory must be an absolute path on storage shared by every
+ * instance and mounted by the deployment (an NFS/EFS share or a
+ * ReadWriteMany volume): a segment written to one container's local disk
+ * would be invisible to the others after its rows are gone. The image does
+ * not declare a volume, since Docker would give each container its own.
+ *
+ * Only one node archives at a time: every run, scheduled or through runNow(),
+ * takes the "archiver" job lock for archive.lock-ttl and renews it after each
+ * segment. A node that finds the lock held ends its run as SKIPPED.
+ *
+ * Rows are deleted only after their segment is durable and readable, so a
+ * crash in between leaves at worst rows that are both live and archived;
+ * the next run archives them again and deletes them.
+ *
+ * runNow() does the same for other statuses and cutoffs in the caller's
+ * thread; MaintenanceJob purges old REJECTED rows through it so nothing
+ * leaves the table without being archived first.
+ */
+@Service
+@Slf4j
+public class ApplicationArchiver {
+
+    static final Set<ApplicationStatus> ARCHIVED_STATUSES = Set.of(ApplicationStatus.APPROVED,
+            ApplicationStatus.REJECTED);
+
+    static final String LOCK_NAME = "archiver";
+
+    private static final String DELETE_RATE_SQL = "DELETE FROM indicative_rates WHERE application_id = ?";
+    private static final String DELETE_QUOTE_INPUTS_SQL = "DELETE FROM application_quote_inputs WHERE application_id = ?";
+
+    public enum State { IDLE, RUNNING, COMPLETED, CANCELLED, FAILED, SKIPPED }
+
+    public record Status(State state, long archived, long deleted, int segments, LocalDateTime startedAt,
+                         LocalDateTime finishedAt, String error) {
+    }
+
+    private final ApplicationRepository applicationRepository;
+    private final ApplicationLeaseRepository applicationLeaseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ApplicationArchive archive;
+    private final RequestCoalescer requestCoalescer;
+    private final JobLockService jobLockService;
+
+    private final boolean enabled;
+    private final Duration archiveAfter;
+    private final int segmentRows;
+    private final int blockRows;
+    private final int deleteBatchSize;
+    private final Duration lockTtl;
+
+    private final Counter archivedRows;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "archiver"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean cancelRequested = new AtomicBoolean();
+    private final AtomicLong archived = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private volatile int segments;
+    private volatile State state = State.IDLE;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public ApplicationArchiver(ApplicationRepository applicationRepository,
+                               ApplicationLeaseRepository applicationLeaseRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationArchive archive,
+                               RequestCoalescer requestCoalescer,
+                               JobLockService jobLockService,
+                               MeterRegistry meterRegistry,
+                               @Value("${archive.enabled:false}") boolean enabled,
+                               @Value("${archive.archive-after:P180D}") Duration archiveAfter,
+                               @Value("${archive.segment-rows:100000}") int segmentRows,
+                               @Value("${archive.block-rows:4096}") int blockRows,
+                               @Value("${archive.delete-batch-size:500}") int deleteBatchSize,
+                               @Value("${archive.lock-ttl:PT30M}") Duration lockTtl) {
+        if (enabled && !archive.directory().isAbsolute()) {
+            throw new IllegalStateException("archive.directory must be an absolute path on shared storage "
+                    + "when archive.enabled=true, got " + archive.directory());
+        }
+        this.applicationRepository = applicationRepository;
+        this.applicationLeaseRepository = applicationLeaseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.archive = archive;
+        this.requestCoalescer = requestCoalescer;
+        this.jobLockService = jobLockService;
+        this.enabled = enabled;
+        this.archiveAfter = archiveAfter;
+        this.segmentRows = segmentRows;
+        this.blockRows = blockRows;
+        this.deleteBatchSize = deleteBatchSize;
+        this.lockTtl = lockTtl;
+        this.archivedRows = Counter.builder("application.maintenance.rows").tag("action", "archived")
+                .description("Applications processed by the maintenance job")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${archive.cron:0 0 4 * * *}")
+    public void scheduled() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Archiver already running");
+            return false;
+        }
+        cancelRequested.set(false);
+        state = State.RUNNING;
+        runner.submit(this::run);
+        return true;
+    }
+
+    /*
+     * Archives and deletes the applications in the given statuses untouched
+     * since cutoff, in the caller's thread; null when a run is already in
+     * progress on this node, SKIPPED when another node holds the lock.
+     */
+    public Status runNow(Set<ApplicationStatus> statuses, LocalDateTime cutoff) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Archiver already running");
+            return null;
+        }
+        cancelRequested.set(false);
+        run(statuses, cutoff);
+        return status();
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public void cancel() {
+        cancelRequested.set(true);
+    }
+
+    public Status status() {
+        return new Status(state, archived.get(), deleted.get(), segments, startedAt, finishedAt, error);
+    }
+
+    void run() {
+        run(ARCHIVED_STATUSES, LocalDateTime.now().minus(archiveAfter));
+    }
+
+    private void run(Set<ApplicationStatus> statuses, LocalDateTime cutoff) {
+        running.set(true);
+        archived.set(0);
+        deleted.set(0);
+        segments = 0;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        error = null;
+        state = State.RUNNING;
+        boolean locked;
+        try {
+            locked = jobLockService.tryAcquire(LOCK_NAME, lockTtl);
+        } catch (RuntimeException e) {
+            log.error("Could not take the archiver lock", e);
+            finish(State.FAILED, e.getMessage());
+            return;
+        }
+        if (!locked) {
+            log.info("Archiver lock held by another node");
+            finish(State.SKIPPED, null);
+            return;
+        }
+        State finalState;
+        String failure = null;
+        try {
+            Files.createDirectories(archive.directory());
+            long afterId = 0;
+            while (!cancelRequested.get()) {
+                ArchiveSegmentWriter.SegmentInfo segment = writeSegment(statuses, cutoff, afterId);
+                if (segment == null) {
+                    break;
+                }
+                archive.register(segment.path());
+                segments++;
+                archived.addAndGet(segment.rows());
+                archivedRows.increment(segment.rows());
+                deleteArchived(segment.ids(), statuses, cutoff);
+                afterId = segment.lastId();
+                // Si el lock venció y otro nodo lo tomó, este nodo deja de escribir segmentos
+                if (!jobLockService.renew(LOCK_NAME, lockTtl)) {
+                    throw new IllegalStateException("Lost the archiver lock to another node");
+                }
+            }
+            finalState = cancelRequested.get() ? State.CANCELLED : State.COMPLETED;
+        } catch (IOException | RuntimeException e) {
+            log.error("Archiver failed after {} applications", archived.get(), e);
+            finalState = State.FAILED;
+            failure = e.getMessage();
+        }
+        // Se libera antes de finish(): una vez running está en false otra corrida puede tomar el lock
+        try {
+            jobLockService.release(LOCK_NAME);
+        } catch (RuntimeException e) {
+            log.warn("Could not release the archiver lock; it lapses after {}", lockTtl, e);
+        }
+        finish(finalState, failure);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cancelRequested.set(true);
+        runner.shutdown();
+    }
+
+    private ArchiveSegmentWriter.SegmentInfo writeSegment(Set<ApplicationStatus> statuses, LocalDateTime cutoff,
+                                                          long afterId) throws IOException {
+        Path temporary = archive.directory().resolve("segment-" + System.nanoTime() + ".tmp");
+        ArchiveSegmentWriter.SegmentInfo segment;
+        try {
+            segment = readOnlyTransaction.execute(tx -> {
+            try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(temporary, blockRows);
+                 Stream<Application> rows = applicationRepository.streamForArchive(statuses, cutoff, afterId)) {
+                rows.limit(segmentRows).forEach(application -> {
+                    try {
+                        writer.append(application);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    entityManager.detach(application);
+                });
+                return writer.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            });
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+
+        if (segment == null || segment.rows() == 0) {
+            Files.deleteIfExists(temporary);
+            return null;
+        }
+        Path target = archive.directory().resolve(String.format("applications-%019d-%019d%s",
+                segment.firstId(), segment.lastId(), ArchiveFormat.EXTENSION));
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(archive.directory());
+        log.info("Archived {} applications ({}..{}) to {}", segment.rows(), segment.firstId(), segment.lastId(),
+                target.getFileName());
+        return new ArchiveSegmentWriter.SegmentInfo(target, segment.rows(), segment.firstId(), segment.lastId(),
+                segment.ids());
+    }
+
+    // Sin esto el rename puede perderse tras un corte de energía aunque el
+    // contenido del segmento ya esté en disco
+    private static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Windows no permite abrir directorios; allí el rename ya es durable
+            log.debug("Directory fsync not supported for {}", directory);
+        }
+    }
+
+    private void deleteArchived(long[] ids, Set<ApplicationStatus> statuses, LocalDateTime cutoff) {
+        for (int from = 0; from < ids.length && !cancelRequested.get(); from += deleteBatchSize) {
+            List<Long> batch = Arrays.stream(ids, from, Math.min(ids.length, from + deleteBatchSize))
+                    .boxed()
+                    .toList();
+            int removed = writeTransaction.execute(tx -> {
+                List<Object[]> args = batch.stream().map(id -> new Object[]{id}).toList();
+                jdbcTemplate.batchUpdate(DELETE_RATE_SQL, args);
+                jdbcTemplate.batchUpdate(DELETE_QUOTE_INPUTS_SQL, args);
+                applicationLeaseRepository.deleteByApplicationIdIn(batch);
+                return applicationRepository.deleteArchived(batch, statuses, cutoff);
+            });
+            deleted.addAndGet(removed);
+        }
+        requestCoalescer.invalidateAll();
+    }
+
+    private void finish(State finalState, String failure) {
+        finishedAt = LocalDateTime.now();
+        error = failure;
+        state = finalState;
+        running.set(false);
+        log.info("Archiver {}: archived {}, deleted {} applications in {} segments", finalState, archived.get(),
+                deleted.get(), segments);
+    }
+}
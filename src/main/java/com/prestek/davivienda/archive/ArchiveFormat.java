@@ -0,0 +1,91 @@
+package com.prestek.davivienda.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/*
+ * Layout of an archive segment (.dvar):
+ *
+ *   header  : MAGIC int, VERSION short
+ *   blocks  : Deflate-compressed column blocks of up to blockRows rows
+ *   index   : per block firstId long, lastId long, offset long, length int, rows int
+ *   trailer : index offset long, block count int, MAGIC int
+ *
+ * Inside a block every column is stored contiguously: ids (first id, then
+ * varint deltas), status names, amounts, five timestamps as epoch micros
+ * (NULL_TIME when absent) and the string columns as length-prefixed UTF-8
+ * (-1 for null). Sorted ids and same-typed neighbours compress much better
+ * than row-wise records.
+ */
+final class ArchiveFormat {
+
+    static final int MAGIC = 0x44564152; // "DVAR"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 6;
+    static final int INDEX_ENTRY_BYTES = 8 + 8 + 8 + 4 + 4;
+    static final int TRAILER_BYTES = 8 + 4 + 4;
+    static final long NULL_TIME = Long.MIN_VALUE;
+    static final String EXTENSION = ".dvar";
+
+    private ArchiveFormat() {
+    }
+
+    static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        if (micros == NULL_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+package com.prestek.davivienda.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.InflaterInputStream;
+
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+
+/*
+ * Reads archive segments: the block index from the trailer, and single rows
+ * by id from one block (positional NIO read, inflate, binary search on the
+ * id column).
+ */
+public final class ArchiveSegmentReader {
+
+    public record BlockRef(Path segment, long firstId, long lastId, long offset, int length, int rows) {
+    }
+
+    private ArchiveSegmentReader() {
+    }
+
+    public static List<BlockRef> readIndex(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < ArchiveFormat.HEADER_BYTES + ArchiveFormat.TRAILER_BYTES) {
+                throw new IOException("Truncated archive segment " + segment);
+            }
+            ByteBuffer trailer = readAt(channel, size - ArchiveFormat.TRAILER_BYTES, ArchiveFormat.TRAILER_BYTES);
+            long indexOffset = trailer.getLong();
+            int blockCount = trailer.getInt();
+            if (trailer.getInt() != ArchiveFormat.MAGIC) {
+                throw new IOException("Not an archive segment (or incomplete): " + segment);
+            }
+
+            ByteBuffer index = readAt(channel, indexOffset, blockCount * ArchiveFormat.INDEX_ENTRY_BYTES);
+            List<BlockRef> blocks = new ArrayList<>(blockCount);
+            for (int b = 0; b < blockCount; b++) {
+                blocks.add(new BlockRef(segment, index.getLong(), index.getLong(), index.getLong(),
+                        index.getInt(), index.getInt()));
+            }
+            return blocks;
+        }
+    }
+
+    public static Optional<ApplicationDto> find(BlockRef block, long id) throws IOException {
+        byte[] compressed;
+        try (FileChannel channel = FileChannel.open(block.segment(), StandardOpenOption.READ)) {
+            compressed = readAt(channel, block.offset(), block.length()).array();
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(compressed)))) {
+            int rows = in.readInt();
+            long[] ids = new long[rows];
+            ids[0] = in.readLong();
+            for (int i = 1; i < rows; i++) {
+                ids[i] = ids[i - 1] + ArchiveFormat.readVarLong(in);
+            }
+            int row = Arrays.binarySearch(ids, id);
+            if (row < 0) {
+                return Optional.empty();
+            }
+
+            String status = nth(in, rows, row);
+            in.skipNBytes(8L * row);
+            double amount = in.readDouble();
+            in.skipNBytes(8L * (rows - row - 1));
+            long[] times = new long[5];
+            for (int c = 0; c < times.length; c++) {
+                in.skipNBytes(8L * row);
+                times[c] = in.readLong();
+                in.skipNBytes(8L * (rows - row - 1));
+            }
+            String userId = nth(in, rows, row);
+            String notes = nth(in, rows, row);
+            String rejectionReason = nth(in, rows, row);
+
+            return Optional.of(ApplicationDto.builder()
+                    .id(id)
+                    .userId(userId)
+                    .amount(Double.isNaN(amount) ? null : amount)
+                    .status(status != null ? ApplicationStatus.valueOf(status) : null)
+                    .applicationDate(ArchiveFormat.fromMicros(times[0]))
+                    .reviewDate(ArchiveFormat.fromMicros(times[1]))
+                    .approvalDate(ArchiveFormat.fromMicros(times[2]))
+                    .createdAt(ArchiveFormat.fromMicros(times[3]))
+                    .updatedAt(ArchiveFormat.fromMicros(times[4]))
+                    .notes(notes)
+                    .rejectionReason(rejectionReason)
+                    .build());
+        }
+    }
+
+    // Lee una columna de strings completa y devuelve el valor de la fila pedida
+    private static String nth(DataInputStream in, int rows, int row) throws IOException {
+        String value = null;
+        for (int i = 0; i < rows; i++) {
+            if (i == row) {
+                value = ArchiveFormat.readString(in);
+            } else {
+                int length = in.readInt();
+                if (length > 0) {
+                    in.skipNBytes(length);
+                }
+            }
+        }
+        return value;
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive segment");
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,184 @@
+package com.prestek.davivienda.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import com.prestek.FinancialEntityCore.model.Application;
+
+/*
+ * Writes one archive segment. Rows must arrive in ascending id order; they
+ * are buffered column by column and flushed as a compressed block every
+ * blockRows rows, so memory stays at one block regardless of segment size.
+ * finish() appends the block index and forces the file to disk.
+ */
+public class ArchiveSegmentWriter implements Closeable {
+
+    public record SegmentInfo(Path path, int rows, long firstId, long lastId, long[] ids) {
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int blockRows;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final List<ArchiveSegmentReader.BlockRef> blocks = new ArrayList<>();
+
+    // Columnas del bloque en curso
+    private final long[] blockIds;
+    private final String[] statuses;
+    private final double[] amounts;
+    private final long[][] times;
+    private final String[] userIds;
+    private final String[] notes;
+    private final String[] rejectionReasons;
+    private int buffered;
+
+    private long[] allIds = new long[1024];
+    private int rows;
+    private long position;
+
+    public ArchiveSegmentWriter(Path path, int blockRows) throws IOException {
+        this.path = path;
+        this.blockRows = blockRows;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.blockIds = new long[blockRows];
+        this.statuses = new String[blockRows];
+        this.amounts = new double[blockRows];
+        this.times = new long[5][blockRows];
+        this.userIds = new String[blockRows];
+        this.notes = new String[blockRows];
+        this.rejectionReasons = new String[blockRows];
+
+        ByteBuffer header = ByteBuffer.allocate(ArchiveFormat.HEADER_BYTES);
+        header.putInt(ArchiveFormat.MAGIC).putShort(ArchiveFormat.VERSION).flip();
+        writeFully(header);
+    }
+
+    public void append(Application application) throws IOException {
+        long id = application.getId();
+        if (rows > 0 && id <= allIds[rows - 1]) {
+            throw new IllegalArgumentException("Archive rows must be in ascending id order: " + id);
+        }
+        int i = buffered++;
+        blockIds[i] = id;
+        statuses[i] = application.getStatus() != null ? application.getStatus().name() : null;
+        amounts[i] = application.getAmount() != null ? application.getAmount() : Double.NaN;
+        times[0][i] = ArchiveFormat.toMicros(application.getApplicationDate());
+        times[1][i] = ArchiveFormat.toMicros(application.getReviewDate());
+        times[2][i] = ArchiveFormat.toMicros(application.getApprovalDate());
+        times[3][i] = ArchiveFormat.toMicros(application.getCreatedAt());
+        times[4][i] = ArchiveFormat.toMicros(application.getUpdatedAt());
+        userIds[i] = application.getUserId();
+        notes[i] = application.getNotes();
+        rejectionReasons[i] = application.getRejectionReason();
+
+        if (rows == allIds.length) {
+            allIds = Arrays.copyOf(allIds, rows * 2);
+        }
+        allIds[rows++] = id;
+
+        if (buffered == blockRows) {
+            flushBlock();
+        }
+    }
+
+    /*
+     * Flushes the last block, writes the index and trailer and fsyncs.
+     */
+    public SegmentInfo finish() throws IOException {
+        if (buffered > 0) {
+            flushBlock();
+        }
+        long indexOffset = position;
+        ByteBuffer index = ByteBuffer.allocate(blocks.size() * ArchiveFormat.INDEX_ENTRY_BYTES
+                + ArchiveFormat.TRAILER_BYTES);
+        for (ArchiveSegmentReader.BlockRef block : blocks) {
+            index.putLong(block.firstId()).putLong(block.lastId()).putLong(block.offset())
+                    .putInt(block.length()).putInt(block.rows());
+        }
+        index.putLong(indexOffset).putInt(blocks.size()).putInt(ArchiveFormat.MAGIC).flip();
+        writeFully(index);
+        channel.force(true);
+        return new SegmentInfo(path, rows, rows > 0 ? allIds[0] : 0, rows > 0 ? allIds[rows - 1] : 0,
+                Arrays.copyOf(allIds, rows));
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        channel.close();
+    }
+
+    private void flushBlock() throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(buffered * 64);
+        DataOutputStream out = new DataOutputStream(raw);
+        out.writeInt(buffered);
+        out.writeLong(blockIds[0]);
+        for (int i = 1; i < buffered; i++) {
+            ArchiveFormat.writeVarLong(out, blockIds[i] - blockIds[i - 1]);
+        }
+        for (int i = 0; i < buffered; i++) {
+            ArchiveFormat.writeString(out, statuses[i]);
+        }
+        for (int i = 0; i < buffered; i++) {
+            out.writeDouble(amounts[i]);
+        }
+        for (long[] column : times) {
+            for (int i = 0; i < buffered; i++) {
+                out.writeLong(column[i]);
+            }
+        }
+        for (int i = 0; i < buffered; i++) {
+            ArchiveFormat.writeString(out, userIds[i]);
+        }
+        for (int i = 0; i < buffered; i++) {
+            ArchiveFormat.writeString(out, notes[i]);
+        }
+        for (int i = 0; i < buffered; i++) {
+            ArchiveFormat.writeString(out, rejectionReasons[i]);
+        }
+        out.flush();
+
+        byte[] compressed = compress(raw.toByteArray());
+        blocks.add(new ArchiveSegmentReader.BlockRef(path, blockIds[0], blockIds[buffered - 1], position,
+                compressed.length, buffered));
+        writeFully(ByteBuffer.wrap(compressed));
+        Arrays.fill(statuses, 0, buffered, null);
+        Arrays.fill(userIds, 0, buffered, null);
+        Arrays.fill(notes, 0, buffered, null);
+        Arrays.fill(rejectionReasons, 0, buffered, null);
+        buffered = 0;
+    }
+
+    private byte[] compress(byte[] input) {
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(chunk);
+            out.write(chunk, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+}
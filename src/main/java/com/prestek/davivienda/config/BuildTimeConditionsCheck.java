@@ -0,0 +1,72 @@
+package com.prestek.davivienda.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+/*
+ * With -Dspring.aot.enabled=true (fast-startup build, Dockerfile) the bean
+ * conditions below were evaluated by process-aot and are frozen in the image:
+ *
+ *   datasource.replicas.enabled  -> ReplicaRoutingConfig
+ *   scheduling.enabled           -> SchedulingConfig (@Scheduled jobs)
+ *   profile test                 -> TestSecurityConfig instead of SecurityConfig
+ *
+ * Setting them differently at runtime would otherwise be silently ignored,
+ * so startup fails listing the mismatches. Every other toggle
+ * (grpc.server.enabled, rate-limit.enabled, concurrency-limit.enabled,
+ * profile l2cache, the *.enabled job flags) is read at runtime.
+ */
+@Component
+public class BuildTimeConditionsCheck implements SmartInitializingSingleton {
+
+    private final Environment environment;
+    private final ListableBeanFactory beanFactory;
+
+    public BuildTimeConditionsCheck(Environment environment, ListableBeanFactory beanFactory) {
+        this.environment = environment;
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        List<String> mismatches = mismatches(environment, beanFactory);
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("Runtime settings differ from the AOT build, rebuild with "
+                    + "-Pfast-startup and the same values: " + String.join("; ", mismatches));
+        }
+    }
+
+    static List<String> mismatches(Environment environment, ListableBeanFactory beanFactory) {
+        List<String> mismatches = new ArrayList<>();
+        check(mismatches, "datasource.replicas.enabled",
+                environment.getProperty("datasource.replicas.enabled", Boolean.class, false),
+                present(beanFactory, ReplicaRoutingConfig.class));
+        check(mismatches, "scheduling.enabled",
+                environment.getProperty("scheduling.enabled", Boolean.class, true),
+                present(beanFactory, SchedulingConfig.class));
+        check(mismatches, "profile test",
+                environment.acceptsProfiles(Profiles.of("test")),
+                present(beanFactory, TestSecurityConfig.class));
+        return mismatches;
+    }
+
+    private static void check(List<String> mismatches, String toggle, boolean atRuntime, boolean atBuild) {
+        if (atRuntime != atBuild) {
+            mismatches.add(toggle + " is " + atRuntime + " at runtime but " + atBuild + " in the build");
+        }
+    }
+
+    private static boolean present(ListableBeanFactory beanFactory, Class<?> type) {
+        return beanFactory.getBeanNamesForType(type, false, false).length > 0;
+    }
+}
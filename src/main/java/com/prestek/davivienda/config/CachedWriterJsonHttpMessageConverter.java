@@ -0,0 +1,65 @@
+package com.prestek.davivienda.config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.TypeUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/*
+ * JSON converter that keeps one ObjectWriter per declared response type and
+ * streams straight into the response body. The stock converter rebuilds the
+ * JavaType and writer on every call; for plain UTF-8 bodies that work is the
+ * same each time. As in the stock converter, a value that is not assignable to
+ * the declared type is written by its runtime class. JSON views, filters and
+ * other charsets keep the default path.
+ */
+public class CachedWriterJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    // Acotado por la cantidad de tipos de retorno de los controllers
+    private static final int MAX_CACHED_WRITERS = 256;
+
+    private final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public CachedWriterJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        boolean utf8 = contentType == null || contentType.getCharset() == null
+                || StandardCharsets.UTF_8.equals(contentType.getCharset());
+        if (object instanceof MappingJacksonValue || !utf8) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        Type writeType = type != null && TypeUtils.isAssignable(type, object.getClass()) ? type : object.getClass();
+        writerFor(writeType).writeValue(StreamUtils.nonClosing(outputMessage.getBody()), object);
+    }
+
+    ObjectWriter writerFor(Type type) {
+        ObjectWriter writer = writers.get(type);
+        if (writer == null) {
+            ObjectMapper mapper = getObjectMapper();
+            writer = mapper.writerFor(mapper.constructType(type));
+            if (writers.size() < MAX_CACHED_WRITERS) {
+                writers.putIfAbsent(type, writer);
+            }
+        }
+        return writer;
+    }
+}
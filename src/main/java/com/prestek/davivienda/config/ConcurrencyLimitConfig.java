@@ -0,0 +1,108 @@
+package com.prestek.davivienda.config;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.prestek.davivienda.filter.AdaptiveConcurrencyLimiter;
+import com.prestek.davivienda.filter.ConcurrencyLimitFilter;
+import com.prestek.davivienda.filter.ConcurrencyLimitFilter.Group;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Separate adaptive concurrency bulkheads for quote traffic (CPU only) and
+ * application traffic (database bound). Registered after the CORS filter, so
+ * 503s carry CORS headers, and ahead of the security chain, so shed requests
+ * cost no JWT verification. concurrency-limit.enabled
+ * only toggles the registration, so it still applies to AOT builds.
+ * concurrency-limit.excluded-paths lists exact paths that skip the bulkheads.
+ */
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    private static final int FILTER_ORDER = -110;
+
+    @Value("${concurrency-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${concurrency-limit.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${concurrency-limit.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${concurrency-limit.excluded-paths:/api/applications/export.csv}")
+    private String excludedPaths;
+
+    @Value("${concurrency-limit.quotes.initial-limit:100}")
+    private int quotesInitial;
+
+    @Value("${concurrency-limit.quotes.min-limit:20}")
+    private int quotesMin;
+
+    @Value("${concurrency-limit.quotes.max-limit:1000}")
+    private int quotesMax;
+
+    @Value("${concurrency-limit.applications.initial-limit:20}")
+    private int applicationsInitial;
+
+    @Value("${concurrency-limit.applications.min-limit:4}")
+    private int applicationsMin;
+
+    @Value("${concurrency-limit.applications.max-limit:200}")
+    private int applicationsMax;
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(MeterRegistry meterRegistry) {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        AdaptiveConcurrencyLimiter quotes = new AdaptiveConcurrencyLimiter("quotes",
+                quotesInitial, quotesMin, quotesMax, tolerance, smoothing, timeoutNanos);
+        AdaptiveConcurrencyLimiter applications = new AdaptiveConcurrencyLimiter("applications",
+                applicationsInitial, applicationsMin, applicationsMax, tolerance, smoothing, timeoutNanos);
+        register(meterRegistry, quotes);
+        register(meterRegistry, applications);
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(List.of(
+                        new Group("/api/quotes", quotes),
+                        new Group("/api/applications", applications)),
+                excludedPaths()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(FILTER_ORDER);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+
+    private Set<String> excludedPaths() {
+        return Arrays.stream(excludedPaths.split(","))
+                .map(String::trim)
+                .filter(path -> !path.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static void register(MeterRegistry registry, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .tag("group", limiter.name())
+                .register(registry);
+        Gauge.builder("http.server.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::inflight)
+                .tag("group", limiter.name())
+                .register(registry);
+        FunctionCounter.builder("http.server.concurrency.rejections", limiter, AdaptiveConcurrencyLimiter::rejected)
+                .tag("group", limiter.name())
+                .description("Requests shed with 503 by the concurrency limiter")
+                .register(registry);
+    }
+}
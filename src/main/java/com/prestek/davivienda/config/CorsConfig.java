@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
@@ -22,6 +23,9 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class CorsConfig implements WebMvcConfigurer {
 
+    // Antes de ConcurrencyLimitFilter (-110) para que los 503 lleven cabeceras CORS
+    public static final int CORS_FILTER_ORDER = -120;
+
     @Value("${ALLOWED_ORIGINS_HTTP}")
     private String allowedOriginsHttp;
 
@@ -45,9 +49,17 @@ public class CorsConfig implements WebMvcConfigurer {
                 .flatMap(Arrays::stream)
                 .toList();
         config.setAllowedOrigins(allOrigins);
-        config.setAllowedHeaders(Arrays.asList("Origin", "Content-Type", "Accept", "Authorization"));
+        config.setAllowedHeaders(Arrays.asList("Origin", "Content-Type", "Accept", "Authorization", "Idempotency-Key"));
+        config.setExposedHeaders(Arrays.asList("Idempotent-Replayed"));
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
     }
+
+    @Bean
+    public FilterRegistrationBean<CorsFilter> corsFilterRegistration(CorsFilter corsFilter) {
+        FilterRegistrationBean<CorsFilter> registration = new FilterRegistrationBean<>(corsFilter);
+        registration.setOrder(CORS_FILTER_ORDER);
+        return registration;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.prestek.davivienda.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Async support for streamed responses (GET /api/applications/export.csv).
+ * A StreamingResponseBody runs on this executor instead of a Tomcat thread;
+ * the pool bounds how many exports hold a database cursor at once and the
+ * timeout replaces the container's 30s default, which a multi-million-row
+ * download would exceed.
+ */
+@Configuration
+public class ExportConfig implements WebMvcConfigurer {
+
+    @Value("${export.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${export.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${export.timeout:PT30M}")
+    private Duration timeout;
+
+    // No se publica como bean: un Executor en el contexto desactiva el
+    // applicationTaskExecutor que Boot crea por defecto
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        executor.setThreadNamePrefix("export-");
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        configurer.setTaskExecutor(executor);
+        configurer.setDefaultTimeout(timeout.toMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,76 @@
+package com.prestek.davivienda.config;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/*
+ * Writes LocalDateTime exactly as DateTimeFormatter.ISO_LOCAL_DATE_TIME would
+ * (seconds always present, fraction without trailing zeros) but digit by digit
+ * into a per-thread char buffer, so no formatter state or String is created
+ * per value. Years outside 0000-9999 fall back to the formatter.
+ */
+public final class IsoLocalDateTimeSerializer extends StdSerializer<LocalDateTime> {
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    static final int MAX_LENGTH = 29;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    public IsoLocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+        char[] buffer = BUFFER.get();
+        gen.writeString(buffer, 0, format(value, buffer));
+    }
+
+    /*
+     * Formats into buffer (at least MAX_LENGTH chars) and returns the length.
+     */
+    static int format(LocalDateTime value, char[] buffer) {
+        int pos = 0;
+        pos = digits(value.getYear(), 4, buffer, pos);
+        buffer[pos++] = '-';
+        pos = digits(value.getMonthValue(), 2, buffer, pos);
+        buffer[pos++] = '-';
+        pos = digits(value.getDayOfMonth(), 2, buffer, pos);
+        buffer[pos++] = 'T';
+        pos = digits(value.getHour(), 2, buffer, pos);
+        buffer[pos++] = ':';
+        pos = digits(value.getMinute(), 2, buffer, pos);
+        buffer[pos++] = ':';
+        pos = digits(value.getSecond(), 2, buffer, pos);
+
+        int nano = value.getNano();
+        if (nano > 0) {
+            int width = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                width--;
+            }
+            buffer[pos++] = '.';
+            pos = digits(nano, width, buffer, pos);
+        }
+        return pos;
+    }
+
+    private static int digits(int value, int width, char[] buffer, int pos) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
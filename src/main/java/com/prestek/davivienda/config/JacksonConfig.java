@@ -0,0 +1,69 @@
+package com.prestek.davivienda.config;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/*
+ * JSON serialization for the REST API. CorsConfig uses @EnableWebMvc, so the
+ * MVC converters are not built from Boot's ObjectMapper; this swaps the JSON
+ * converter for one backed by that mapper (modules below included).
+ * LocalDateTime keeps the previous numeric-array format unless
+ * json.iso-dates.enabled is set, in which case it is written as ISO-8601 text.
+ */
+@Configuration
+public class JacksonConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ObjectMapper> objectMapper;
+    private final boolean isoDates;
+
+    public JacksonConfig(ObjectProvider<ObjectMapper> objectMapper,
+                         @Value("${json.iso-dates.enabled:false}") boolean isoDates) {
+        this.objectMapper = objectMapper;
+        this.isoDates = isoDates;
+    }
+
+    // Accesores generados con LambdaMetafactory en lugar de reflexión (no aplica en native image)
+    @Bean
+    public static Module blackbirdModule() {
+        return NativeDetector.inNativeImage() ? new SimpleModule("BlackbirdDisabled") : new BlackbirdModule();
+    }
+
+    // Solo para el converter de MVC y con json.iso-dates.enabled; no se registra como bean
+    public static Module isoDateTimeModule() {
+        return new SimpleModule("IsoDateTimeModule")
+                .addSerializer(LocalDateTime.class, new IsoLocalDateTimeSerializer());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        ObjectMapper mapper = objectMapper.getIfAvailable();
+        if (mapper == null) {
+            return;
+        }
+        // Boot desactiva WRITE_DATES_AS_TIMESTAMPS; el converter anterior los escribía como arreglos
+        mapper = isoDates
+                ? mapper.copy().registerModule(isoDateTimeModule())
+                : mapper.copy().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                converters.set(i, new CachedWriterJsonHttpMessageConverter(mapper));
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.prestek.davivienda.config;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Validates Clerk-issued bearer tokens (expiry, issuer, RS256 signature against
+ * the cached JWKS) and maps the "role" claim to ROLE_* authorities. Shared by
+ * the REST JwtAuthenticationFilter and the gRPC JwtServerInterceptor.
+ */
+@Component
+@Slf4j
+public class JwtTokenVerifier {
+
+    private static final long CACHE_DURATION = 3600000;
+
+    private final String clerkIssuer;
+    private final String clerkJwksUrl;
+
+    private volatile JWKSet jwkSet;
+    private volatile long jwkSetCacheTime = 0;
+
+    public JwtTokenVerifier(@Value("${CLERK_ISSUER}") String clerkIssuer,
+                            @Value("${CLERK_JWKS_URL}") String clerkJwksUrl) {
+        this.clerkIssuer = clerkIssuer;
+        this.clerkJwksUrl = clerkJwksUrl;
+    }
+
+    public static class InvalidTokenException extends Exception {
+        public InvalidTokenException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /*
+     * Returns the authenticated principal (subject + authorities) or throws
+     * with the reason the token was rejected.
+     */
+    public UsernamePasswordAuthenticationToken verify(String token) throws InvalidTokenException {
+        SignedJWT signedJWT;
+        JWTClaimsSet claims;
+        try {
+            signedJWT = SignedJWT.parse(token);
+            claims = signedJWT.getJWTClaimsSet();
+        } catch (Exception e) {
+            throw new InvalidTokenException("Invalid token");
+        }
+
+        Date expirationTime = claims.getExpirationTime();
+        if (expirationTime == null || expirationTime.before(Date.from(Instant.now()))) {
+            throw new InvalidTokenException("Token expired");
+        }
+
+        if (!clerkIssuer.equals(claims.getIssuer())) {
+            throw new InvalidTokenException("Invalid issuer");
+        }
+
+        try {
+            JWK jwk = jwkSet().getKeyByKeyId(signedJWT.getHeader().getKeyID());
+            if (jwk == null) {
+                throw new InvalidTokenException("Invalid key ID");
+            }
+            RSAKey rsaKey = jwk.toRSAKey();
+            JWSVerifier verifier = new RSASSAVerifier(rsaKey);
+            if (!signedJWT.verify(verifier)) {
+                throw new InvalidTokenException("Invalid signature");
+            }
+        } catch (InvalidTokenException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InvalidTokenException("Invalid token");
+        }
+
+        return new UsernamePasswordAuthenticationToken(claims.getSubject(), null, authorities(claims));
+    }
+
+    // Extraer rol del token
+    private List<SimpleGrantedAuthority> authorities(JWTClaimsSet claims) {
+        Object roleClaim = claims.getClaim("role");
+        if (roleClaim instanceof String string) {
+            return List.of(new SimpleGrantedAuthority("ROLE_" + string.toUpperCase()));
+        }
+        if (roleClaim instanceof List<?> roles) {
+            return roles.stream()
+                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toString().toUpperCase()))
+                    .collect(Collectors.toList());
+        }
+        if (roleClaim == null) {
+            log.warn("No role claim found in token for subject {}", claims.getSubject());
+        }
+        return Collections.emptyList();
+    }
+
+    private JWKSet jwkSet() throws Exception {
+        JWKSet current = jwkSet;
+        if (current == null || System.currentTimeMillis() - jwkSetCacheTime > CACHE_DURATION) {
+            current = loadJWKSet(clerkJwksUrl);
+            jwkSet = current;
+            jwkSetCacheTime = System.currentTimeMillis();
+        }
+        return current;
+    }
+
+    private JWKSet loadJWKSet(String jwksUrl) throws Exception {
+        URL url = URI.create(jwksUrl).toURL();
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("GET");
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000);
+
+        try (InputStream inputStream = connection.getInputStream()) {
+            return JWKSet.load(inputStream);
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.prestek.davivienda.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/*
+ * Binary formats for high-volume consumers, negotiated through
+ * Accept/Content-Type: application/cbor (same fields as the JSON, built from
+ * Boot's Jackson settings) and application/x-protobuf (davivienda.proto).
+ * Converters are appended after JSON, which stays the default.
+ */
+@Configuration
+public class MessageFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public MessageFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // @EnableWebMvc ya registra un conversor CBOR con un mapper sin configurar
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        Jackson2ObjectMapperBuilder builder = objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::cbor);
+        converters.add(new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build()));
+        converters.add(new ProtobufDtoHttpMessageConverter());
+    }
+}
@@ -0,0 +1,81 @@
+package com.prestek.davivienda.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.dto.QuoteDto;
+import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.FinancialEntityCore.request.CreateApplicationRequest;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+import com.prestek.davivienda.archive.ApplicationArchiver;
+import com.prestek.davivienda.ingest.PartnerImportJob;
+import com.prestek.davivienda.model.ApplicationLease;
+import com.prestek.davivienda.model.ApplicationQuoteInputs;
+import com.prestek.davivienda.model.IdempotencyRecord;
+import com.prestek.davivienda.model.ImportCheckpoint;
+import com.prestek.davivienda.model.IndicativeRate;
+import com.prestek.davivienda.model.JobLock;
+import com.prestek.davivienda.model.RepricingCheckpoint;
+import com.prestek.davivienda.service.MaintenanceJob;
+import com.prestek.davivienda.service.QuoteRejection;
+import com.prestek.davivienda.service.RepricingJob;
+
+/*
+ * Reachability metadata for the native image (-Pnative). Spring AOT already
+ * covers beans and scanned entities; this adds what is only reached through
+ * Jackson, Hibernate proxies or reflection inside libraries.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.DaviviendaRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class DaviviendaRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final MemberCategory[] BINDING = {
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.INVOKE_DECLARED_METHODS,
+                MemberCategory.DECLARED_FIELDS
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Entidades y DTOs del core (JSON y Hibernate)
+            for (Class<?> type : new Class<?>[]{
+                    Application.class, Application.ApplicationStatus.class,
+                    ApplicationDto.class, QuoteDto.class, QuoteRequest.class, CreateApplicationRequest.class}) {
+                hints.reflection().registerType(type, BINDING);
+            }
+            hints.reflection().registerType(
+                    TypeReference.of(ApplicationDto.class.getName() + "$ApplicationDtoBuilder"), BINDING);
+
+            // Entidades propias (Hibernate) y estados de los jobs que se sirven como JSON
+            for (Class<?> type : new Class<?>[]{
+                    IdempotencyRecord.class, ApplicationLease.class, ImportCheckpoint.class, JobLock.class,
+                    IndicativeRate.class, RepricingCheckpoint.class, ApplicationQuoteInputs.class,
+                    QuoteRejection.class, RepricingJob.Status.class, MaintenanceJob.Status.class,
+                    ApplicationArchiver.Status.class, PartnerImportJob.Status.class}) {
+                hints.reflection().registerType(type, BINDING);
+            }
+
+            // Nimbus JOSE (SecurityConfig): JWKSet/JWT parsing with the shaded Gson
+            for (String type : new String[]{
+                    "com.nimbusds.jose.jwk.JWKSet",
+                    "com.nimbusds.jose.jwk.RSAKey",
+                    "com.nimbusds.jwt.SignedJWT",
+                    "com.nimbusds.jwt.JWTClaimsSet",
+                    "com.nimbusds.jose.shaded.gson.internal.LinkedTreeMap"}) {
+                hints.reflection().registerType(TypeReference.of(type), BINDING);
+            }
+
+            // springdoc / swagger-ui
+            hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/*");
+            hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+        }
+    }
+}
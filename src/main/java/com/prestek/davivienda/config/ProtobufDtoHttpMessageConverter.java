@@ -0,0 +1,96 @@
+package com.prestek.davivienda.config;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.dto.QuoteDto;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+import com.prestek.davivienda.mapper.ProtoMapper;
+import com.prestek.davivienda.proto.QuoteRequestMessage;
+import com.prestek.davivienda.service.QuoteRejection;
+
+/*
+ * Reads QuoteRequest and writes QuoteDto, QuoteRejection, ApplicationDto and lists of
+ * ApplicationDto as the Protobuf messages in davivienda.proto, so the
+ * controllers keep their DTO signatures and the format is picked by
+ * Accept/Content-Type like any other converter.
+ */
+public class ProtobufDtoHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+    public ProtobufDtoHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return QuoteRequest.class == clazz || QuoteDto.class == clazz || QuoteRejection.class == clazz
+                || ApplicationDto.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return type == QuoteRequest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (clazz == QuoteDto.class || clazz == QuoteRejection.class || clazz == ApplicationDto.class) {
+            return true;
+        }
+        return type instanceof ParameterizedType && Collection.class.isAssignableFrom(clazz)
+                && ResolvableType.forType(type).getGeneric(0).resolve() == ApplicationDto.class;
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return readInternal(QuoteRequest.class, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        try {
+            return ProtoMapper.toQuoteRequest(QuoteRequestMessage.parseFrom(inputMessage.getBody()));
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Invalid protobuf QuoteRequest: " + e.getMessage(), e,
+                    inputMessage);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (object instanceof QuoteDto quote) {
+            ProtoMapper.toMessage(quote).writeTo(outputMessage.getBody());
+        } else if (object instanceof QuoteRejection rejection) {
+            ProtoMapper.toMessage(rejection).writeTo(outputMessage.getBody());
+        } else if (object instanceof ApplicationDto application) {
+            ProtoMapper.toMessage(application).writeTo(outputMessage.getBody());
+        } else if (object instanceof Collection<?> applications) {
+            ProtoMapper.toListMessage((Collection<ApplicationDto>) applications).writeTo(outputMessage.getBody());
+        } else {
+            throw new HttpMessageNotWritableException("Unsupported protobuf type: " + object.getClass().getName());
+        }
+    }
+}
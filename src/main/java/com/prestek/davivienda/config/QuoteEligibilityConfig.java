@@ -0,0 +1,38 @@
+package com.prestek.davivienda.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.prestek.davivienda.service.QuoteEligibilityFilter;
+
+@Configuration
+public class QuoteEligibilityConfig {
+
+    @Value("${quote.eligibility.min-amount:100000}")
+    private long minAmount;
+
+    @Value("${quote.eligibility.max-amount:5000000000}")
+    private long maxAmount;
+
+    @Value("${quote.eligibility.min-term-months:1}")
+    private int minTermMonths;
+
+    @Value("${quote.eligibility.max-term-months:360}")
+    private int maxTermMonths;
+
+    @Value("${quote.eligibility.min-score:150}")
+    private int minScore;
+
+    @Value("${quote.eligibility.max-score:950}")
+    private int maxScore;
+
+    @Value("${quote.eligibility.max-dti:1.0}")
+    private double maxDti;
+
+    @Bean
+    public QuoteEligibilityFilter quoteEligibilityFilter() {
+        return new QuoteEligibilityFilter(minAmount, maxAmount, minTermMonths, maxTermMonths,
+                minScore, maxScore, maxDti);
+    }
+}
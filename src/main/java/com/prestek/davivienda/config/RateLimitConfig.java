@@ -0,0 +1,66 @@
+package com.prestek.davivienda.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.prestek.davivienda.filter.RateLimiter;
+import com.prestek.davivienda.filter.RateLimiter.Rule;
+
+/*
+ * Rate limit rules per endpoint group, evaluated in order (first match wins).
+ * The filter itself is added to the chain in SecurityConfig, right after JWT
+ * authentication, so buckets can be keyed by subject and role; SecurityConfig
+ * also checks rate-limit.enabled at runtime.
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Value("${rate-limit.quotes.permits-per-second:20}")
+    private double quotesRate;
+
+    @Value("${rate-limit.quotes.burst:40}")
+    private int quotesBurst;
+
+    @Value("${rate-limit.applications-list.permits-per-second:1}")
+    private double applicationsListRate;
+
+    @Value("${rate-limit.applications-list.burst:5}")
+    private int applicationsListBurst;
+
+    @Value("${rate-limit.applications-read.permits-per-second:20}")
+    private double applicationsReadRate;
+
+    @Value("${rate-limit.applications-read.burst:40}")
+    private int applicationsReadBurst;
+
+    @Value("${rate-limit.applications-write.permits-per-second:5}")
+    private double applicationsWriteRate;
+
+    @Value("${rate-limit.applications-write.burst:10}")
+    private int applicationsWriteBurst;
+
+    @Value("${rate-limit.admin-multiplier:5}")
+    private double adminMultiplier;
+
+    @Value("${rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(List.of(
+                new Rule("quotes", "POST", "/api/quotes/**", quotesRate, quotesBurst),
+                new Rule("applications-list", "GET", "/api/applications", applicationsListRate, applicationsListBurst),
+                new Rule("applications-list", "GET", "/api/applications/status/**", applicationsListRate,
+                        applicationsListBurst),
+                new Rule("applications-list", "GET", "/api/applications/export.csv", applicationsListRate,
+                        applicationsListBurst),
+                new Rule("applications-read", "GET", "/api/applications/**", applicationsReadRate,
+                        applicationsReadBurst),
+                new Rule("applications-write", null, "/api/applications/**", applicationsWriteRate,
+                        applicationsWriteBurst)),
+                adminMultiplier, maxKeys);
+    }
+}
@@ -0,0 +1,76 @@
+package com.prestek.davivienda.config;
+
+import javax.cache.CacheManager;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Per-region metrics for the Hibernate second-level cache (profile l2cache).
+ * Hit/miss/put counts come from Hibernate statistics, evictions and sizes
+ * from the JCache (Ehcache) statistics of the same regions. Whether the
+ * cache is on is read from the session factory when metrics are bound, so
+ * the l2cache profile can be activated on an AOT-built image.
+ */
+@Configuration
+@Slf4j
+public class SecondLevelCacheMetricsConfig {
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+            if (!sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()) {
+                return;
+            }
+            Statistics statistics = sessionFactory.getStatistics();
+
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+                if (stats == null) {
+                    continue;
+                }
+                Tags tags = Tags.of("region", region);
+                FunctionCounter.builder("hibernate.l2.requests", stats, CacheRegionStatistics::getHitCount)
+                        .tags(tags).tag("result", "hit")
+                        .description("Second-level cache lookups")
+                        .register(registry);
+                FunctionCounter.builder("hibernate.l2.requests", stats, CacheRegionStatistics::getMissCount)
+                        .tags(tags).tag("result", "miss")
+                        .description("Second-level cache lookups")
+                        .register(registry);
+                FunctionCounter.builder("hibernate.l2.puts", stats, CacheRegionStatistics::getPutCount)
+                        .tags(tags)
+                        .description("Entries put into the second-level cache")
+                        .register(registry);
+                Gauge.builder("hibernate.l2.entries", stats, CacheRegionStatistics::getElementCountInMemory)
+                        .tags(tags)
+                        .register(registry);
+            }
+
+            RegionFactory regionFactory = sessionFactory.getCache().getRegionFactory();
+            if (regionFactory instanceof JCacheRegionFactory jcache) {
+                CacheManager cacheManager = jcache.getCacheManager();
+                for (String name : cacheManager.getCacheNames()) {
+                    JCacheMetrics.monitor(registry, cacheManager.getCache(name), Tags.of("layer", "hibernate-l2"));
+                }
+            } else {
+                log.warn("Second-level cache enabled with non-JCache region factory {}",
+                        regionFactory.getClass().getName());
+            }
+        };
+    }
+}
@@ -1,15 +1,6 @@
 package com.prestek.davivienda.config;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URI;
-import java.net.URL;
-import java.time.Instant;
-import java.util.Collections;
-import java.util.Date;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -21,7 +12,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -29,13 +19,10 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.web.filter.CorsFilter;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.nimbusds.jose.JWSVerifier;
-import com.nimbusds.jose.crypto.RSASSAVerifier;
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jwt.SignedJWT;
+import com.prestek.davivienda.filter.RateLimitFilter;
+import com.prestek.davivienda.filter.RateLimiter;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -48,15 +35,21 @@ import jakarta.servlet.http.HttpServletResponse;
 public class SecurityConfig {
 
     private final CorsFilter corsFilter;
-
-    @Value("${CLERK_ISSUER}")
-    private String clerkIssuer;
-
-    @Value("${CLERK_JWKS_URL}")
-    private String clerkJwksUrl;
-
-    public SecurityConfig(CorsFilter corsFilter) {
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final boolean rateLimitEnabled;
+
+    // rate-limit.enabled se evalúa aquí y no con @ConditionalOnProperty: bajo Spring AOT
+    // las condiciones quedan fijadas en el build
+    public SecurityConfig(CorsFilter corsFilter, JwtTokenVerifier jwtTokenVerifier,
+            RateLimiter rateLimiter, MeterRegistry meterRegistry,
+            @Value("${rate-limit.enabled:true}") boolean rateLimitEnabled) {
         this.corsFilter = corsFilter;
+        this.jwtTokenVerifier = jwtTokenVerifier;
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.rateLimitEnabled = rateLimitEnabled;
     }
 
     @Bean
@@ -70,21 +63,22 @@ public class SecurityConfig {
                                 "/api-docs/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
-                                "/v3/api-docs/**")
+                                "/v3/api-docs/**",
+                                "/actuator/health/**")
                         .permitAll()
                         .anyRequest().authenticated())
                 .addFilterBefore(corsFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(new JwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
 
+        if (rateLimitEnabled) {
+            http.addFilterAfter(new RateLimitFilter(rateLimiter, meterRegistry), JwtAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 
     private class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-        private JWKSet jwkSet;
-        private long jwkSetCacheTime = 0;
-        private static final long CACHE_DURATION = 3600000;
-
         @Override
         protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                 FilterChain filterChain)
@@ -98,83 +92,15 @@ public class SecurityConfig {
             }
 
             try {
-                String token = authHeader.substring(7);
-                SignedJWT signedJWT = SignedJWT.parse(token);
-
-                Date expirationTime = signedJWT.getJWTClaimsSet().getExpirationTime();
-                String issuer = signedJWT.getJWTClaimsSet().getIssuer();
-
-                if (expirationTime == null || expirationTime.before(Date.from(Instant.now()))) {
-                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token expired");
-                    return;
-                }
-
-                if (!clerkIssuer.equals(issuer)) {
-                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid issuer");
-                    return;
-                }
-
-                if (jwkSet == null || System.currentTimeMillis() - jwkSetCacheTime > CACHE_DURATION) {
-                    jwkSet = loadJWKSet(clerkJwksUrl);
-                    jwkSetCacheTime = System.currentTimeMillis();
-                }
-
-                String keyId = signedJWT.getHeader().getKeyID();
-                JWK jwk = jwkSet.getKeyByKeyId(keyId);
-
-                if (jwk == null) {
-                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid key ID");
-                    return;
-                }
-
-                RSAKey rsaKey = jwk.toRSAKey();
-                JWSVerifier verifier = new RSASSAVerifier(rsaKey);
-                signedJWT.verify(verifier);
-
-                String subject = signedJWT.getJWTClaimsSet().getSubject();
-
-                // Extraer rol del token
-                List<SimpleGrantedAuthority> authorities = Collections.emptyList();
-                Object roleClaim = signedJWT.getJWTClaimsSet().getClaim("role");
-
-                if (roleClaim != null) {
-                    if (roleClaim instanceof String string) {
-                        String roleWithPrefix = "ROLE_" + string.toUpperCase();
-                        authorities = List.of(new SimpleGrantedAuthority(roleWithPrefix));
-                    } else if (roleClaim instanceof List) {
-                        authorities = ((List<?>) roleClaim).stream()
-                                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toString().toUpperCase()))
-                                .collect(Collectors.toList());
-                    }
-                } else {
-                    System.out.println("WARNING: No role claim found in token!");
-                }
-
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(subject,
-                        null, authorities);
+                UsernamePasswordAuthenticationToken authentication = jwtTokenVerifier.verify(authHeader.substring(7));
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-
-            } catch (Exception e) {
-                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
+            } catch (JwtTokenVerifier.InvalidTokenException e) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, e.getMessage());
                 return;
             }
 
             filterChain.doFilter(request, response);
         }
-
-        private JWKSet loadJWKSet(String jwksUrl) throws Exception {
-            URL url = URI.create(jwksUrl).toURL();
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-
-            try (InputStream inputStream = connection.getInputStream()) {
-                return JWKSet.load(inputStream);
-            } finally {
-                connection.disconnect();
-            }
-        }
     }
-}
\ No newline at end of file
+}
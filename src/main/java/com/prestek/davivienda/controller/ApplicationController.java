@@ -1,11 +1,18 @@
 package com.prestek.davivienda.controller;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import com.prestek.FinancialEntityCore.dto.ApplicationDto;
 import com.prestek.FinancialEntityCore.request.CreateApplicationRequest;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,12 +20,18 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.prestek.FinancialEntityCore.model.Application.*;
+import com.prestek.davivienda.service.ApplicationCsvExporter;
 import com.prestek.davivienda.service.ApplicationService;
+import com.prestek.davivienda.service.IdempotencyService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -39,7 +52,16 @@ import lombok.extern.slf4j.Slf4j;
 @Tag(name = "Applications", description = "Credit application management operations")
 public class ApplicationController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     private final ApplicationService applicationService;
+    private final IdempotencyService idempotencyService;
+    private final ApplicationCsvExporter applicationCsvExporter;
+
+    @Value("${review-queue.max-claim:100}")
+    private int maxClaim = 100;
 
     @GetMapping
     @Operation(summary = "Get all applications", description = "Retrieve a list of all credit applications")
@@ -116,18 +138,59 @@ public class ApplicationController {
         return ResponseEntity.ok(applications);
     }
 
+    @GetMapping("/export.csv")
+    @Operation(summary = "Export applications as CSV",
+            description = "Streams every application matching the optional filters as CSV, straight from a "
+                    + "database cursor; gzip=true returns a .csv.gz file")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "CSV stream",
+                    content = @Content(mediaType = "text/csv"))
+    })
+    public ResponseEntity<StreamingResponseBody> exportApplications(
+            @Parameter(description = "Only applications of this user", example = "user123")
+            @RequestParam(required = false) String userId,
+            @Parameter(description = "Only applications with this status", example = "APPROVED")
+            @RequestParam(required = false) ApplicationStatus status,
+            @Parameter(description = "Compress the file with gzip")
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("GET /api/applications/export.csv - Exporting applications (userId={}, status={}, gzip={})",
+                userId, status, gzip);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                applicationCsvExporter.export(userId, status, compressed);
+                compressed.finish();
+            } else {
+                applicationCsvExporter.export(userId, status, out);
+            }
+        };
+        // application/gzip no está en server.compression.mime-types: no se comprime dos veces
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(gzip ? "applications.csv.gz" : "applications.csv")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @PostMapping
     @Operation(summary = "Create new application", description = "Create a new credit application")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Application created successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ApplicationDto.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid input data or referenced entities not found")
+            @ApiResponse(responseCode = "400", description = "Invalid input data or referenced entities not found"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used with a different request")
     })
     public ResponseEntity<ApplicationDto> createApplication(
             @Parameter(description = "Application request containing userId and creditOfferId", required = true,
                     schema = @Schema(example = "{\"userId\": \"1\", \"amount\": 1000.0}"))
-            @RequestBody CreateApplicationRequest request) {
+            @RequestBody CreateApplicationRequest request,
+            @Parameter(description = "Client-generated key; retries with the same key return the original application")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         log.info("POST /api/applications - Creating new application");
 
         String userId = request.getUserId();
@@ -138,15 +201,66 @@ public class ApplicationController {
             return ResponseEntity.badRequest().build();
         }
 
+        if (idempotencyKey == null) {
+            try {
+                ApplicationDto createdApplication = applicationService.createApplication(userId, amount);
+                return ResponseEntity.status(HttpStatus.CREATED).body(createdApplication);
+            } catch (IllegalArgumentException e) {
+                log.error("Error creating application: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyService.MAX_KEY_LENGTH) {
+            log.error("Invalid Idempotency-Key header");
+            return ResponseEntity.badRequest().build();
+        }
+
         try {
-            ApplicationDto createdApplication = applicationService.createApplication(userId, amount);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdApplication);
+            IdempotencyService.Result<ApplicationDto> result = idempotencyService.execute(idempotencyKey,
+                    userId + "|" + amount, ApplicationDto.class,
+                    () -> applicationService.createApplication(userId, amount));
+            if (result.replayed()) {
+                log.info("POST /api/applications - Replaying application {} for Idempotency-Key",
+                        result.value().getId());
+            }
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                    .body(result.value());
+        } catch (IdempotencyService.KeyReusedException e) {
+            log.error("Idempotency-Key reused with a different payload");
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        } catch (IdempotencyService.KeyInProgressException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (IllegalArgumentException e) {
             log.error("Error creating application: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PostMapping("/claim")
+    @Operation(summary = "Claim pending applications for review",
+            description = "Atomically moves up to count PENDING applications to UNDER_REVIEW for the caller "
+                    + "under a lease; applications not decided before the lease expires return to PENDING")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Claimed applications (possibly empty)",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ApplicationDto.class)))),
+            @ApiResponse(responseCode = "400", description = "count out of range")
+    })
+    public ResponseEntity<List<ApplicationDto>> claimApplications(
+            @Parameter(description = "Maximum number of applications to claim", example = "10")
+            @RequestParam(defaultValue = "1") int count) {
+        log.info("POST /api/applications/claim - Claiming up to {} applications", count);
+
+        if (count < 1 || count > maxClaim) {
+            log.error("Invalid claim count: {}", count);
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(applicationService.claimApplications(count));
+    }
+
     @PatchMapping("/{id}/status")
     @Operation(summary = "Update application status", description = "Update the status of an existing application")
     @ApiResponses(value = {
@@ -154,7 +268,8 @@ public class ApplicationController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ApplicationDto.class))),
             @ApiResponse(responseCode = "404", description = "Application not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid status or input data")
+            @ApiResponse(responseCode = "400", description = "Invalid status or input data"),
+            @ApiResponse(responseCode = "409", description = "Application is under review by another worker")
     })
     public ResponseEntity<ApplicationDto> updateApplicationStatus(
             @Parameter(description = "Application ID", required = true, example = "1")
@@ -178,12 +293,41 @@ public class ApplicationController {
             return applicationService.updateApplicationStatus(id, status, notes)
                     .map(application -> ResponseEntity.ok(application))
                     .orElse(ResponseEntity.notFound().build());
+        } catch (ApplicationService.LeaseHeldException e) {
+            log.warn("Status update rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (IllegalArgumentException e) {
             log.error("Invalid status value: {}", statusStr);
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @PutMapping("/{id}/quote-inputs")
+    @Operation(summary = "Store applicant quote inputs",
+            description = "Stores the term, score, income and expenses used to reprice the application; "
+                    + "the amount is taken from the application")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Quote inputs stored"),
+            @ApiResponse(responseCode = "404", description = "Application not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    public ResponseEntity<Void> saveQuoteInputs(
+            @Parameter(description = "Application ID", required = true, example = "1")
+            @PathVariable Long id,
+            @RequestBody QuoteRequest request) {
+        log.info("PUT /api/applications/{}/quote-inputs - Storing quote inputs", id);
+
+        if (request.termMonths() < 1 || request.score() < 0 || request.monthlyIncome() <= 0
+                || request.monthlyExpenses() < 0) {
+            log.error("Invalid quote inputs for application {}", id);
+            return ResponseEntity.badRequest().build();
+        }
+
+        return applicationService.saveQuoteInputs(id, request)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/user/{userId}/count")
     @Operation(summary = "Get application count by user", description = "Get the total number of applications for a specific user")
     @ApiResponses(value = {
@@ -0,0 +1,58 @@
+package com.prestek.davivienda.controller;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.prestek.davivienda.archive.ApplicationArchiver;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/admin/archive")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Archive", description = "Archiving of closed applications")
+public class ArchiveController {
+
+    private final ApplicationArchiver applicationArchiver;
+
+    @GetMapping
+    @Operation(summary = "Get archiving progress", description = "Rows archived and deleted by the current or last run")
+    public ResponseEntity<ApplicationArchiver.Status> status() {
+        return ResponseEntity.ok(applicationArchiver.status());
+    }
+
+    @PostMapping
+    @Operation(summary = "Archive now", description = "Move old APPROVED and REJECTED applications to archive segments")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Archiving started"),
+            @ApiResponse(responseCode = "409", description = "Already running")
+    })
+    public ResponseEntity<Map<String, Object>> start() {
+        log.info("POST /api/admin/archive - Starting archiver");
+        boolean started = applicationArchiver.start();
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(Map.of("started", started, "status", applicationArchiver.status()));
+    }
+
+    @PostMapping("/cancel")
+    @Operation(summary = "Cancel archiving", description = "Stop after the current segment or delete batch")
+    public ResponseEntity<ApplicationArchiver.Status> cancel() {
+        log.info("POST /api/admin/archive/cancel - Cancelling archiver");
+        applicationArchiver.cancel();
+        return ResponseEntity.accepted().body(applicationArchiver.status());
+    }
+}
@@ -0,0 +1,58 @@
+package com.prestek.davivienda.controller;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.prestek.davivienda.service.MaintenanceJob;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/admin/maintenance")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Maintenance", description = "Expiry and purge of stale applications")
+public class MaintenanceController {
+
+    private final MaintenanceJob maintenanceJob;
+
+    @GetMapping
+    @Operation(summary = "Get maintenance progress", description = "Rows expired and purged by the current or last run")
+    public ResponseEntity<MaintenanceJob.Status> status() {
+        return ResponseEntity.ok(maintenanceJob.status());
+    }
+
+    @PostMapping
+    @Operation(summary = "Run maintenance now", description = "Expire stale PENDING and purge old REJECTED applications")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Maintenance started"),
+            @ApiResponse(responseCode = "409", description = "Already running")
+    })
+    public ResponseEntity<Map<String, Object>> start() {
+        log.info("POST /api/admin/maintenance - Starting maintenance");
+        boolean started = maintenanceJob.start();
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(Map.of("started", started, "status", maintenanceJob.status()));
+    }
+
+    @PostMapping("/cancel")
+    @Operation(summary = "Cancel maintenance", description = "Stop after the current batch")
+    public ResponseEntity<MaintenanceJob.Status> cancel() {
+        log.info("POST /api/admin/maintenance/cancel - Cancelling maintenance");
+        maintenanceJob.cancel();
+        return ResponseEntity.accepted().body(maintenanceJob.status());
+    }
+}
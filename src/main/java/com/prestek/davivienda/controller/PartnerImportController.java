@@ -0,0 +1,73 @@
+package com.prestek.davivienda.controller;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.prestek.davivienda.ingest.ImportFormat;
+import com.prestek.davivienda.ingest.PartnerImportJob;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/admin/imports")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Partner imports", description = "Bulk import of partner application files")
+public class PartnerImportController {
+
+    private final PartnerImportJob partnerImportJob;
+
+    @GetMapping
+    @Operation(summary = "Get import progress", description = "Bytes, imported and rejected rows of the current or last import")
+    public ResponseEntity<PartnerImportJob.Status> status() {
+        return ResponseEntity.ok(partnerImportJob.status());
+    }
+
+    @PostMapping
+    @Operation(summary = "Start import", description = "Start or resume importing a file from the import directory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import started"),
+            @ApiResponse(responseCode = "400", description = "File not found or outside the import directory"),
+            @ApiResponse(responseCode = "409", description = "Another import is running")
+    })
+    public ResponseEntity<Map<String, Object>> start(
+            @Parameter(description = "File name inside the import directory", required = true, example = "partner-2025-06.csv")
+            @RequestParam String file,
+            @Parameter(description = "Record layout")
+            @RequestParam(defaultValue = "CSV") ImportFormat format,
+            @Parameter(description = "Ignore the checkpoint and import the file from the beginning")
+            @RequestParam(defaultValue = "false") boolean restart) {
+        log.info("POST /api/admin/imports - Importing {} as {} (restart={})", file, format, restart);
+        try {
+            boolean started = partnerImportJob.start(file, format, restart);
+            return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                    .body(Map.of("started", started, "status", partnerImportJob.status()));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid import file: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("started", false, "error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/cancel")
+    @Operation(summary = "Cancel import", description = "Stop after the current chunk; the checkpoint allows resuming later")
+    public ResponseEntity<PartnerImportJob.Status> cancel() {
+        log.info("POST /api/admin/imports/cancel - Cancelling import");
+        partnerImportJob.cancel();
+        return ResponseEntity.accepted().body(partnerImportJob.status());
+    }
+}
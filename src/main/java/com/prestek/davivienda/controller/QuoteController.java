@@ -1,12 +1,26 @@
 package com.prestek.davivienda.controller;
 
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 import com.prestek.FinancialEntityCore.dto.QuoteDto;
 import com.prestek.FinancialEntityCore.request.QuoteRequest;
 import com.prestek.FinancialEntityCore.service.AbstractWeightedQuoteService;
+import com.prestek.davivienda.service.IneligibleQuoteException;
+import com.prestek.davivienda.service.QuoteEligibility;
+import com.prestek.davivienda.service.QuoteEligibilityFilter;
+import com.prestek.davivienda.service.QuoteRejection;
+import com.prestek.davivienda.service.ScheduleService;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -16,10 +30,37 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "*")
 public class QuoteController {
     private final AbstractWeightedQuoteService service;
+    private final QuoteEligibilityFilter eligibilityFilter;
+    private final ScheduleService scheduleService;
 
 
     @PostMapping
     public QuoteDto quote(@RequestBody QuoteRequest req) {
         return service.quote(req);
     }
+
+    /*
+     * Full amortization table of the quote. Rows are generated while they
+     * are written to the response, on the request thread: the work is short
+     * and CPU-bound, so there is nothing to gain from an async handoff.
+     */
+    @PostMapping("/schedule")
+    public void schedule(@RequestBody QuoteRequest req, HttpServletResponse response) throws IOException {
+        ScheduleService.Plan plan = scheduleService.plan(req);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        scheduleService.write(plan, response.getOutputStream());
+    }
+
+    @GetMapping("/eligibility/stats")
+    public Map<QuoteEligibility, Long> eligibilityStats() {
+        return eligibilityFilter.counts();
+    }
+
+    @ExceptionHandler(IneligibleQuoteException.class)
+    public ResponseEntity<QuoteRejection> handleIneligible(IneligibleQuoteException e) {
+        log.debug("Quote request short-circuited: {}", e.getReason());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(QuoteRejection.of(service.code(), e));
+    }
 }
@@ -0,0 +1,62 @@
+package com.prestek.davivienda.controller;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.prestek.davivienda.service.RepricingJob;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/admin/repricing")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Repricing", description = "Portfolio repricing job administration")
+public class RepricingController {
+
+    private final RepricingJob repricingJob;
+
+    @GetMapping
+    @Operation(summary = "Get repricing progress", description = "State, processed rows and rows/sec of the current or last run")
+    public ResponseEntity<RepricingJob.Status> status() {
+        return ResponseEntity.ok(repricingJob.status());
+    }
+
+    @PostMapping
+    @Operation(summary = "Start repricing", description = "Start or resume repricing of PENDING and UNDER_REVIEW applications")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Repricing started"),
+            @ApiResponse(responseCode = "409", description = "Already running or already completed for the current constants")
+    })
+    public ResponseEntity<Map<String, Object>> start(
+            @Parameter(description = "Reprice again even if the current constants were already processed")
+            @RequestParam(defaultValue = "false") boolean force) {
+        log.info("POST /api/admin/repricing - Starting repricing (force={})", force);
+        boolean started = repricingJob.start(force);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(Map.of("started", started, "status", repricingJob.status()));
+    }
+
+    @PostMapping("/cancel")
+    @Operation(summary = "Cancel repricing", description = "Stop after the current chunk; the checkpoint allows resuming later")
+    public ResponseEntity<RepricingJob.Status> cancel() {
+        log.info("POST /api/admin/repricing/cancel - Cancelling repricing");
+        repricingJob.cancel();
+        return ResponseEntity.accepted().body(repricingJob.status());
+    }
+}
@@ -0,0 +1,145 @@
+package com.prestek.davivienda.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Gradient-style adaptive concurrency limit for one bulkhead. Each completed
+ * request contributes its latency: a slow exponential average tracks the
+ * "healthy" latency and the fast one tracks current latency. When current
+ * latency rises above the healthy one (e.g. requests queueing for Hikari
+ * connections), the ratio drops below 1 and shrinks the limit; while latency
+ * holds steady the limit grows by roughly sqrt(limit) queue slots.
+ *
+ *   gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1)
+ *   limit    = smooth(limit * gradient + sqrt(limit))
+ *
+ * A failed request (exception or 5xx) or one slower than timeoutNanos is a
+ * drop: it contributes no latency sample and cuts the limit by BACKOFF_RATIO,
+ * so an overloaded backend that fails fast still sheds load.
+ *
+ * Admission is a CAS on the in-flight counter; only the limit recomputation
+ * on completion is synchronized.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 0.1;
+    private static final double LONG_WINDOW = 0.01;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final long timeoutNanos;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+
+    // Protegidos por this
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double smoothing) {
+        this(name, initialLimit, minLimit, maxLimit, tolerance, smoothing, Long.MAX_VALUE);
+    }
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double smoothing, long timeoutNanos) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.timeoutNanos = timeoutNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /*
+     * Takes a slot when fewer than limit requests are in flight. A caller that
+     * gets true must call release exactly once.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /*
+     * Frees the slot; successful requests feed their latency to the limit,
+     * failed (exceptions, 5xx) and timed-out ones cut it.
+     */
+    public void release(long rttNanos, boolean success) {
+        int inflightAtCompletion = inflight.getAndDecrement();
+        if (success && rttNanos <= timeoutNanos) {
+            onSample(rttNanos, inflightAtCompletion);
+        } else {
+            onDrop();
+        }
+    }
+
+    /*
+     * Frees the slot without touching the limit, for requests whose duration
+     * is not a latency signal (async streams).
+     */
+    public void releaseWithoutSample() {
+        inflight.decrementAndGet();
+    }
+
+    synchronized void onDrop() {
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    }
+
+    synchronized void onSample(long rttNanos, int inflightAtCompletion) {
+        double rtt = rttNanos;
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt = shortRtt + SHORT_WINDOW * (rtt - shortRtt);
+        longRtt = longRtt + LONG_WINDOW * (rtt - longRtt);
+
+        // Si la latencia "sana" quedó muy por encima de la actual, re-anclar
+        if (longRtt / shortRtt > 2) {
+            longRtt = shortRtt;
+        }
+
+        double current = limit;
+        // No crecer mientras el tráfico no use al menos la mitad del límite
+        if (inflightAtCompletion < current / 2 && shortRtt <= longRtt) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,142 @@
+package com.prestek.davivienda.filter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Load shedding in front of the controllers: each path prefix maps to its own
+ * AdaptiveConcurrencyLimiter (bulkhead), so a slow database backs up only the
+ * application endpoints while quotes keep their own capacity. Requests over
+ * the limit get 503 before reaching Tomcat's worker-bound code.
+ *
+ * Async requests keep their permit until the async cycle ends, not just the
+ * first dispatch, but their duration says nothing about backend congestion:
+ * they release without a latency sample and only an error or a 5xx cuts the
+ * limit. Long-running streams with their own admission control (the CSV
+ * export and its export.max-concurrent executor) are listed in excludedPaths
+ * and bypass the bulkheads entirely, so they cannot fill one.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public record Group(String pathPrefix, AdaptiveConcurrencyLimiter limiter) {
+    }
+
+    private final List<Group> groups;
+    private final Set<String> excludedPaths;
+
+    public ConcurrencyLimitFilter(List<Group> groups) {
+        this(groups, Set.of());
+    }
+
+    public ConcurrencyLimitFilter(List<Group> groups, Set<String> excludedPaths) {
+        this.groups = List.copyOf(groups);
+        this.excludedPaths = Set.copyOf(excludedPaths);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request.getRequestURI());
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            log.debug("Shedding {} {}: {} in flight, limit {}", request.getMethod(), request.getRequestURI(),
+                    limiter.inflight(), limiter.limit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Service Unavailable\",\"group\":\"" + limiter.name() + "\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            success = response.getStatus() < 500;
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, response, start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release(System.nanoTime() - start, success);
+            }
+        }
+    }
+
+    /*
+     * Releases the permit once the async cycle ends. Errors are always
+     * followed by onComplete, so the permit is released there only.
+     */
+    private static final class ReleaseOnComplete implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final HttpServletResponse response;
+        private final long start;
+        private volatile boolean failed;
+
+        ReleaseOnComplete(AdaptiveConcurrencyLimiter limiter, HttpServletResponse response, long start) {
+            this.limiter = limiter;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (failed || response.getStatus() >= 500) {
+                limiter.release(System.nanoTime() - start, false);
+            } else {
+                limiter.releaseWithoutSample();
+            }
+        }
+
+        // El timeout propio del stream no indica congestión: no recorta el límite
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        // Un nuevo startAsync descarta los listeners: se vuelve a registrar
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String path) {
+        if (excludedPaths.contains(path)) {
+            return null;
+        }
+        for (Group group : groups) {
+            if (path.startsWith(group.pathPrefix())) {
+                return group.limiter();
+            }
+        }
+        return null;
+    }
+}
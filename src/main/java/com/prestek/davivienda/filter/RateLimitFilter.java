@@ -0,0 +1,91 @@
+package com.prestek.davivienda.filter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Applies RateLimiter after JWT authentication: authenticated callers are
+ * keyed by subject and role, anonymous ones by remote address. Rejected
+ * requests get 429 with Retry-After and are counted in
+ * http.server.ratelimit.rejections{rule, role}.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String PRIVILEGED_ROLE = "ROLE_ADMIN";
+
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        RateLimiter.Rule rule = rateLimiter.match(request.getMethod(), request.getRequestURI());
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String role = role(authentication);
+        boolean privileged = PRIVILEGED_ROLE.equals(role);
+        String clientKey = authentication != null && authentication.isAuthenticated()
+                ? authentication.getName() + '|' + role
+                : "ip:" + request.getRemoteAddr();
+
+        long waitNanos = rateLimiter.tryAcquire(rule, clientKey, privileged);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.debug("Rate limit {} exceeded by {}, retry in {}s", rule.name(), clientKey, retryAfterSeconds);
+        Counter.builder("http.server.ratelimit.rejections")
+                .description("Requests rejected with 429 by the rate limiter")
+                .tag("rule", rule.name())
+                .tag("role", role)
+                .register(meterRegistry)
+                .increment();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too Many Requests\",\"rule\":\"" + rule.name()
+                + "\",\"retryAfterSeconds\":" + retryAfterSeconds + "}");
+    }
+
+    // Rol principal del token: ADMIN si lo tiene, si no el primero en orden
+    private static String role(Authentication authentication) {
+        if (authentication == null) {
+            return "ANONYMOUS";
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted((a, b) -> PRIVILEGED_ROLE.equals(a) ? -1 : PRIVILEGED_ROLE.equals(b) ? 1 : a.compareTo(b))
+                .findFirst()
+                .orElse("NONE");
+    }
+}
@@ -0,0 +1,122 @@
+package com.prestek.davivienda.filter;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.util.AntPathMatcher;
+
+/*
+ * Token-bucket rate limiting per (rule, client key) using GCRA: each bucket is
+ * a single AtomicLong holding the theoretical arrival time of the next
+ * request, updated with CAS, so there are no locks and no refill timers.
+ * A request is allowed while the bucket is less than `burst` emission
+ * intervals ahead of now.
+ *
+ * Buckets that have fully refilled carry no state worth keeping; they are
+ * swept every SWEEP_EVERY acquisitions. When the map is full, a new key
+ * triggers a sweep at most once per OVERFLOW_SWEEP_INTERVAL; if it is still
+ * full, the new key shares one overflow bucket per rule instead of getting its
+ * own, so a flood of distinct keys neither grows the map nor rescans it on
+ * every request.
+ */
+public class RateLimiter {
+
+    private static final int SWEEP_EVERY = 4096;
+    private static final long OVERFLOW_SWEEP_INTERVAL = 1_000_000_000L;
+    private static final String OVERFLOW_KEY = "|*overflow";
+
+    public record Rule(String name, String method, String pathPattern, double permitsPerSecond, int burst) {
+    }
+
+    private final List<Rule> rules;
+    private final double privilegedMultiplier;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong nextOverflowSweep;
+
+    public RateLimiter(List<Rule> rules, double privilegedMultiplier, int maxKeys) {
+        this(rules, privilegedMultiplier, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(List<Rule> rules, double privilegedMultiplier, int maxKeys, LongSupplier nanoClock) {
+        this.rules = List.copyOf(rules);
+        this.privilegedMultiplier = privilegedMultiplier;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.nextOverflowSweep = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /*
+     * First rule matching the request, or null when the path is not limited.
+     */
+    public Rule match(String method, String path) {
+        for (Rule rule : rules) {
+            if ((rule.method() == null || rule.method().equalsIgnoreCase(method))
+                    && pathMatcher.match(rule.pathPattern(), path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Returns 0 when the request may proceed, otherwise the nanoseconds until
+     * the bucket admits another one. Privileged callers (e.g. admins) get
+     * privilegedMultiplier times the rate and burst.
+     */
+    public long tryAcquire(Rule rule, String clientKey, boolean privileged) {
+        double multiplier = privileged ? privilegedMultiplier : 1.0;
+        long interval = (long) (1_000_000_000L / (rule.permitsPerSecond() * multiplier));
+        long tolerance = interval * (long) Math.ceil(rule.burst() * multiplier);
+
+        long now = nanoClock.getAsLong();
+        String key = rule.name() + '|' + clientKey;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys && !sweepOverflow(now)) {
+                key = rule.name() + OVERFLOW_KEY;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        if (acquisitions.incrementAndGet() % SWEEP_EVERY == 0) {
+            sweep(now);
+        }
+
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + interval;
+            long ahead = next - now;
+            if (ahead > tolerance) {
+                return ahead - tolerance;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    /*
+     * Sweeps if no other overflow sweep ran in the last interval; true when
+     * there is room for a new key afterwards.
+     */
+    private boolean sweepOverflow(long now) {
+        long next = nextOverflowSweep.get();
+        if (now - next >= 0 && nextOverflowSweep.compareAndSet(next, now + OVERFLOW_SWEEP_INTERVAL)) {
+            sweep(now);
+        }
+        return buckets.size() < maxKeys;
+    }
+
+    private void sweep(long now) {
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+}
@@ -0,0 +1,122 @@
+package com.prestek.davivienda.grpc;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.stereotype.Component;
+
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.service.AbstractWeightedQuoteService;
+import com.prestek.davivienda.mapper.ProtoMapper;
+import com.prestek.davivienda.proto.ApplicationMessage;
+import com.prestek.davivienda.proto.ApplicationsByUserRequest;
+import com.prestek.davivienda.proto.BatchQuoteReply;
+import com.prestek.davivienda.proto.BatchQuoteRequest;
+import com.prestek.davivienda.proto.DaviviendaServiceGrpc;
+import com.prestek.davivienda.proto.QuoteMessage;
+import com.prestek.davivienda.proto.QuoteRejection;
+import com.prestek.davivienda.proto.QuoteRequestMessage;
+import com.prestek.davivienda.service.ApplicationService;
+import com.prestek.davivienda.service.IneligibleQuoteException;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * gRPC counterpart of QuoteController and GET /api/applications/user/{userId}.
+ * Same services and validation as REST; ineligible quotes are INVALID_ARGUMENT
+ * on the unary call and a QuoteRejection reply inside BatchQuote, so one bad
+ * row does not end the stream. BatchQuote pulls the next request only while
+ * the client is reading replies, so a slow reader holds back the stream
+ * instead of making the server buffer replies.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DaviviendaGrpcService extends DaviviendaServiceGrpc.DaviviendaServiceImplBase {
+
+    static final String INVALID_REQUEST = "INVALID_REQUEST";
+
+    private final AbstractWeightedQuoteService quoteService;
+    private final ApplicationService applicationService;
+
+    @Override
+    public void quote(QuoteRequestMessage request, StreamObserver<QuoteMessage> responseObserver) {
+        try {
+            QuoteMessage quote = ProtoMapper.toMessage(quoteService.quote(ProtoMapper.toQuoteRequest(request)));
+            responseObserver.onNext(quote);
+            responseObserver.onCompleted();
+        } catch (IneligibleQuoteException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getReason().name()).asRuntimeException());
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage()).asRuntimeException());
+        }
+    }
+
+    @Override
+    public StreamObserver<BatchQuoteRequest> batchQuote(StreamObserver<BatchQuoteReply> responseObserver) {
+        ServerCallStreamObserver<BatchQuoteReply> serverObserver =
+                (ServerCallStreamObserver<BatchQuoteReply>) responseObserver;
+        serverObserver.disableAutoInboundFlowControl();
+
+        // Un request(1) por transición a listo: no se piden mensajes mientras el cliente no lee
+        AtomicBoolean wasReady = new AtomicBoolean(false);
+        serverObserver.setOnReadyHandler(() -> {
+            if (serverObserver.isReady() && wasReady.compareAndSet(false, true)) {
+                serverObserver.request(1);
+            }
+        });
+
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(BatchQuoteRequest request) {
+                responseObserver.onNext(reply(request));
+                if (serverObserver.isReady()) {
+                    serverObserver.request(1);
+                } else {
+                    wasReady.set(false);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("BatchQuote cancelled by client: {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    @Override
+    public void getApplicationsByUser(ApplicationsByUserRequest request,
+                                      StreamObserver<ApplicationMessage> responseObserver) {
+        log.info("gRPC GetApplicationsByUser - Fetching applications by user id {}", request.getUserId());
+        for (ApplicationDto application : applicationService.getApplicationsByUserId(request.getUserId())) {
+            responseObserver.onNext(ProtoMapper.toMessage(application));
+        }
+        responseObserver.onCompleted();
+    }
+
+    private BatchQuoteReply reply(BatchQuoteRequest request) {
+        BatchQuoteReply.Builder reply = BatchQuoteReply.newBuilder().setCorrelationId(request.getCorrelationId());
+        try {
+            return reply.setQuote(ProtoMapper.toMessage(
+                    quoteService.quote(ProtoMapper.toQuoteRequest(request.getRequest())))).build();
+        } catch (IneligibleQuoteException e) {
+            return reply.setRejection(rejection(e.getReason().name())).build();
+        } catch (IllegalArgumentException e) {
+            return reply.setRejection(rejection(INVALID_REQUEST)).build();
+        }
+    }
+
+    private QuoteRejection rejection(String reason) {
+        return QuoteRejection.newBuilder().setReason(reason).setInstitution(quoteService.code()).build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.prestek.davivienda.grpc;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Runs the gRPC server on its own port (grpc.server.port) next to Tomcat,
+ * started after the context is refreshed and drained on shutdown. The bean
+ * always exists; grpc.server.enabled is read at startup (not as a bean
+ * condition) so it can still be switched on an AOT-built image.
+ */
+@Component
+@Slf4j
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private final DaviviendaGrpcService service;
+    private final JwtServerInterceptor jwtServerInterceptor;
+    private final int port;
+    private final int maxConcurrentCallsPerConnection;
+    private final long shutdownGraceSeconds;
+    private final boolean enabled;
+
+    private volatile Server server;
+
+    public GrpcServerLifecycle(DaviviendaGrpcService service,
+                               JwtServerInterceptor jwtServerInterceptor,
+                               @Value("${grpc.server.port:9090}") int port,
+                               @Value("${grpc.server.max-concurrent-calls-per-connection:1000}") int maxConcurrentCallsPerConnection,
+                               @Value("${grpc.server.shutdown-grace-seconds:10}") long shutdownGraceSeconds,
+                               @Value("${grpc.server.enabled:true}") boolean enabled) {
+        this.service = service;
+        this.jwtServerInterceptor = jwtServerInterceptor;
+        this.port = port;
+        this.maxConcurrentCallsPerConnection = maxConcurrentCallsPerConnection;
+        this.shutdownGraceSeconds = shutdownGraceSeconds;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = NettyServerBuilder.forPort(port)
+                    .addService(ServerInterceptors.intercept(service, jwtServerInterceptor))
+                    .maxConcurrentCallsPerConnection(maxConcurrentCallsPerConnection)
+                    .permitKeepAliveTime(30, TimeUnit.SECONDS)
+                    .permitKeepAliveWithoutCalls(true)
+                    .build()
+                    .start();
+            log.info("gRPC server listening on port {}", server.getPort());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start gRPC server on port " + port, e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(shutdownGraceSeconds, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.prestek.davivienda.grpc;
+
+import java.util.function.Supplier;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.prestek.davivienda.config.JwtTokenVerifier;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Bearer-token authentication for gRPC calls, using the same JwtTokenVerifier
+ * as the REST filter. The token is checked once per call (once per stream for
+ * BatchQuote) and the principal is placed in the SecurityContext around every
+ * listener callback, so services see the same authentication as over REST.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtServerInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> AUTHORIZATION =
+            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final JwtTokenVerifier jwtTokenVerifier;
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String authHeader = headers.get(AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            call.close(Status.UNAUTHENTICATED.withDescription("Missing bearer token"), new Metadata());
+            return new ServerCall.Listener<>() { };
+        }
+
+        Authentication authentication;
+        try {
+            authentication = jwtTokenVerifier.verify(authHeader.substring(7));
+        } catch (JwtTokenVerifier.InvalidTokenException e) {
+            call.close(Status.UNAUTHENTICATED.withDescription(e.getMessage()), new Metadata());
+            return new ServerCall.Listener<>() { };
+        }
+
+        ServerCall.Listener<ReqT> delegate = runAs(authentication, () -> next.startCall(call, headers));
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(delegate) {
+            @Override
+            public void onMessage(ReqT message) {
+                runAs(authentication, () -> { super.onMessage(message); return null; });
+            }
+
+            @Override
+            public void onHalfClose() {
+                runAs(authentication, () -> { super.onHalfClose(); return null; });
+            }
+
+            @Override
+            public void onCancel() {
+                runAs(authentication, () -> { super.onCancel(); return null; });
+            }
+
+            @Override
+            public void onComplete() {
+                runAs(authentication, () -> { super.onComplete(); return null; });
+            }
+
+            @Override
+            public void onReady() {
+                runAs(authentication, () -> { super.onReady(); return null; });
+            }
+        };
+    }
+
+    private static <T> T runAs(Authentication authentication, Supplier<T> action) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        try {
+            return action.get();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.prestek.davivienda.ingest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.type.SqlTypes;
+
+import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Plain JDBC insert of a new PENDING application for JdbcTemplate.batchUpdate.
+ * The id is IDENTITY, so Hibernate would send one INSERT per row; a JDBC
+ * batch sends them together. Table, columns and the stored form of the status
+ * are read from the Hibernate mapping of the core Application entity instead
+ * of repeating its schema here.
+ */
+record ApplicationInsert(String sql, Object pendingStatus) {
+
+    static ApplicationInsert of(EntityManagerFactory entityManagerFactory) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(Application.class);
+        String sql = "INSERT INTO " + persister.getTableName() + " ("
+                + String.join(", ", column(persister, "userId"), column(persister, "amount"),
+                        column(persister, "status"), column(persister, "applicationDate"),
+                        column(persister, "createdAt"), column(persister, "updatedAt"))
+                + ") VALUES (?, ?, ?, ?, ?, ?)";
+
+        // @Enumerated(STRING) se guarda por nombre; ORDINAL por posición
+        int statusType = persister.findAttributeMapping("status").getSingleJdbcMapping().getJdbcType()
+                .getDefaultSqlTypeCode();
+        boolean byName = SqlTypes.isCharacterType(statusType) || statusType == SqlTypes.ENUM
+                || statusType == SqlTypes.NAMED_ENUM;
+        return new ApplicationInsert(sql,
+                byName ? ApplicationStatus.PENDING.name() : ApplicationStatus.PENDING.ordinal());
+    }
+
+    Object[] row(String userId, double amount, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return new Object[]{userId, amount, pendingStatus, timestamp, timestamp, timestamp};
+    }
+
+    private static String column(AbstractEntityPersister persister, String property) {
+        return persister.getPropertyColumnNames(property)[0];
+    }
+}
@@ -0,0 +1,14 @@
+package com.prestek.davivienda.ingest;
+
+/*
+ * Record layouts accepted from partners. Both carry one application per line
+ * (LF or CRLF):
+ *
+ *   CSV         - userId,amount (optional header line, extra columns ignored)
+ *   FIXED_WIDTH - userId in the first user-id-width bytes, amount in the next
+ *                 amount-width bytes, both space padded
+ */
+public enum ImportFormat {
+    CSV,
+    FIXED_WIDTH
+}
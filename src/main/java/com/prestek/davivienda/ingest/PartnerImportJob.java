@@ -0,0 +1,354 @@
+package com.prestek.davivienda.ingest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.prestek.davivienda.model.ImportCheckpoint;
+import com.prestek.davivienda.repository.ImportCheckpointRepository;
+import com.prestek.davivienda.service.RequestCoalescer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Imports a partner file from import.directory as PENDING applications:
+ *
+ *   1. the file (from the checkpoint offset on) is cut into chunks of about
+ *      import.chunk-bytes, each ending at a line boundary
+ *   2. up to import.parallelism chunks are memory-mapped and parsed ahead on
+ *      a thread pool (RecordParser)
+ *   3. chunks are inserted in file order, one transaction per chunk with JDBC
+ *      batches of import.insert-batch-size rows (ApplicationInsert); the
+ *      checkpoint advances in that same transaction
+ *
+ * A failed, cancelled or interrupted import resumes after the last committed
+ * chunk when started again for the same file.
+ */
+@Service
+@Slf4j
+public class PartnerImportJob {
+
+    public enum State { IDLE, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    public record Status(State state, String file, long bytesTotal, long bytesDone, long imported, long rejected,
+                         double rowsPerSecond, LocalDateTime startedAt, LocalDateTime finishedAt, String error) {
+    }
+
+    record Chunk(long start, long end) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImportCheckpointRepository checkpointRepository;
+    private final ApplicationInsert applicationInsert;
+    private final TransactionTemplate transactionTemplate;
+    private final RequestCoalescer requestCoalescer;
+
+    private final Path directory;
+    private final long chunkBytes;
+    private final int insertBatchSize;
+    private final int parallelism;
+    private final int userIdWidth;
+    private final int amountWidth;
+
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "partner-import"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean cancelRequested = new AtomicBoolean();
+    private final AtomicLong bytesDone = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile long importedAtStart;
+    private volatile String file;
+    private volatile long bytesTotal;
+    private volatile State state = State.IDLE;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    @Autowired
+    public PartnerImportJob(JdbcTemplate jdbcTemplate,
+                            ImportCheckpointRepository checkpointRepository,
+                            EntityManagerFactory entityManagerFactory,
+                            PlatformTransactionManager transactionManager,
+                            RequestCoalescer requestCoalescer,
+                            MeterRegistry meterRegistry,
+                            @Value("${import.directory:./data/import}") Path directory,
+                            @Value("${import.chunk-bytes:4194304}") long chunkBytes,
+                            @Value("${import.insert-batch-size:1000}") int insertBatchSize,
+                            @Value("${import.parallelism:0}") int parallelism,
+                            @Value("${import.fixed-width.user-id-width:64}") int userIdWidth,
+                            @Value("${import.fixed-width.amount-width:18}") int amountWidth) {
+        this(jdbcTemplate, checkpointRepository, ApplicationInsert.of(entityManagerFactory), transactionManager,
+                requestCoalescer, meterRegistry, directory, chunkBytes, insertBatchSize, parallelism, userIdWidth,
+                amountWidth);
+    }
+
+    PartnerImportJob(JdbcTemplate jdbcTemplate, ImportCheckpointRepository checkpointRepository,
+                     ApplicationInsert applicationInsert, PlatformTransactionManager transactionManager,
+                     RequestCoalescer requestCoalescer, MeterRegistry meterRegistry, Path directory,
+                     long chunkBytes, int insertBatchSize, int parallelism, int userIdWidth, int amountWidth) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.applicationInsert = applicationInsert;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requestCoalescer = requestCoalescer;
+        this.directory = directory.toAbsolutePath().normalize();
+        this.chunkBytes = chunkBytes;
+        this.insertBatchSize = insertBatchSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.userIdWidth = userIdWidth;
+        this.amountWidth = amountWidth;
+        this.importedRows = Counter.builder("application.import.rows").tag("outcome", "imported")
+                .description("Partner file records processed by the import job")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("application.import.rows").tag("outcome", "rejected")
+                .description("Partner file records processed by the import job")
+                .register(meterRegistry);
+    }
+
+    /*
+     * Starts importing fileName (relative to import.directory) in the
+     * background; restart ignores any checkpoint for it.
+     *
+     * @throws IllegalArgumentException if the file is outside the import
+     *         directory or does not exist
+     */
+    public boolean start(String fileName, ImportFormat format, boolean restart) {
+        Path path = resolve(fileName);
+        if (!running.compareAndSet(false, true)) {
+            log.info("Partner import already running for {}", file);
+            return false;
+        }
+        cancelRequested.set(false);
+        state = State.RUNNING;
+        file = path.getFileName().toString();
+        runner.submit(() -> run(path, format, restart));
+        return true;
+    }
+
+    public void cancel() {
+        cancelRequested.set(true);
+    }
+
+    public Status status() {
+        long end = state == State.RUNNING ? System.nanoTime() : finishedNanos;
+        double seconds = (end - startedNanos) / 1e9;
+        double rate = seconds > 0 ? (imported.get() - importedAtStart) / seconds : 0;
+        return new Status(state, file, bytesTotal, bytesDone.get(), imported.get(), rejected.get(), rate,
+                startedAt, finishedAt, error);
+    }
+
+    void run(Path path, ImportFormat format, boolean restart) {
+        running.set(true);
+        startedNanos = System.nanoTime();
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        error = null;
+        state = State.RUNNING;
+        file = path.getFileName().toString();
+        ExecutorService parsers = Executors.newFixedThreadPool(parallelism, new ParserThreadFactory());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ImportCheckpoint checkpoint = checkpoint(file, size, restart);
+            bytesTotal = size;
+            bytesDone.set(checkpoint.getNextOffset());
+            imported.set(checkpoint.getImported());
+            rejected.set(checkpoint.getRejected());
+            importedAtStart = checkpoint.getImported();
+            if (Boolean.TRUE.equals(checkpoint.getCompleted())) {
+                log.info("Partner file {} was already imported; use restart to import it again", file);
+                finish(State.COMPLETED, null);
+                return;
+            }
+
+            List<Chunk> chunks = split(channel, checkpoint.getNextOffset(), size, chunkBytes);
+            log.info("Importing {} ({} bytes, {} chunks) from offset {}", file, size, chunks.size(),
+                    checkpoint.getNextOffset());
+            RecordParser parser = new RecordParser(format, userIdWidth, amountWidth);
+            Deque<Future<RecordParser.ParsedChunk>> parsed = new ArrayDeque<>();
+            int submitted = 0;
+            for (int i = 0; i < chunks.size() && !cancelRequested.get(); i++) {
+                // Lectura adelantada acotada: como mucho parallelism chunks parseados en memoria
+                while (submitted < chunks.size() && submitted < i + parallelism) {
+                    Chunk chunk = chunks.get(submitted++);
+                    parsed.add(parsers.submit(() -> parser.parse(
+                            channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.end() - chunk.start()),
+                            chunk.start() == 0)));
+                }
+                write(parsed.poll().get(), chunks.get(i), checkpoint);
+            }
+
+            if (cancelRequested.get()) {
+                finish(State.CANCELLED, null);
+                return;
+            }
+            checkpoint.setCompleted(true);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(tx -> checkpointRepository.save(checkpoint));
+            finish(State.COMPLETED, null);
+        } catch (ExecutionException e) {
+            log.error("Partner import of {} failed while parsing", file, e.getCause());
+            finish(State.FAILED, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(State.CANCELLED, null);
+        } catch (IOException | RuntimeException e) {
+            log.error("Partner import of {} failed after {} applications", file, imported.get(), e);
+            finish(State.FAILED, e.getMessage());
+        } finally {
+            parsers.shutdownNow();
+            requestCoalescer.invalidateAll();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cancelRequested.set(true);
+        runner.shutdown();
+    }
+
+    /*
+     * Chunks of about chunkBytes from offset on, each extended to the end of
+     * its last line so no record is split between two chunks.
+     */
+    static List<Chunk> split(FileChannel channel, long offset, long size, long chunkBytes) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long start = offset;
+        while (start < size) {
+            long end = nextLine(channel, Math.min(size, start + chunkBytes), size, probe);
+            chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static long nextLine(FileChannel channel, long position, long size, ByteBuffer probe) throws IOException {
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return size;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private Path resolve(String fileName) {
+        Path path = directory.resolve(fileName).normalize();
+        if (!path.getParent().equals(directory)) {
+            throw new IllegalArgumentException("File must be directly inside the import directory: " + fileName);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("Import file not found: " + fileName);
+        }
+        return path;
+    }
+
+    private ImportCheckpoint checkpoint(String fileName, long size, boolean restart) {
+        return checkpointRepository.findById(fileName)
+                .filter(checkpoint -> !restart && checkpoint.getFileSize() == size)
+                .orElseGet(() -> ImportCheckpoint.builder()
+                        .fileName(fileName)
+                        .fileSize(size)
+                        .nextOffset(0L)
+                        .imported(0L)
+                        .rejected(0L)
+                        .completed(false)
+                        .startedAt(LocalDateTime.now())
+                        .build());
+    }
+
+    private void write(RecordParser.ParsedChunk chunk, Chunk range, ImportCheckpoint checkpoint) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            LocalDateTime applicationDate = LocalDateTime.now();
+            List<Object[]> batch = new ArrayList<>(Math.min(insertBatchSize, chunk.size()));
+            for (int i = 0; i < chunk.size(); i++) {
+                batch.add(applicationInsert.row(chunk.userId(i), chunk.amount(i), applicationDate));
+                if (batch.size() == insertBatchSize) {
+                    insert(batch);
+                }
+            }
+            insert(batch);
+
+            checkpoint.setNextOffset(range.end());
+            checkpoint.setImported(checkpoint.getImported() + chunk.size());
+            checkpoint.setRejected(checkpoint.getRejected() + chunk.rejected());
+            checkpoint.setUpdatedAt(applicationDate);
+            checkpointRepository.save(checkpoint);
+        });
+        bytesDone.set(range.end());
+        imported.addAndGet(chunk.size());
+        rejected.addAndGet(chunk.rejected());
+        importedRows.increment(chunk.size());
+        rejectedRows.increment(chunk.rejected());
+    }
+
+    // Un batch JDBC por lote: con id IDENTITY, saveAll enviaría un INSERT por fila
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(applicationInsert.sql(), batch);
+        batch.clear();
+    }
+
+    private void finish(State finalState, String failure) {
+        finishedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        error = failure;
+        state = finalState;
+        running.set(false);
+        log.info("Partner import of {} {}: {} imported, {} rejected", file, finalState, imported.get(),
+                rejected.get());
+    }
+
+    private static final class ParserThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "partner-import-parser-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.prestek.davivienda.ingest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/*
+ * Parses one chunk of a partner file straight from its (memory-mapped) bytes.
+ * Fields are located by offset and the amount is decoded from the digits in
+ * place, so the only allocation per record is the userId String of a valid
+ * row. Validation mirrors POST /api/applications: a record needs a non-blank
+ * userId and an amount; rows that fail are counted as rejected.
+ *
+ * Instances are immutable and can be shared by the parsing threads.
+ */
+public final class RecordParser {
+
+    // Largo de la columna userId en la tabla de solicitudes
+    static final int MAX_USER_ID_LENGTH = 255;
+
+    // Más dígitos que esto ya no cabe exacto en un long
+    private static final int MAX_DIGITS = 18;
+
+    private static final double[] POWERS_OF_TEN = new double[MAX_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /*
+     * Valid records of a chunk in file order, plus the number of rejected
+     * lines. Header lines are neither.
+     */
+    public static final class ParsedChunk {
+
+        private String[] userIds;
+        private double[] amounts;
+        private int size;
+        private int rejected;
+
+        ParsedChunk(int expected) {
+            userIds = new String[Math.max(16, expected)];
+            amounts = new double[userIds.length];
+        }
+
+        void add(String userId, double amount) {
+            if (size == userIds.length) {
+                userIds = Arrays.copyOf(userIds, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+            }
+            userIds[size] = userId;
+            amounts[size++] = amount;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int rejected() {
+            return rejected;
+        }
+
+        public String userId(int i) {
+            return userIds[i];
+        }
+
+        public double amount(int i) {
+            return amounts[i];
+        }
+    }
+
+    private final ImportFormat format;
+    private final int userIdWidth;
+    private final int amountWidth;
+
+    public RecordParser(ImportFormat format, int userIdWidth, int amountWidth) {
+        this.format = format;
+        this.userIdWidth = userIdWidth;
+        this.amountWidth = amountWidth;
+    }
+
+    /*
+     * Parses every line between position 0 and the limit of buffer, which
+     * must start at a line boundary. With firstChunk an invalid first line is
+     * taken as a header instead of a rejected record.
+     */
+    public ParsedChunk parse(ByteBuffer buffer, boolean firstChunk) {
+        int limit = buffer.limit();
+        ParsedChunk chunk = new ParsedChunk(limit / 24);
+        byte[] scratch = new byte[MAX_USER_ID_LENGTH];
+        boolean headerCandidate = firstChunk;
+        int position = 0;
+        while (position < limit) {
+            int end = position;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            int lineEnd = end > position && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            if (lineEnd > position) {
+                boolean valid = format == ImportFormat.CSV
+                        ? parseCsv(buffer, position, lineEnd, chunk, scratch)
+                        : parseFixedWidth(buffer, position, lineEnd, chunk, scratch);
+                if (!valid && !headerCandidate) {
+                    chunk.rejected++;
+                }
+                headerCandidate = false;
+            }
+            position = end + 1;
+        }
+        return chunk;
+    }
+
+    private boolean parseCsv(ByteBuffer buffer, int from, int to, ParsedChunk chunk, byte[] scratch) {
+        int comma = indexOf(buffer, from, to, (byte) ',');
+        if (comma < 0) {
+            return false;
+        }
+        int amountEnd = indexOf(buffer, comma + 1, to, (byte) ',');
+        return accept(buffer, from, comma, comma + 1, amountEnd < 0 ? to : amountEnd, chunk, scratch);
+    }
+
+    private boolean parseFixedWidth(ByteBuffer buffer, int from, int to, ParsedChunk chunk, byte[] scratch) {
+        if (to - from <= userIdWidth) {
+            return false;
+        }
+        return accept(buffer, from, from + userIdWidth, from + userIdWidth,
+                Math.min(to, from + userIdWidth + amountWidth), chunk, scratch);
+    }
+
+    private static boolean accept(ByteBuffer buffer, int userFrom, int userTo, int amountFrom, int amountTo,
+                                  ParsedChunk chunk, byte[] scratch) {
+        double amount = parseAmount(buffer, amountFrom, amountTo);
+        if (Double.isNaN(amount)) {
+            return false;
+        }
+        // Recorta espacios y comillas sin copiar
+        while (userFrom < userTo && isPadding(buffer.get(userFrom))) {
+            userFrom++;
+        }
+        while (userTo > userFrom && isPadding(buffer.get(userTo - 1))) {
+            userTo--;
+        }
+        int length = userTo - userFrom;
+        if (length == 0 || length > MAX_USER_ID_LENGTH) {
+            return false;
+        }
+        buffer.get(userFrom, scratch, 0, length);
+        chunk.add(new String(scratch, 0, length, StandardCharsets.UTF_8), amount);
+        return true;
+    }
+
+    /*
+     * Unsigned decimal with optional fraction ("1500000", "1500000.50"),
+     * padded with spaces or quotes. NaN if anything else is found.
+     */
+    static double parseAmount(ByteBuffer buffer, int from, int to) {
+        while (from < to && isPadding(buffer.get(from))) {
+            from++;
+        }
+        while (to > from && isPadding(buffer.get(to - 1))) {
+            to--;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                if (++digits > MAX_DIGITS) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        return scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+    }
+
+    private static boolean isPadding(byte b) {
+        return b == ' ' || b == '"' || b == '\t';
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,158 @@
+package com.prestek.davivienda.mapper;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+import com.google.protobuf.Timestamp;
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.dto.QuoteDto;
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+import com.prestek.davivienda.service.QuoteRejection;
+import com.prestek.davivienda.proto.ApplicationListMessage;
+import com.prestek.davivienda.proto.ApplicationMessage;
+import com.prestek.davivienda.proto.ApplicationStatusMessage;
+import com.prestek.davivienda.proto.QuoteMessage;
+import com.prestek.davivienda.proto.QuoteRejectionMessage;
+import com.prestek.davivienda.proto.QuoteRequestMessage;
+
+/*
+ * Conversions between the core DTOs and the messages in davivienda.proto.
+ * Nulls map to unset fields and back.
+ */
+public final class ProtoMapper {
+
+    private ProtoMapper() {
+    }
+
+    public static QuoteRequest toQuoteRequest(QuoteRequestMessage message) {
+        return new QuoteRequest(message.getAmount(), message.getTermMonths(), message.getScore(),
+                message.getMonthlyIncome(), message.getMonthlyExpenses());
+    }
+
+    public static QuoteRequestMessage toMessage(QuoteRequest request) {
+        return QuoteRequestMessage.newBuilder()
+                .setAmount(request.amount())
+                .setTermMonths(request.termMonths())
+                .setScore(request.score())
+                .setMonthlyIncome(request.monthlyIncome())
+                .setMonthlyExpenses(request.monthlyExpenses())
+                .build();
+    }
+
+    public static QuoteMessage toMessage(QuoteDto quote) {
+        QuoteMessage.Builder builder = QuoteMessage.newBuilder()
+                .setRateEaMin(quote.rateEAmin())
+                .setRateEaMax(quote.rateEAmax())
+                .setMonthlyPaymentMin(quote.monthlyPaymentMin())
+                .setMonthlyPaymentMax(quote.monthlyPaymentMax())
+                .setFeesEstimated(quote.feesEstimated())
+                .setAprEaEstimated(quote.aprEAEstimated());
+        if (quote.institution() != null) {
+            builder.setInstitution(quote.institution());
+        }
+        if (quote.validUntil() != null) {
+            builder.setValidUntil(quote.validUntil());
+        }
+        return builder.build();
+    }
+
+    public static QuoteDto toQuoteDto(QuoteMessage message) {
+        return new QuoteDto(
+                message.getInstitution(),
+                message.getRateEaMin(),
+                message.getRateEaMax(),
+                message.getMonthlyPaymentMin(),
+                message.getMonthlyPaymentMax(),
+                message.getFeesEstimated(),
+                message.getAprEaEstimated(),
+                message.getValidUntil().isEmpty() ? null : message.getValidUntil());
+    }
+
+    public static QuoteRejectionMessage toMessage(QuoteRejection rejection) {
+        QuoteRejectionMessage.Builder builder = QuoteRejectionMessage.newBuilder();
+        if (rejection.institution() != null) {
+            builder.setInstitution(rejection.institution());
+        }
+        if (rejection.reason() != null) {
+            builder.setReason(rejection.reason());
+        }
+        return builder.build();
+    }
+
+    public static ApplicationMessage toMessage(ApplicationDto dto) {
+        ApplicationMessage.Builder builder = ApplicationMessage.newBuilder();
+        if (dto.getId() != null) {
+            builder.setId(dto.getId());
+        }
+        if (dto.getUserId() != null) {
+            builder.setUserId(dto.getUserId());
+        }
+        if (dto.getAmount() != null) {
+            builder.setAmount(dto.getAmount());
+        }
+        if (dto.getStatus() != null) {
+            builder.setStatus(ApplicationStatusMessage.valueOf(dto.getStatus().name()));
+        }
+        if (dto.getApplicationDate() != null) {
+            builder.setApplicationDate(toTimestamp(dto.getApplicationDate()));
+        }
+        if (dto.getReviewDate() != null) {
+            builder.setReviewDate(toTimestamp(dto.getReviewDate()));
+        }
+        if (dto.getApprovalDate() != null) {
+            builder.setApprovalDate(toTimestamp(dto.getApprovalDate()));
+        }
+        if (dto.getNotes() != null) {
+            builder.setNotes(dto.getNotes());
+        }
+        if (dto.getRejectionReason() != null) {
+            builder.setRejectionReason(dto.getRejectionReason());
+        }
+        if (dto.getCreatedAt() != null) {
+            builder.setCreatedAt(toTimestamp(dto.getCreatedAt()));
+        }
+        if (dto.getUpdatedAt() != null) {
+            builder.setUpdatedAt(toTimestamp(dto.getUpdatedAt()));
+        }
+        return builder.build();
+    }
+
+    public static ApplicationListMessage toListMessage(Collection<ApplicationDto> dtos) {
+        ApplicationListMessage.Builder builder = ApplicationListMessage.newBuilder();
+        for (ApplicationDto dto : dtos) {
+            builder.addApplications(toMessage(dto));
+        }
+        return builder.build();
+    }
+
+    public static ApplicationDto toApplicationDto(ApplicationMessage message) {
+        return ApplicationDto.builder()
+                .id(message.getId() != 0 ? message.getId() : null)
+                .userId(message.getUserId().isEmpty() ? null : message.getUserId())
+                .amount(message.getAmount())
+                .status(message.getStatus() == ApplicationStatusMessage.APPLICATION_STATUS_UNSPECIFIED
+                        || message.getStatus() == ApplicationStatusMessage.UNRECOGNIZED
+                        ? null : ApplicationStatus.valueOf(message.getStatus().name()))
+                .applicationDate(message.hasApplicationDate() ? toLocalDateTime(message.getApplicationDate()) : null)
+                .reviewDate(message.hasReviewDate() ? toLocalDateTime(message.getReviewDate()) : null)
+                .approvalDate(message.hasApprovalDate() ? toLocalDateTime(message.getApprovalDate()) : null)
+                .notes(message.getNotes().isEmpty() ? null : message.getNotes())
+                .rejectionReason(message.getRejectionReason().isEmpty() ? null : message.getRejectionReason())
+                .createdAt(message.hasCreatedAt() ? toLocalDateTime(message.getCreatedAt()) : null)
+                .updatedAt(message.hasUpdatedAt() ? toLocalDateTime(message.getUpdatedAt()) : null)
+                .build();
+    }
+
+    static Timestamp toTimestamp(LocalDateTime value) {
+        return Timestamp.newBuilder()
+                .setSeconds(value.toEpochSecond(ZoneOffset.UTC))
+                .setNanos(value.getNano())
+                .build();
+    }
+
+    static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return LocalDateTime.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,67 @@
+package com.prestek.davivienda.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Review lease for an application claimed via POST /api/applications/claim.
+ * While the lease is live the application stays UNDER_REVIEW for workerId;
+ * once expiresAt passes, LeaseRequeueJob puts it back to PENDING.
+ *
+ * Persistable so that saving a new lease is a plain INSERT instead of the
+ * SELECT + INSERT merge Spring Data does for assigned ids.
+ */
+@Entity
+@Table(name = "application_leases")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationLease implements Persistable<Long> {
+
+    @Id
+    @Column(name = "application_id")
+    private Long applicationId;
+
+    @Column(name = "worker_id", length = 200, nullable = false)
+    private String workerId;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Transient
+    @Builder.Default
+    private boolean newLease = true;
+
+    @Override
+    public Long getId() {
+        return applicationId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newLease;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newLease = false;
+    }
+}
@@ -0,0 +1,46 @@
+package com.prestek.davivienda.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Applicant data needed to price an application with QuoteService. The core
+ * Application only carries the requested amount; the rest of the quote
+ * request is stored here per application so repricing uses the applicant's
+ * own profile.
+ */
+@Entity
+@Table(name = "application_quote_inputs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationQuoteInputs {
+
+    @Id
+    @Column(name = "application_id")
+    private Long applicationId;
+
+    @Column(name = "term_months", nullable = false)
+    private Integer termMonths;
+
+    @Column(name = "score", nullable = false)
+    private Integer score;
+
+    @Column(name = "monthly_income", nullable = false)
+    private Long monthlyIncome;
+
+    @Column(name = "monthly_expenses", nullable = false)
+    private Long monthlyExpenses;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
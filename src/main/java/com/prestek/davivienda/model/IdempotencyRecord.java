@@ -0,0 +1,44 @@
+package com.prestek.davivienda.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Persistent Idempotency-Key claim (idempotency.persistent=true). The row is
+ * inserted before the request runs; responseBody stays null while it is in
+ * flight and holds the original JSON response once it completes. fingerprint
+ * is the SHA-256 hex of the request payload. IdempotencyService writes the
+ * table with JdbcTemplate and reads rows back as this type.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idem_key", length = 300)
+    private String key;
+
+    @Column(name = "fingerprint", length = 64, nullable = false)
+    private String fingerprint;
+
+    @Column(name = "response_body", length = 8192)
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
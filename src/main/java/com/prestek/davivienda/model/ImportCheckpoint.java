@@ -0,0 +1,52 @@
+package com.prestek.davivienda.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Progress of a partner file import. nextOffset (always the start of a line)
+ * is committed together with the applications of each chunk, so a restarted
+ * import resumes there without duplicating rows. A file whose size changed is
+ * treated as a new delivery and imported from the beginning.
+ */
+@Entity
+@Table(name = "import_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportCheckpoint {
+
+    @Id
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "next_offset", nullable = false)
+    private Long nextOffset;
+
+    @Column(name = "imported", nullable = false)
+    private Long imported;
+
+    @Column(name = "rejected", nullable = false)
+    private Long rejected;
+
+    @Column(name = "completed", nullable = false)
+    private Boolean completed;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
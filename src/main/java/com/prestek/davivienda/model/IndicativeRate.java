@@ -0,0 +1,53 @@
+package com.prestek.davivienda.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Latest indicative pricing of an application under the QuoteService
+ * constants identified by constantsVersion. Written by the repricing job.
+ */
+@Entity
+@Table(name = "indicative_rates")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndicativeRate {
+
+    @Id
+    @Column(name = "application_id")
+    private Long applicationId;
+
+    @Column(name = "rate_ea_min", nullable = false)
+    private Double rateEAmin;
+
+    @Column(name = "rate_ea_max", nullable = false)
+    private Double rateEAmax;
+
+    @Column(name = "monthly_payment_min", nullable = false)
+    private Long monthlyPaymentMin;
+
+    @Column(name = "monthly_payment_max", nullable = false)
+    private Long monthlyPaymentMax;
+
+    @Column(name = "fees_estimated", nullable = false)
+    private Long feesEstimated;
+
+    @Column(name = "apr_ea_estimated", nullable = false)
+    private Double aprEAEstimated;
+
+    @Column(name = "constants_version", nullable = false, length = 32)
+    private String constantsVersion;
+
+    @Column(name = "priced_at", nullable = false)
+    private LocalDateTime pricedAt;
+}
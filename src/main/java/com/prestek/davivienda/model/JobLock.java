@@ -0,0 +1,64 @@
+package com.prestek.davivienda.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Cluster-wide lock for a background job, held by owner until lockedUntil.
+ * See JobLockService.
+ *
+ * Persistable so that creating the row is a plain INSERT: two nodes racing
+ * to create it get a key violation instead of one silently overwriting the
+ * other.
+ */
+@Entity
+@Table(name = "job_locks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLock implements Persistable<String> {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "owner", length = 200, nullable = false)
+    private String owner;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Transient
+    @Builder.Default
+    private boolean newLock = true;
+
+    @Override
+    public String getId() {
+        return name;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newLock;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newLock = false;
+    }
+}
@@ -0,0 +1,45 @@
+package com.prestek.davivienda.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Progress of a repricing run for one version of the QuoteService constants.
+ * lastApplicationId is committed together with each chunk of rates, so a
+ * restarted run resumes right after it.
+ */
+@Entity
+@Table(name = "repricing_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepricingCheckpoint {
+
+    @Id
+    @Column(name = "constants_version", length = 32)
+    private String constantsVersion;
+
+    @Column(name = "last_application_id", nullable = false)
+    private Long lastApplicationId;
+
+    @Column(name = "processed", nullable = false)
+    private Long processed;
+
+    @Column(name = "completed", nullable = false)
+    private Boolean completed;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,49 @@
+package com.prestek.davivienda.repository;
+
+import com.prestek.davivienda.model.ApplicationLease;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ApplicationLeaseRepository extends JpaRepository<ApplicationLease, Long> {
+
+    // Leases vencidos; SKIP LOCKED para que varios nodos re-encolen lotes disjuntos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT l FROM ApplicationLease l WHERE l.expiresAt < :now ORDER BY l.expiresAt")
+    List<ApplicationLease> findExpiredForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Bloquea el lease hasta el commit: ni el re-encolado (SKIP LOCKED) ni otro
+    // claim lo cambian mientras se decide la solicitud
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM ApplicationLease l WHERE l.applicationId = :applicationId")
+    Optional<ApplicationLease> findByApplicationIdForUpdate(@Param("applicationId") Long applicationId);
+
+    @Modifying
+    @Query("DELETE FROM ApplicationLease l WHERE l.applicationId = :applicationId")
+    int deleteByApplicationId(@Param("applicationId") Long applicationId);
+
+    @Modifying
+    @Query("DELETE FROM ApplicationLease l WHERE l.applicationId IN :applicationIds")
+    int deleteByApplicationIdIn(@Param("applicationIds") Collection<Long> applicationIds);
+
+    @Modifying
+    @Query("DELETE FROM ApplicationLease l WHERE l.applicationId IN :applicationIds AND l.workerId = :workerId")
+    int deleteByApplicationIdInAndWorkerId(@Param("applicationIds") Collection<Long> applicationIds,
+                                           @Param("workerId") String workerId);
+}
@@ -0,0 +1,10 @@
+package com.prestek.davivienda.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.prestek.davivienda.model.ApplicationQuoteInputs;
+
+@Repository
+public interface ApplicationQuoteInputsRepository extends JpaRepository<ApplicationQuoteInputs, Long> {
+}
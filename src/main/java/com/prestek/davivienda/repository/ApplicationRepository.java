@@ -3,12 +3,22 @@ package com.prestek.davivienda.repository;
 import com.prestek.FinancialEntityCore.model.Application;
 import com.prestek.FinancialEntityCore.model.Application.*;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
@@ -18,7 +28,11 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     //List<Application> findByCreditOfferId(Long creditOfferId);
     List<Application> findByStatus(Application.ApplicationStatus status);
 
-    // JPQL explícito usando los campos escalares
+    // JPQL explícito usando los campos escalares (caché de consultas con el perfil l2cache)
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "applications.byUserAndStatus")
+    })
     @Query("SELECT a FROM Application a WHERE a.userId = :userId AND a.status = :status")
     List<Application> findByUserIdAndStatus(@Param("userId") String userId,
                                             @Param("status") ApplicationStatus status);
@@ -29,4 +43,126 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
 
     @Query("SELECT COUNT(a) FROM Application a WHERE a.userId = :userId")
     Long countByUserId(@Param("userId") String userId);
-}
\ No newline at end of file
+
+    // Keyset pagination por id: cada chunk empieza después del último id procesado
+    @Query("SELECT a FROM Application a WHERE a.status IN :statuses AND a.id > :afterId ORDER BY a.id")
+    List<Application> findChunkByStatusAfterId(@Param("statuses") Collection<ApplicationStatus> statuses,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    long countByStatusIn(Collection<ApplicationStatus> statuses);
+
+    // Cola de revisión: FOR UPDATE SKIP LOCKED (timeout -2) salta las filas que
+    // otro worker ya está reclamando en vez de esperar por ellas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT a FROM Application a WHERE a.status = :status ORDER BY a.id")
+    List<Application> findForClaim(@Param("status") ApplicationStatus status, Pageable pageable);
+
+    // Igual que findForClaim, sin las filas cuyas notas coinciden con notesPattern (LIKE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT a FROM Application a WHERE a.status = :status "
+            + "AND (a.notes IS NULL OR a.notes NOT LIKE :notesPattern) ORDER BY a.id")
+    List<Application> findForClaimSkippingNotes(@Param("status") ApplicationStatus status,
+                                                @Param("notesPattern") String notesPattern,
+                                                Pageable pageable);
+
+    // Solo re-encola las que siguen en revisión (el revisor pudo decidir mientras tanto)
+    @Modifying
+    @Query("UPDATE Application a SET a.status = :to, a.reviewDate = NULL, a.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE a.id IN :ids AND a.status = :from")
+    int requeue(@Param("ids") Collection<Long> ids,
+              @Param("from") ApplicationStatus from,
+              @Param("to") ApplicationStatus to);
+
+    // Bloquea todas las solicitudes de los usuarios (orden por id, sin deadlocks):
+    // serializa las aprobaciones concurrentes de un mismo usuario
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Application a WHERE a.userId IN :userIds ORDER BY a.id")
+    List<Application> lockByUserIdIn(@Param("userIds") Collection<String> userIds);
+
+    // Exposición ya aprobada por usuario: filas [userId, suma de montos]
+    @Query("SELECT a.userId, SUM(a.amount) FROM Application a WHERE a.userId IN :userIds AND a.status = :status "
+            + "GROUP BY a.userId")
+    List<Object[]> sumAmountByUserIdIn(@Param("userIds") Collection<String> userIds,
+                                       @Param("status") ApplicationStatus status);
+
+    // Decisión en bloque; solo aplica a filas que siguen en el estado esperado
+    @Modifying
+    @Query("UPDATE Application a SET a.status = :to, a.approvalDate = :approvalDate, "
+            + "a.rejectionReason = :rejectionReason, a.notes = :notes, a.updatedAt = :decidedAt "
+            + "WHERE a.id IN :ids AND a.status = :from")
+    int decide(@Param("ids") Collection<Long> ids,
+               @Param("from") ApplicationStatus from,
+               @Param("to") ApplicationStatus to,
+               @Param("approvalDate") LocalDateTime approvalDate,
+               @Param("rejectionReason") String rejectionReason,
+               @Param("notes") String notes,
+               @Param("decidedAt") LocalDateTime decidedAt);
+
+    // La misma decisión, solo sobre filas cuyo lease sigue siendo del worker
+    @Modifying
+    @Query("UPDATE Application a SET a.status = :to, a.approvalDate = :approvalDate, "
+            + "a.rejectionReason = :rejectionReason, a.notes = :notes, a.updatedAt = :decidedAt "
+            + "WHERE a.id IN :ids AND a.status = :from AND EXISTS (SELECT l FROM ApplicationLease l "
+            + "WHERE l.applicationId = a.id AND l.workerId = :workerId)")
+    int decide(@Param("ids") Collection<Long> ids,
+               @Param("from") ApplicationStatus from,
+               @Param("to") ApplicationStatus to,
+               @Param("approvalDate") LocalDateTime approvalDate,
+               @Param("rejectionReason") String rejectionReason,
+               @Param("notes") String notes,
+               @Param("workerId") String workerId,
+               @Param("decidedAt") LocalDateTime decidedAt);
+
+    // Derivación a revisión humana; solo filas cuyo lease sigue siendo del worker
+    @Modifying
+    @Query("UPDATE Application a SET a.status = :to, a.reviewDate = NULL, a.notes = :notes, a.updatedAt = :referredAt "
+            + "WHERE a.id IN :ids AND a.status = :from AND EXISTS (SELECT l FROM ApplicationLease l "
+            + "WHERE l.applicationId = a.id AND l.workerId = :workerId)")
+    int refer(@Param("ids") Collection<Long> ids,
+              @Param("from") ApplicationStatus from,
+              @Param("to") ApplicationStatus to,
+              @Param("notes") String notes,
+              @Param("workerId") String workerId,
+              @Param("referredAt") LocalDateTime referredAt);
+
+    // Mantenimiento: keyset por id (PK) para lotes acotados sin OFFSET
+    @Query("SELECT a.id FROM Application a WHERE a.status = :status AND a.applicationDate < :before "
+            + "AND a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsByStatusAppliedBefore(@Param("status") ApplicationStatus status,
+                                            @Param("before") LocalDateTime before,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    // Archivo: cursor en orden de id (fetch size para no cargar todo en memoria);
+    // debe consumirse dentro de una transacción y cerrarse
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT a FROM Application a WHERE a.status IN :statuses "
+            + "AND COALESCE(a.updatedAt, a.applicationDate) < :before AND a.id > :afterId ORDER BY a.id")
+    Stream<Application> streamForArchive(@Param("statuses") Collection<ApplicationStatus> statuses,
+                                         @Param("before") LocalDateTime before,
+                                         @Param("afterId") Long afterId);
+
+    // Borra solo si la fila sigue cumpliendo el criterio con el que se archivó
+    @Modifying
+    @Query("DELETE FROM Application a WHERE a.id IN :ids AND a.status IN :statuses "
+            + "AND COALESCE(a.updatedAt, a.applicationDate) < :before")
+    int deleteArchived(@Param("ids") Collection<Long> ids,
+                       @Param("statuses") Collection<ApplicationStatus> statuses,
+                       @Param("before") LocalDateTime before);
+
+    // Export CSV: cursor en orden de id con filtros opcionales (null = sin filtro)
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT a FROM Application a WHERE (:userId IS NULL OR a.userId = :userId) "
+            + "AND (:status IS NULL OR a.status = :status) ORDER BY a.id")
+    Stream<Application> streamForExport(@Param("userId") String userId,
+                                        @Param("status") ApplicationStatus status);
+}
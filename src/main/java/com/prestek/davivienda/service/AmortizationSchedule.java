@@ -0,0 +1,87 @@
+package com.prestek.davivienda.service;
+
+/*
+ * Month-by-month French amortization (fixed payment) of a loan, generated
+ * one row at a time. The monthly rate and payment are derived once; every
+ * row after that is carried forward from the previous balance:
+ *
+ *   interest  = round(balance * i)
+ *   principal = payment - interest
+ *   balance   = balance - principal
+ *
+ * so a schedule costs a single pow() regardless of the term and no object
+ * per row. Amounts are whole pesos like QuoteDto; the last row absorbs the
+ * rounding so the balance ends at exactly 0. The payment can be given (the
+ * monthlyPaymentMin/Max of a quote) instead of derived from the rate.
+ *
+ * Not thread-safe: one instance per schedule being generated.
+ */
+public final class AmortizationSchedule {
+
+    private final long amount;
+    private final int termMonths;
+    private final double rateEA;
+    private final double monthlyRate;
+    private final long payment;
+
+    private int month;
+    private long balance;
+    private long rowPayment;
+    private long rowInterest;
+    private long rowPrincipal;
+    private long totalInterest;
+
+    public AmortizationSchedule(long amount, int termMonths, double rateEA) {
+        this(amount, termMonths, rateEA, monthlyPayment(amount, termMonths, rateEA));
+    }
+
+    public AmortizationSchedule(long amount, int termMonths, double rateEA, long payment) {
+        this.amount = amount;
+        this.termMonths = termMonths;
+        this.rateEA = rateEA;
+        this.monthlyRate = monthlyRate(rateEA);
+        this.payment = payment;
+        this.balance = amount;
+    }
+
+    // Tasa mes vencido equivalente a la efectiva anual
+    public static double monthlyRate(double rateEA) {
+        return Math.pow(1.0 + rateEA, 1.0 / 12.0) - 1.0;
+    }
+
+    public static long monthlyPayment(double amount, double termMonths, double rateEA) {
+        double i = monthlyRate(rateEA);
+        return Math.round(amount * i / (1.0 - Math.pow(1.0 + i, -termMonths)));
+    }
+
+    /*
+     * Advances to the next month; false once the term is exhausted.
+     */
+    public boolean next() {
+        if (month == termMonths) {
+            return false;
+        }
+        month++;
+        rowInterest = Math.round(balance * monthlyRate);
+        rowPrincipal = month == termMonths ? balance : Math.min(balance, payment - rowInterest);
+        rowPayment = rowPrincipal + rowInterest;
+        balance -= rowPrincipal;
+        totalInterest += rowInterest;
+        return true;
+    }
+
+    public int month() { return month; }
+    public long rowPayment() { return rowPayment; }
+    public long interest() { return rowInterest; }
+    public long principal() { return rowPrincipal; }
+    public long balance() { return balance; }
+
+    // Acumulado hasta la fila actual (el total tras la última)
+    public long totalInterest() { return totalInterest; }
+
+    public long amount() { return amount; }
+    public int termMonths() { return termMonths; }
+    public double rateEA() { return rateEA; }
+    public double monthlyRate() { return monthlyRate; }
+    public long payment() { return payment; }
+}
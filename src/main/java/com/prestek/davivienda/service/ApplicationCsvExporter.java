@@ -0,0 +1,155 @@
+package com.prestek.davivienda.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+import com.prestek.davivienda.repository.ApplicationRepository;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Writes applications as CSV (RFC 4180) straight from a database cursor.
+ * Each row is written and detached before the next one is fetched, so memory
+ * stays constant regardless of how many rows match: the fetch size bounds the
+ * JDBC buffer and the persistence context never holds more than one entity.
+ *
+ * Text cells come from applicants and reviewers, and the file is opened in
+ * spreadsheets: a cell starting with =, +, -, @, tab or carriage return is
+ * prefixed with a single quote so it is shown as text instead of being
+ * evaluated as a formula (CSV injection).
+ */
+@Component
+@Slf4j
+public class ApplicationCsvExporter {
+
+    static final String HEADER = "id,userId,amount,status,applicationDate,reviewDate,approvalDate,"
+            + "rejectionReason,notes,createdAt,updatedAt";
+
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private final ApplicationRepository applicationRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ApplicationCsvExporter(ApplicationRepository applicationRepository,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager) {
+        this.applicationRepository = applicationRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /*
+     * Writes the header and every matching application to out, flushing but
+     * not closing it. Null filters match everything.
+     *
+     * @return number of rows written
+     */
+    public long export(String userId, ApplicationStatus status, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        writer.write(HEADER);
+        writer.write('\n');
+        long rows;
+        try {
+            rows = readOnlyTransaction.execute(tx -> {
+                long written = 0;
+                try (Stream<Application> applications = applicationRepository.streamForExport(userId, status)) {
+                    var iterator = applications.iterator();
+                    while (iterator.hasNext()) {
+                        Application application = iterator.next();
+                        writeRow(writer, application);
+                        entityManager.detach(application);
+                        written++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return written;
+            });
+        } catch (UncheckedIOException e) {
+            // Normalmente el cliente cerró la conexión a mitad de la descarga
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exported {} applications (userId={}, status={})", rows, userId, status);
+        return rows;
+    }
+
+    static void writeRow(Writer writer, Application application) throws IOException {
+        writer.write(Long.toString(application.getId()));
+        writer.write(',');
+        writeText(writer, application.getUserId());
+        writer.write(',');
+        if (application.getAmount() != null) {
+            // Sin notación científica: 5.0E7 rompe las hojas de cálculo de finanzas
+            writer.write(BigDecimal.valueOf(application.getAmount()).toPlainString());
+        }
+        writer.write(',');
+        if (application.getStatus() != null) {
+            writer.write(application.getStatus().name());
+        }
+        writer.write(',');
+        writeTime(writer, application.getApplicationDate());
+        writer.write(',');
+        writeTime(writer, application.getReviewDate());
+        writer.write(',');
+        writeTime(writer, application.getApprovalDate());
+        writer.write(',');
+        writeText(writer, application.getRejectionReason());
+        writer.write(',');
+        writeText(writer, application.getNotes());
+        writer.write(',');
+        writeTime(writer, application.getCreatedAt());
+        writer.write(',');
+        writeTime(writer, application.getUpdatedAt());
+        writer.write('\n');
+    }
+
+    private static void writeTime(Writer writer, LocalDateTime time) throws IOException {
+        if (time != null) {
+            writer.write(time.toString());
+        }
+    }
+
+    // Entre comillas solo si hace falta; las comillas internas se duplican
+    private static void writeText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!value.isEmpty() && isFormulaStart(value.charAt(0))) {
+            value = "'" + value;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean isFormulaStart(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+}
@@ -1,18 +1,35 @@
 package com.prestek.davivienda.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 
 import com.prestek.FinancialEntityCore.model.Application;
 import com.prestek.FinancialEntityCore.model.Application.*;
+import com.prestek.davivienda.archive.ApplicationArchive;
+import com.prestek.davivienda.model.ApplicationLease;
+import com.prestek.davivienda.model.ApplicationQuoteInputs;
+import com.prestek.davivienda.repository.ApplicationLeaseRepository;
+import com.prestek.davivienda.repository.ApplicationQuoteInputsRepository;
 import com.prestek.davivienda.repository.ApplicationRepository;
+import com.prestek.davivienda.repository.IndicativeRateRepository;
 //import com.prestek.coltefinanciera.repository.CreditOfferRepository;
 //import com.prestek.coltefinanciera.repository.UserRepository;
 
@@ -26,9 +43,28 @@ import lombok.extern.slf4j.Slf4j;
 public class ApplicationService {
 
     private final ApplicationRepository applicationRepository;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final RequestCoalescer requestCoalescer;
+    private final GroupCommitWriter groupCommitWriter;
+    private final ApplicationLeaseRepository applicationLeaseRepository;
+    private final ApplicationArchive applicationArchive;
+    private final ApplicationQuoteInputsRepository applicationQuoteInputsRepository;
+    private final IndicativeRateRepository indicativeRateRepository;
 //    private final UserRepository userRepository;
 //    private final CreditOfferRepository creditOfferRepository;
 
+    // El application está en revisión bajo el lease vigente de otro worker
+    public static class LeaseHeldException extends RuntimeException {
+        public LeaseHeldException(Long applicationId, String workerId) {
+            super("Application " + applicationId + " is leased to " + workerId, null, false, false);
+        }
+    }
+
+    // Default para los tests unitarios que construyen el servicio sin Spring
+    @Value("${review-queue.lease-duration:PT15M}")
+    private Duration leaseDuration = Duration.ofMinutes(15);
+
+    @Transactional(readOnly = true)
     public List<ApplicationDto> getAllApplications() {
         log.info("Fetching all applications");
         return applicationRepository.findAll()
@@ -37,18 +73,33 @@ public class ApplicationService {
                 .collect(Collectors.toList());
     }
 
+    // Claves de coalescing para lecturas repetidas
+    private record ById(Long id) {
+    }
+
+    private record ByUser(String userId) {
+    }
+
+    /*
+     * SUPPORTS: callers waiting on a coalesced read must not hold a connection;
+     * only the leader's repository call opens its own read-only transaction.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<ApplicationDto> getApplicationById(Long id) {
         log.info("Fetching application with id: {}", id);
-        return applicationRepository.findById(id)
-                .map(this::convertToDto);
+        // Las solicitudes archivadas ya no están en la tabla: se buscan en los segmentos
+        return coalesced(new ById(id), () -> applicationRepository.findById(id)
+                .map(this::convertToDto)
+                .or(() -> applicationArchive.find(id)));
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ApplicationDto> getApplicationsByUserId(String userId) {
         log.info("Fetching applications for user id: {}", userId);
-        return applicationRepository.findByUserId(userId)
+        return coalesced(new ByUser(userId), () -> applicationRepository.findByUserId(userId)
                 .stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .toList());
     }
 
 //    public List<ApplicationDto> getApplicationsByCreditOfferId(Long creditOfferId) {
@@ -59,6 +110,7 @@ public class ApplicationService {
 //                .collect(Collectors.toList());
 //    }
 
+    @Transactional(readOnly = true)
     public List<ApplicationDto> getApplicationsByStatus(ApplicationStatus status) {
         log.info("Fetching applications with status: {}", status);
         return applicationRepository.findByStatus(status)
@@ -67,6 +119,11 @@ public class ApplicationService {
                 .collect(Collectors.toList());
     }
 
+    /*
+     * SUPPORTS: the insert runs in the repository's (or the group committer's)
+     * transaction, so a caller waiting on a group commit holds no connection.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ApplicationDto createApplication(String userId, Double amount) {
         log.info("Creating new application for user {} and credit amount {}", userId, amount);
 
@@ -80,25 +137,43 @@ public class ApplicationService {
 //            throw new IllegalArgumentException("Credit offer is not active");
 //        }
 
-        Application application = Application.builder()
+        LocalDateTime applicationDate = LocalDateTime.now();
+        Supplier<Application> application = () -> Application.builder()
                 .userId(userId)
 //                .creditOffer(creditOffer)
                 .amount(amount)
                 .status(ApplicationStatus.PENDING)
-                .applicationDate(LocalDateTime.now())
+                .applicationDate(applicationDate)
                 .build();
 
-        Application savedApplication = applicationRepository.save(application);
+        Application savedApplication = groupCommitWriter.isEnabled()
+                ? groupCommitWriter.save(application)
+                : applicationRepository.save(application.get());
+        readYourWritesTracker.recordWrite();
+        afterCommit(() -> requestCoalescer.invalidate(new ByUser(userId)));
         log.info("Application created successfully with id: {}", savedApplication.getId());
 
         return convertToDto(savedApplication);
     }
 
+    /*
+     * Throws LeaseHeldException when the application is under a live review
+     * lease held by another worker; without a lease anyone may update it.
+     */
     public Optional<ApplicationDto> updateApplicationStatus(Long id, ApplicationStatus newStatus, String notes) {
         log.info("Updating application {} status to: {}", id, newStatus);
 
+        String worker = currentWorker();
         return applicationRepository.findById(id)
                 .map(application -> {
+                    // Con el lease bloqueado, la comprobación sigue valiendo al hacer el UPDATE
+                    applicationLeaseRepository.findByApplicationIdForUpdate(id)
+                            .filter(lease -> lease.getExpiresAt().isAfter(LocalDateTime.now()))
+                            .filter(lease -> !lease.getWorkerId().equals(worker))
+                            .ifPresent(lease -> {
+                                throw new LeaseHeldException(id, lease.getWorkerId());
+                            });
+
                     ApplicationStatus oldStatus = application.getStatus();
                     application.setStatus(newStatus);
                     application.setNotes(notes);
@@ -119,16 +194,83 @@ public class ApplicationService {
                     }
 
                     Application updatedApplication = applicationRepository.save(application);
+                    if (newStatus != ApplicationStatus.UNDER_REVIEW) {
+                        applicationLeaseRepository.deleteByApplicationId(id);
+                    }
+                    readYourWritesTracker.recordWrite();
+                    afterCommit(() -> {
+                        requestCoalescer.invalidate(new ById(id));
+                        requestCoalescer.invalidate(new ByUser(updatedApplication.getUserId()));
+                    });
                     log.info("Application status updated successfully for id: {}", updatedApplication.getId());
                     return convertToDto(updatedApplication);
                 });
     }
 
+    /*
+     * Moves up to count PENDING applications to UNDER_REVIEW for the caller and
+     * leases them for review-queue.lease-duration. Rows locked by a concurrent
+     * claim are skipped, so workers on any node get disjoint batches.
+     */
+    public List<ApplicationDto> claimApplications(int count) {
+        return claimApplications(currentWorker(), count);
+    }
+
+    public List<ApplicationDto> claimApplications(String workerId, int count) {
+        return claimApplications(workerId, count, null);
+    }
+
+    /*
+     * Same claim, skipping applications whose notes start with skipNotesPrefix
+     * (e.g. the ones the decisioning pipeline already referred).
+     */
+    public List<ApplicationDto> claimApplications(String workerId, int count, String skipNotesPrefix) {
+        log.info("Worker {} claiming up to {} pending applications", workerId, count);
+
+        List<Application> claimed = skipNotesPrefix == null
+                ? applicationRepository.findForClaim(ApplicationStatus.PENDING, PageRequest.of(0, count))
+                : applicationRepository.findForClaimSkippingNotes(ApplicationStatus.PENDING, skipNotesPrefix + "%",
+                        PageRequest.of(0, count));
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseDuration);
+        List<ApplicationLease> leases = new ArrayList<>(claimed.size());
+        for (Application application : claimed) {
+            application.setStatus(ApplicationStatus.UNDER_REVIEW);
+            application.setReviewDate(now);
+            leases.add(ApplicationLease.builder()
+                    .applicationId(application.getId())
+                    .workerId(workerId)
+                    .claimedAt(now)
+                    .expiresAt(expiresAt)
+                    .build());
+        }
+        applicationRepository.saveAll(claimed);
+        applicationLeaseRepository.saveAll(leases);
+        readYourWritesTracker.recordWrite();
+        afterCommit(requestCoalescer::invalidateAll);
+        log.info("Worker {} claimed {} applications until {}", workerId, claimed.size(), expiresAt);
+
+        return claimed.stream()
+                .map(this::convertToDto)
+                .toList();
+    }
+
     public boolean deleteApplication(Long id) {
         log.info("Deleting application with id: {}", id);
 
         if (applicationRepository.existsById(id)) {
+            // Filas locales que cuelgan de la solicitud, igual que al archivar
+            applicationQuoteInputsRepository.deleteById(id);
+            indicativeRateRepository.deleteById(id);
+            applicationLeaseRepository.deleteByApplicationId(id);
             applicationRepository.deleteById(id);
+            readYourWritesTracker.recordWrite();
+            // Sin el userId a mano: las listas por usuario también se descartan
+            afterCommit(requestCoalescer::invalidateAll);
             log.info("Application deleted successfully with id: {}", id);
             return true;
         }
@@ -137,11 +279,67 @@ public class ApplicationService {
         return false;
     }
 
+    /*
+     * Stores the applicant's term, score, income and expenses so repricing
+     * prices the application with its own profile. The amount of the request
+     * is ignored: the application's amount is used. Returns false when the
+     * application does not exist.
+     */
+    public boolean saveQuoteInputs(Long id, QuoteRequest inputs) {
+        if (!applicationRepository.existsById(id)) {
+            log.warn("Application not found for quote inputs with id: {}", id);
+            return false;
+        }
+        applicationQuoteInputsRepository.save(ApplicationQuoteInputs.builder()
+                .applicationId(id)
+                .termMonths(inputs.termMonths())
+                .score(inputs.score())
+                .monthlyIncome(inputs.monthlyIncome())
+                .monthlyExpenses(inputs.monthlyExpenses())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        return true;
+    }
+
+    @Transactional(readOnly = true)
     public Long getApplicationCountByUserId(String userId) {
         log.info("Getting application count for user id: {}", userId);
         return applicationRepository.countByUserId(userId);
     }
 
+    /*
+     * Callers that must read from the primary after their own write skip the
+     * shared result, which may come from a lagging replica.
+     */
+    private <V> V coalesced(Object key, Supplier<V> loader) {
+        if (readYourWritesTracker.requiresPrimary()) {
+            return loader.get();
+        }
+        return requestCoalescer.execute(key, loader);
+    }
+
+    private static String currentWorker() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getName() != null ? authentication.getName() : "anonymous";
+    }
+
+    /*
+     * Invalidating before commit would let a concurrent read cache the old row
+     * again, so coalesced entries are dropped once the write is visible.
+     */
+    private static void afterCommit(Runnable invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidation.run();
+            }
+        });
+    }
+
     private ApplicationDto convertToDto(Application application) {
 //        String userFullName = application.getUser() != null
 //                ? application.getUser().getFirstName() + " " + application.getUser().getLastName()
@@ -0,0 +1,468 @@
+package com.prestek.davivienda.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+import com.prestek.davivienda.model.ApplicationQuoteInputs;
+import com.prestek.davivienda.repository.ApplicationLeaseRepository;
+import com.prestek.davivienda.repository.ApplicationQuoteInputsRepository;
+import com.prestek.davivienda.repository.ApplicationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Automated decisioning for routine PENDING applications
+ * (decisioning.enabled=true). Each tick runs the stages chunk by chunk:
+ *
+ *   claim   - SKIP LOCKED claim of chunk-size rows not yet referred, under a
+ *             review lease held by this node's worker id
+ *   enrich  - approved exposure of the chunk's users and their stored quote
+ *             inputs (application_quote_inputs), one query each
+ *   score   - eligibility check and QuoteKernel pricing of the rows that
+ *             have quote inputs, into a QuoteBuffer
+ *   decide  - approve, reject with a reason code, or refer to a human
+ *   update  - exposure re-check, one bulk UPDATE per decision and lease
+ *             release, one transaction
+ *
+ * Only rows with the applicant's term, score, income and expenses (PUT
+ * /api/applications/{id}/quote-inputs) are approved or rejected; the rest go
+ * back to PENDING with a referral note and an advisory reason. The note
+ * starts with REFERRED_NOTE, which keeps the row out of the next claim while
+ * reviewers still pick it up with POST /claim. Every UPDATE and the lease
+ * release only touch rows whose lease is still this node's. The worker id is
+ * WORKER_ID_PREFIX plus the JobLockService owner, so pipelines on different
+ * nodes never pass for each other.
+ *
+ * The exposure seen by enrich is only a first pass: chunks are decided in
+ * parallel (and on several nodes), and one user's applications can span
+ * chunks. Before writing approvals, the update transaction locks every
+ * application of the users it approves, re-reads their committed approved
+ * exposure and rejects the approvals that no longer fit, so concurrent chunks
+ * for the same user are serialized on those row locks.
+ *
+ * Claiming runs on the scheduler thread; the other stages run on a pool of
+ * decisioning.parallelism threads. A semaphore of max-in-flight-chunks
+ * permits is taken before each claim, so no rows are leased that nobody is
+ * processing; when no permit is free the tick ends instead of waiting, which
+ * keeps the shared scheduler thread free for LeaseRequeueJob and the
+ * maintenance and archive crons. If a chunk fails after the claim, its leases
+ * expire and LeaseRequeueJob returns it to PENDING.
+ */
+@Service
+@Slf4j
+public class DecisionPipeline {
+
+    static final String WORKER_ID_PREFIX = "decisioning-pipeline";
+    static final String REFERRED_NOTE = "Referred to manual review";
+    static final String APPROVED_NOTE = "Auto-approved by decisioning pipeline";
+    static final String REJECTED_NOTE = "Auto-rejected by decisioning pipeline";
+
+    public enum Outcome { APPROVE, REJECT, REFER }
+
+    // reason es null cuando no hay nada que señalar
+    record Decision(Outcome outcome, String reason) {
+        String note() {
+            String prefix = switch (outcome) {
+                case APPROVE -> APPROVED_NOTE;
+                case REJECT -> REJECTED_NOTE;
+                case REFER -> REFERRED_NOTE;
+            };
+            return reason == null ? prefix : prefix + ": " + reason;
+        }
+    }
+
+    record Rules(double maxExposure, double maxTotalDti, double autoApproveMaxAmount, double maxAutoRateEA) {
+    }
+
+    // Resultado de enrich: exposición aprobada por usuario y datos del solicitante por id
+    private record Enrichment(Map<String, Double> exposure, Map<Long, ApplicationQuoteInputs> inputs) {
+    }
+
+    // Resultado de score: veredicto por fila (null sin datos) y cotización de las elegibles
+    private record Scores(QuoteEligibility[] verdicts, QuoteBuffer quotes) {
+    }
+
+    private static final Decision APPROVE = new Decision(Outcome.APPROVE, null);
+    private static final Decision REFER = new Decision(Outcome.REFER, null);
+    private static final String INVALID_AMOUNT = "INVALID_AMOUNT";
+    private static final String EXPOSURE_LIMIT = "EXPOSURE_LIMIT";
+    private static final String AFFORDABILITY = "AFFORDABILITY";
+
+    private final ApplicationService applicationService;
+    private final ApplicationRepository applicationRepository;
+    private final ApplicationLeaseRepository applicationLeaseRepository;
+    private final ApplicationQuoteInputsRepository applicationQuoteInputsRepository;
+    private final RequestCoalescer requestCoalescer;
+    private final TransactionTemplate transactionTemplate;
+    private final QuoteKernel kernel;
+    private final QuoteEligibilityFilter eligibilityFilter;
+
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int maxChunksPerTick;
+    private final int maxInFlightChunks;
+    private final Rules rules;
+    private final String workerId;
+
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Semaphore inFlight;
+    private final AtomicBoolean ticking = new AtomicBoolean();
+
+    private final Timer claimTimer;
+    private final Timer enrichTimer;
+    private final Timer scoreTimer;
+    private final Timer decideTimer;
+    private final Timer updateTimer;
+    private final MeterRegistry meterRegistry;
+    private final Map<Decision, Counter> decisions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DecisionPipeline(ApplicationService applicationService,
+                            ApplicationRepository applicationRepository,
+                            ApplicationLeaseRepository applicationLeaseRepository,
+                            ApplicationQuoteInputsRepository applicationQuoteInputsRepository,
+                            RequestCoalescer requestCoalescer,
+                            JobLockService jobLockService,
+                            PlatformTransactionManager transactionManager,
+                            QuoteService quoteService,
+                            QuoteEligibilityFilter eligibilityFilter,
+                            MeterRegistry meterRegistry,
+                            @Value("${decisioning.enabled:false}") boolean enabled,
+                            @Value("${decisioning.chunk-size:200}") int chunkSize,
+                            @Value("${decisioning.max-chunks-per-tick:50}") int maxChunksPerTick,
+                            @Value("${decisioning.max-in-flight-chunks:4}") int maxInFlightChunks,
+                            @Value("${decisioning.parallelism:0}") int parallelism,
+                            @Value("${decisioning.max-exposure:200000000}") double maxExposure,
+                            @Value("${decisioning.max-total-dti:0.8}") double maxTotalDti,
+                            @Value("${decisioning.auto-approve.max-amount:20000000}") double autoApproveMaxAmount,
+                            @Value("${decisioning.auto-approve.max-rate-ea:0.35}") double maxAutoRateEA) {
+        this(applicationService, applicationRepository, applicationLeaseRepository, applicationQuoteInputsRepository,
+                requestCoalescer, transactionManager, quoteService.kernel(), eligibilityFilter, meterRegistry, enabled,
+                chunkSize, maxChunksPerTick, maxInFlightChunks,
+                new Rules(maxExposure, maxTotalDti, autoApproveMaxAmount, maxAutoRateEA),
+                WORKER_ID_PREFIX + "/" + jobLockService.owner(),
+                Executors.newFixedThreadPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                        new NamedThreadFactory()));
+    }
+
+    DecisionPipeline(ApplicationService applicationService, ApplicationRepository applicationRepository,
+                     ApplicationLeaseRepository applicationLeaseRepository,
+                     ApplicationQuoteInputsRepository applicationQuoteInputsRepository, RequestCoalescer requestCoalescer,
+                     PlatformTransactionManager transactionManager, QuoteKernel kernel,
+                     QuoteEligibilityFilter eligibilityFilter, MeterRegistry meterRegistry,
+                     boolean enabled, int chunkSize, int maxChunksPerTick, int maxInFlightChunks,
+                     Rules rules, String workerId, Executor executor) {
+        this.applicationService = applicationService;
+        this.applicationRepository = applicationRepository;
+        this.applicationLeaseRepository = applicationLeaseRepository;
+        this.applicationQuoteInputsRepository = applicationQuoteInputsRepository;
+        this.requestCoalescer = requestCoalescer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kernel = kernel;
+        this.eligibilityFilter = eligibilityFilter;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerTick = maxChunksPerTick;
+        this.maxInFlightChunks = maxInFlightChunks;
+        this.rules = rules;
+        this.workerId = workerId;
+        this.executor = executor;
+        this.ownedExecutor = executor instanceof ExecutorService service ? service : null;
+        this.inFlight = new Semaphore(maxInFlightChunks);
+
+        this.claimTimer = stageTimer(meterRegistry, "claim");
+        this.enrichTimer = stageTimer(meterRegistry, "enrich");
+        this.scoreTimer = stageTimer(meterRegistry, "score");
+        this.decideTimer = stageTimer(meterRegistry, "decide");
+        this.updateTimer = stageTimer(meterRegistry, "update");
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("application.decisioning.inflight.chunks", inFlight,
+                        s -> this.maxInFlightChunks - s.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${decisioning.interval:PT2S}")
+    public void tick() {
+        if (enabled) {
+            runOnce();
+        }
+    }
+
+    /*
+     * Claims and hands off chunks until the queue is drained or
+     * max-chunks-per-tick is reached; returns how many rows were claimed.
+     */
+    int runOnce() {
+        if (!ticking.compareAndSet(false, true)) {
+            return 0;
+        }
+        int claimed = 0;
+        try {
+            for (int i = 0; i < maxChunksPerTick; i++) {
+                // Sin permisos libres el pool va saturado: el siguiente tick reintenta
+                if (!inFlight.tryAcquire()) {
+                    break;
+                }
+                List<ApplicationDto> chunk;
+                try {
+                    chunk = claimTimer.record(() -> applicationService.claimApplications(workerId, chunkSize,
+                            REFERRED_NOTE));
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                if (chunk.isEmpty()) {
+                    inFlight.release();
+                    break;
+                }
+                claimed += chunk.size();
+                submit(chunk);
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Decisioning tick failed after claiming {} applications", claimed, e);
+        } finally {
+            ticking.set(false);
+        }
+        return claimed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private void submit(List<ApplicationDto> chunk) {
+        try {
+            executor.execute(() -> {
+                try {
+                    process(chunk);
+                } catch (RuntimeException e) {
+                    // Los leases vencen y LeaseRequeueJob las devuelve a PENDING
+                    log.error("Decisioning of {} applications failed", chunk.size(), e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            log.warn("Decisioning executor rejected a chunk of {} applications", chunk.size());
+        }
+    }
+
+    void process(List<ApplicationDto> chunk) {
+        Enrichment enrichment = enrichTimer.record(() -> enrich(chunk));
+        Scores scores = scoreTimer.record(() -> score(chunk, enrichment.inputs()));
+        Decision[] decided = decideTimer.record(() -> decide(chunk, enrichment, scores));
+        updateTimer.record(() -> apply(chunk, decided));
+    }
+
+    private Enrichment enrich(List<ApplicationDto> chunk) {
+        Set<String> userIds = chunk.stream().map(ApplicationDto::getUserId).collect(Collectors.toSet());
+        Map<String, Double> exposure = new HashMap<>();
+        for (Object[] row : applicationRepository.sumAmountByUserIdIn(userIds, ApplicationStatus.APPROVED)) {
+            exposure.put((String) row[0], ((Number) row[1]).doubleValue());
+        }
+        Map<Long, ApplicationQuoteInputs> inputs = applicationQuoteInputsRepository
+                .findAllById(chunk.stream().map(ApplicationDto::getId).toList()).stream()
+                .collect(Collectors.toMap(ApplicationQuoteInputs::getApplicationId, Function.identity()));
+        return new Enrichment(exposure, inputs);
+    }
+
+    private Scores score(List<ApplicationDto> chunk, Map<Long, ApplicationQuoteInputs> inputs) {
+        QuoteEligibility[] verdicts = new QuoteEligibility[chunk.size()];
+        QuoteBuffer quotes = new QuoteBuffer(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ApplicationDto application = chunk.get(i);
+            ApplicationQuoteInputs profile = inputs.get(application.getId());
+            if (profile == null || application.getAmount() == null) {
+                continue;
+            }
+            long amount = Math.round(application.getAmount());
+            verdicts[i] = eligibilityFilter.evaluate(amount, profile.getTermMonths(), profile.getScore(),
+                    profile.getMonthlyIncome(), profile.getMonthlyExpenses());
+            if (verdicts[i] == QuoteEligibility.ELIGIBLE) {
+                kernel.price(amount, profile.getTermMonths(), profile.getScore(), profile.getMonthlyIncome(),
+                        profile.getMonthlyExpenses(), quotes, i);
+            }
+        }
+        return new Scores(verdicts, quotes);
+    }
+
+    private Decision[] decide(List<ApplicationDto> chunk, Enrichment enrichment, Scores scores) {
+        Map<String, Double> exposure = enrichment.exposure();
+        Decision[] decided = new Decision[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            ApplicationDto application = chunk.get(i);
+            double amount = application.getAmount() != null ? application.getAmount() : 0;
+            double current = exposure.getOrDefault(application.getUserId(), 0.0);
+            QuoteEligibility verdict = scores.verdicts()[i];
+            decided[i] = verdict == null
+                    ? refer(amount, current)
+                    : decide(amount, current, enrichment.inputs().get(application.getId()), verdict,
+                            scores.quotes().monthlyPaymentMax(i), scores.quotes().rateEAmax(i));
+            // Las aprobadas del mismo chunk cuentan para las siguientes del mismo usuario
+            if (decided[i].outcome() == Outcome.APPROVE) {
+                exposure.put(application.getUserId(), current + amount);
+            }
+        }
+        return decided;
+    }
+
+    // Sin datos del solicitante: siempre REFER; el motivo solo orienta al revisor
+    Decision refer(double amount, double approvedExposure) {
+        if (amount <= 0) {
+            return new Decision(Outcome.REFER, INVALID_AMOUNT);
+        }
+        if (approvedExposure + amount > rules.maxExposure()) {
+            return new Decision(Outcome.REFER, EXPOSURE_LIMIT);
+        }
+        return REFER;
+    }
+
+    Decision decide(double amount, double approvedExposure, ApplicationQuoteInputs profile,
+                    QuoteEligibility verdict, long monthlyPaymentMax, double rateEAmax) {
+        if (amount <= 0) {
+            return new Decision(Outcome.REJECT, INVALID_AMOUNT);
+        }
+        if (verdict != QuoteEligibility.ELIGIBLE) {
+            return new Decision(Outcome.REJECT, verdict.name());
+        }
+        if (approvedExposure + amount > rules.maxExposure()) {
+            return new Decision(Outcome.REJECT, EXPOSURE_LIMIT);
+        }
+        double totalDti = (double) (profile.getMonthlyExpenses() + monthlyPaymentMax) / profile.getMonthlyIncome();
+        if (totalDti > rules.maxTotalDti()) {
+            return new Decision(Outcome.REJECT, AFFORDABILITY);
+        }
+        if (amount > rules.autoApproveMaxAmount() || rateEAmax > rules.maxAutoRateEA()) {
+            return REFER;
+        }
+        return APPROVE;
+    }
+
+    private void apply(List<ApplicationDto> chunk, Decision[] decided) {
+        List<Long> all = chunk.stream().map(ApplicationDto::getId).toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        AtomicInteger updated = new AtomicInteger();
+        Map<Decision, List<Long>> groups = new LinkedHashMap<>();
+        transactionTemplate.executeWithoutResult(tx -> {
+            recheckExposure(chunk, decided);
+            for (int i = 0; i < chunk.size(); i++) {
+                groups.computeIfAbsent(decided[i], d -> new ArrayList<>()).add(chunk.get(i).getId());
+            }
+            // Si el lease ya no es nuestro, la fila no se toca
+            groups.forEach((decision, ids) -> updated.addAndGet(switch (decision.outcome()) {
+                case APPROVE -> applicationRepository.decide(ids, ApplicationStatus.UNDER_REVIEW,
+                        ApplicationStatus.APPROVED, now, null, decision.note(), workerId, now);
+                case REJECT -> applicationRepository.decide(ids, ApplicationStatus.UNDER_REVIEW,
+                        ApplicationStatus.REJECTED, null, decision.reason(), decision.note(), workerId, now);
+                // De vuelta a PENDING para los revisores
+                case REFER -> applicationRepository.refer(ids, ApplicationStatus.UNDER_REVIEW,
+                        ApplicationStatus.PENDING, decision.note(), workerId, now);
+            }));
+            applicationLeaseRepository.deleteByApplicationIdInAndWorkerId(all, workerId);
+        });
+        requestCoalescer.invalidateAll();
+
+        groups.forEach((decision, ids) -> decisions(decision).increment(ids.size()));
+        log.info("Decisioning chunk of {} applications: {} updated", chunk.size(), updated.get());
+    }
+
+    /*
+     * Runs inside the update transaction: locks the applications of the users
+     * with approvals in this chunk, so a concurrent chunk for the same user
+     * waits until this one commits, then re-checks the approvals against the
+     * committed exposure.
+     */
+    private void recheckExposure(List<ApplicationDto> chunk, Decision[] decided) {
+        Set<String> approvedUsers = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (decided[i].outcome() == Outcome.APPROVE) {
+                approvedUsers.add(chunk.get(i).getUserId());
+            }
+        }
+        if (approvedUsers.isEmpty()) {
+            return;
+        }
+        applicationRepository.lockByUserIdIn(approvedUsers);
+        Map<String, Double> exposure = new HashMap<>();
+        for (Object[] row : applicationRepository.sumAmountByUserIdIn(approvedUsers, ApplicationStatus.APPROVED)) {
+            exposure.put((String) row[0], ((Number) row[1]).doubleValue());
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            if (decided[i].outcome() != Outcome.APPROVE) {
+                continue;
+            }
+            ApplicationDto application = chunk.get(i);
+            double current = exposure.getOrDefault(application.getUserId(), 0.0);
+            if (current + application.getAmount() > rules.maxExposure()) {
+                decided[i] = new Decision(Outcome.REJECT, EXPOSURE_LIMIT);
+            } else {
+                exposure.put(application.getUserId(), current + application.getAmount());
+            }
+        }
+    }
+
+    private Counter decisions(Decision decision) {
+        return decisions.computeIfAbsent(decision, d -> Counter.builder("application.decisioning.decisions")
+                .tag("outcome", d.outcome().name().toLowerCase())
+                .tag("reason", d.reason() == null ? "none" : d.reason().toLowerCase())
+                .register(meterRegistry));
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("application.decisioning.stage")
+                .tag("stage", stage)
+                .description("Latency of one decisioning pipeline stage per chunk")
+                .register(registry);
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "decisioning-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.prestek.davivienda.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.davivienda.repository.ApplicationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Group commit for new applications (group-commit.enabled=true). Callers
+ * enqueue an insert and block; a single committer thread drains up to
+ * batch-size rows, or whatever arrived within max-delay-millis, and inserts
+ * them in one transaction, so N requests share one commit (one WAL fsync)
+ * instead of paying one each. Each caller gets its own saved entity back.
+ *
+ * If the batch transaction fails, nothing from it is visible: every row is
+ * retried in its own transaction and only the rows that fail again fail
+ * their caller. Rows are rebuilt from the caller's factory for the retry
+ * because the rolled-back entities already carry generated ids.
+ *
+ * The queue is a ConcurrentLinkedQueue bounded by an atomic counter; when it
+ * is full or the committer is not running, the caller inserts directly. A
+ * caller that queued while stop() was draining flushes the queue itself, and
+ * one whose row is still queued after await-timeout-millis takes it back and
+ * inserts it directly. A row already taken by the committer is waited for
+ * without a deadline: its batch may have committed, so failing the caller
+ * would invite a retry that inserts it twice. flush() always completes the
+ * futures of its batch.
+ */
+@Component
+@Slf4j
+public class GroupCommitWriter implements SmartLifecycle {
+
+    private record Pending(Supplier<Application> factory, CompletableFuture<Application> result) {
+    }
+
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final ApplicationRepository applicationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final int capacity;
+    private final long awaitTimeoutMillis;
+
+    private final DistributionSummary batchSizes;
+    private final Counter batchFailures;
+    private final Counter directWrites;
+
+    private volatile boolean running;
+    private volatile Thread committer;
+
+    public GroupCommitWriter(ApplicationRepository applicationRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${group-commit.enabled:false}") boolean enabled,
+                             @Value("${group-commit.batch-size:100}") int batchSize,
+                             @Value("${group-commit.max-delay-millis:5}") long maxDelayMillis,
+                             @Value("${group-commit.capacity:10000}") int capacity,
+                             @Value("${group-commit.await-timeout-millis:5000}") long awaitTimeoutMillis) {
+        this.applicationRepository = applicationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.capacity = capacity;
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+        this.batchSizes = DistributionSummary.builder("application.group_commit.batch.size")
+                .description("Rows committed per group-commit transaction")
+                .register(meterRegistry);
+        this.batchFailures = Counter.builder("application.group_commit.batch.failures")
+                .description("Batches rolled back and retried row by row")
+                .register(meterRegistry);
+        this.directWrites = Counter.builder("application.group_commit.direct")
+                .description("Inserts done by the caller because the queue was full or stopped")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /*
+     * Inserts the application built by factory and returns it once committed.
+     * factory may be called more than once (batch retry), never concurrently.
+     */
+    public Application save(Supplier<Application> factory) {
+        CompletableFuture<Application> result = running ? enqueue(factory) : null;
+        if (result == null) {
+            return saveDirectly(factory);
+        }
+        if (!running) {
+            // stop() pudo drenar la cola antes de este offer: nadie más la va a vaciar
+            while (drainAndFlush() > 0) {
+                // sigue drenando
+            }
+        }
+        return await(result, factory);
+    }
+
+    /*
+     * Waits for the committer; if the row is still queued after the timeout it
+     * is taken back and inserted by the caller, otherwise the caller waits for
+     * the batch that holds it to finish.
+     */
+    Application await(CompletableFuture<Application> result, Supplier<Application> factory) {
+        try {
+            return result.get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (queue.removeIf(pending -> pending.result() == result)) {
+                queued.decrementAndGet();
+                log.warn("Group commit did not pick up an application within {}ms; inserting directly",
+                        awaitTimeoutMillis);
+                return saveDirectly(factory);
+            }
+            // Ya está en un lote en curso: su resultado llega siempre, commit o fallo
+            try {
+                return result.get();
+            } catch (InterruptedException | ExecutionException again) {
+                return unwrap(again);
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            return unwrap(e);
+        }
+    }
+
+    private Application saveDirectly(Supplier<Application> factory) {
+        directWrites.increment();
+        return transactionTemplate.execute(status -> applicationRepository.save(factory.get()));
+    }
+
+    CompletableFuture<Application> enqueue(Supplier<Application> factory) {
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            return null;
+        }
+        Pending pending = new Pending(factory, new CompletableFuture<>());
+        queue.offer(pending);
+        if (queued.get() >= batchSize) {
+            Thread current = committer;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+        return pending.result();
+    }
+
+    /*
+     * Takes up to batch-size queued rows and commits them; returns how many.
+     */
+    int drainAndFlush() {
+        List<Pending> batch = new ArrayList<>(Math.min(batchSize, Math.max(queued.get(), 1)));
+        Pending pending;
+        while (batch.size() < batchSize && (pending = queue.poll()) != null) {
+            batch.add(pending);
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        queued.addAndGet(-batch.size());
+        flush(batch);
+        return batch.size();
+    }
+
+    private void flush(List<Pending> batch) {
+        try {
+            List<Application> saved = transactionTemplate.execute(status -> {
+                List<Application> rows = new ArrayList<>(batch.size());
+                for (Pending pending : batch) {
+                    rows.add(pending.factory().get());
+                }
+                return applicationRepository.saveAll(rows);
+            });
+            batchSizes.record(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            batchFailures.increment();
+            log.warn("Group commit of {} applications failed, retrying row by row: {}", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                try {
+                    Application saved = transactionTemplate.execute(
+                            status -> applicationRepository.save(pending.factory().get()));
+                    batchSizes.record(1);
+                    pending.result().complete(saved);
+                } catch (RuntimeException rowFailure) {
+                    pending.result().completeExceptionally(rowFailure);
+                }
+            }
+        } catch (Error e) {
+            // Los llamadores esperan sin plazo: ninguno queda colgado
+            for (Pending pending : batch) {
+                pending.result().completeExceptionally(e);
+            }
+            throw e;
+        }
+    }
+
+    private void runCommitter() {
+        while (running || queued.get() > 0) {
+            if (queued.get() < batchSize) {
+                LockSupport.parkNanos(this, maxDelayNanos);
+            }
+            try {
+                drainAndFlush();
+            } catch (RuntimeException e) {
+                log.error("Group committer failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::runCommitter, "application-group-commit");
+        thread.setDaemon(true);
+        committer = thread;
+        thread.start();
+        log.info("Group commit enabled: batch-size={}, max-delay={}ms", batchSize,
+                TimeUnit.NANOSECONDS.toMillis(maxDelayNanos));
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = committer;
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Lo que llegó mientras el hilo terminaba
+        while (drainAndFlush() > 0) {
+            // sigue drenando
+        }
+        committer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return committer != null;
+    }
+
+    // Se detiene después del servidor web para terminar las solicitudes en curso
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private static Application unwrap(Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for group commit", e);
+        }
+        if (e.getCause() instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        throw new CompletionException(e.getCause());
+    }
+}
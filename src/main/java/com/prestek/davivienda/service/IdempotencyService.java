@@ -0,0 +1,300 @@
+package com.prestek.davivienda.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestek.davivienda.model.IdempotencyRecord;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Idempotency-Key handling for non-idempotent POSTs. The first request with a
+ * key runs the action; retries with the same key and payload get the original
+ * result back without running it again, and concurrent duplicates wait on the
+ * in-flight one (single flight) instead of racing it. Keys are scoped to the
+ * authenticated principal and expire after idempotency.ttl-seconds.
+ *
+ * Entries live in a bounded in-memory map. With idempotency.persistent=true
+ * the key is also claimed in idempotency_keys before running, so retries that
+ * land on another instance or after a restart are covered too. Each write to
+ * idempotency_keys commits in its own transaction (the prod pool runs with
+ * auto-commit off), and only the SHA-256 of the payload fingerprint is stored.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 200;
+
+    private static final int PURGE_EVERY_CLAIMS = 1024;
+    private static final int MAX_STORED_RESPONSE = 8192;
+
+    public record Result<T>(T value, boolean replayed) {
+    }
+
+    // Misma llave con un payload distinto
+    public static class KeyReusedException extends RuntimeException {
+        public KeyReusedException() {
+            super("Idempotency-Key already used with a different request", null, false, false);
+        }
+    }
+
+    // La llave está en curso en otra instancia
+    public static class KeyInProgressException extends RuntimeException {
+        public KeyInProgressException() {
+            super("A request with this Idempotency-Key is still in progress", null, false, false);
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result, long expiresAtNanos) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong claims = new AtomicLong();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlSeconds;
+    private final int maxEntries;
+    private final boolean persistent;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public IdempotencyService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${idempotency.max-entries:100000}") int maxEntries,
+                              @Value("${idempotency.persistent:false}") boolean persistent) {
+        this(jdbcTemplate, transactionManager, objectMapper, ttlSeconds, maxEntries, persistent, System::nanoTime);
+    }
+
+    IdempotencyService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                       ObjectMapper objectMapper, long ttlSeconds, int maxEntries, boolean persistent,
+                       LongSupplier nanoClock) {
+        this.jdbcTemplate = jdbcTemplate;
+        if (transactionManager != null) {
+            // Independiente de una transacción del llamador: el claim debe quedar visible para otras instancias
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        } else {
+            this.transactionTemplate = null;
+        }
+        this.objectMapper = objectMapper;
+        this.ttlSeconds = ttlSeconds;
+        this.maxEntries = maxEntries;
+        this.persistent = persistent;
+        this.nanoClock = nanoClock;
+    }
+
+    /*
+     * Runs action once per (principal, key). fingerprint identifies the
+     * request payload; reusing a key with another fingerprint is rejected.
+     */
+    public <T> Result<T> execute(String key, String fingerprint, Class<T> type, Supplier<T> action) {
+        String scopedKey = principal() + ":" + key;
+        fingerprint = sha256(fingerprint);
+        long now = nanoClock.getAsLong();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        Entry mine = new Entry(fingerprint, result, now + ttlSeconds * 1_000_000_000L);
+
+        Entry existing;
+        while ((existing = entries.putIfAbsent(scopedKey, mine)) != null) {
+            if (existing.expiresAtNanos() - now <= 0) {
+                entries.remove(scopedKey, existing);
+                continue;
+            }
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw new KeyReusedException();
+            }
+            return new Result<>(type.cast(await(existing.result())), true);
+        }
+        if (entries.size() > maxEntries) {
+            evict(now);
+        }
+
+        boolean claimed = false;
+        T value;
+        try {
+            if (persistent) {
+                Optional<T> previous = claim(scopedKey, fingerprint, type);
+                if (previous.isPresent()) {
+                    result.complete(previous.get());
+                    return new Result<>(previous.get(), true);
+                }
+                claimed = true;
+            }
+            value = action.get();
+        } catch (RuntimeException e) {
+            entries.remove(scopedKey, mine);
+            if (claimed) {
+                release(scopedKey);
+            }
+            result.completeExceptionally(e);
+            throw e;
+        }
+        if (claimed) {
+            storeResponse(scopedKey, value);
+        }
+        result.complete(value);
+        return new Result<>(value, false);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private <T> Optional<T> claim(String scopedKey, String fingerprint, Class<T> type) {
+        if (claims.incrementAndGet() % PURGE_EVERY_CLAIMS == 0) {
+            Integer purged = transactionTemplate.execute(status -> jdbcTemplate.update(
+                    "DELETE FROM idempotency_keys WHERE expires_at < ?", Timestamp.valueOf(LocalDateTime.now())));
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                        "INSERT INTO idempotency_keys (idem_key, fingerprint, response_body, created_at, expires_at) "
+                                + "VALUES (?, ?, NULL, ?, ?)",
+                        scopedKey, fingerprint, Timestamp.valueOf(now), Timestamp.valueOf(now.plusSeconds(ttlSeconds))));
+                return Optional.empty();
+            } catch (DuplicateKeyException e) {
+                // En PostgreSQL la transacción del INSERT quedó abortada; la lectura va en otra
+                Optional<IdempotencyRecord> existing = find(scopedKey);
+                if (existing.isEmpty()) {
+                    continue;
+                }
+                IdempotencyRecord record = existing.get();
+                if (record.getExpiresAt().isBefore(now)) {
+                    release(scopedKey);
+                    continue;
+                }
+                if (!fingerprint.equals(record.getFingerprint())) {
+                    throw new KeyReusedException();
+                }
+                if (record.getResponseBody() == null) {
+                    throw new KeyInProgressException();
+                }
+                return Optional.of(deserialize(record.getResponseBody(), type));
+            }
+        }
+        throw new KeyInProgressException();
+    }
+
+    /*
+     * The action already ran, so a response that cannot be stored never fails
+     * the request nor frees the key: the claim stays without a body and other
+     * instances answer KeyInProgressException until it expires, instead of
+     * running the action a second time.
+     */
+    private void storeResponse(String scopedKey, Object value) {
+        try {
+            String body = objectMapper.writeValueAsString(value);
+            if (body.length() > MAX_STORED_RESPONSE) {
+                log.warn("Idempotent response of {} chars too large to persist; keeping the claim", body.length());
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "UPDATE idempotency_keys SET response_body = ? WHERE idem_key = ?", body, scopedKey));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not persist idempotent response; keeping the claim: {}", e.getMessage());
+        }
+    }
+
+    private Optional<IdempotencyRecord> find(String scopedKey) {
+        List<IdempotencyRecord> rows = transactionTemplate.execute(status -> jdbcTemplate.query(
+                "SELECT idem_key, fingerprint, response_body, created_at, expires_at FROM idempotency_keys "
+                        + "WHERE idem_key = ?",
+                (rs, rowNum) -> IdempotencyRecord.builder()
+                        .key(rs.getString("idem_key"))
+                        .fingerprint(rs.getString("fingerprint"))
+                        .responseBody(rs.getString("response_body"))
+                        .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                        .expiresAt(rs.getTimestamp("expires_at").toLocalDateTime())
+                        .build(),
+                scopedKey));
+        return rows == null || rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    private void release(String scopedKey) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "DELETE FROM idempotency_keys WHERE idem_key = ?", scopedKey));
+    }
+
+    // Hex de 64 caracteres: cabe en idempotency_keys.fingerprint y no guarda el payload en claro
+    static String sha256(String fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(fingerprint.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private <T> T deserialize(String body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored idempotent response", e);
+        }
+    }
+
+    private void evict(long now) {
+        entries.entrySet().removeIf(e -> e.getValue().expiresAtNanos() - now <= 0);
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        int target = maxEntries - maxEntries / 10;
+        while (entries.size() > target && it.hasNext()) {
+            if (it.next().getValue().result().isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for idempotent request", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getName() != null ? authentication.getName() : "anonymous";
+    }
+}
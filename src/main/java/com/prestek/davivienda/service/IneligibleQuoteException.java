@@ -0,0 +1,32 @@
+package com.prestek.davivienda.service;
+
+/*
+ * Thrown when a QuoteRequest is rejected before pricing. One stackless
+ * instance per reason is shared, so rejecting does not allocate; the
+ * instances are built with suppression and stack traces disabled.
+ */
+public class IneligibleQuoteException extends RuntimeException {
+
+    private static final IneligibleQuoteException[] BY_REASON = new IneligibleQuoteException[QuoteEligibility.values().length];
+
+    static {
+        for (QuoteEligibility reason : QuoteEligibility.values()) {
+            BY_REASON[reason.ordinal()] = new IneligibleQuoteException(reason);
+        }
+    }
+
+    private final transient QuoteEligibility reason;
+
+    private IneligibleQuoteException(QuoteEligibility reason) {
+        super("Quote request not eligible: " + reason, null, false, false);
+        this.reason = reason;
+    }
+
+    public static IneligibleQuoteException of(QuoteEligibility reason) {
+        return BY_REASON[reason.ordinal()];
+    }
+
+    public QuoteEligibility getReason() {
+        return reason;
+    }
+}
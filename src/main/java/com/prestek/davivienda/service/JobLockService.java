@@ -0,0 +1,85 @@
+package com.prestek.davivienda.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.prestek.davivienda.model.JobLock;
+import com.prestek.davivienda.repository.JobLockRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Lets a scheduled job run on one node at a time. A lock is a job_locks row
+ * with an owner and an expiry rather than a database session lock, because
+ * the jobs span many transactions and connections. The holder renews it
+ * while it works; if the node dies the lock lapses after its ttl and another
+ * node can take it. Each call is its own short transaction.
+ */
+@Service
+@Slf4j
+public class JobLockService {
+
+    private final JobLockRepository jobLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner;
+
+    public JobLockService(JobLockRepository jobLockRepository, PlatformTransactionManager transactionManager) {
+        this.jobLockRepository = jobLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // pid@host más un sufijo: dos JVM en el mismo host (o con pid 1 en contenedores) no se confunden
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /*
+     * Takes the lock for ttl; false when another node holds it.
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(tx -> {
+                if (jobLockRepository.acquire(name, owner, now, now.plus(ttl)) == 1) {
+                    return true;
+                }
+                if (jobLockRepository.existsById(name)) {
+                    return false;
+                }
+                jobLockRepository.saveAndFlush(JobLock.builder()
+                        .name(name)
+                        .owner(owner)
+                        .lockedUntil(now.plus(ttl))
+                        .build());
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Otro nodo creó la fila al mismo tiempo y se quedó con el lock
+            log.debug("Lost the race to create job lock {}", name);
+            return false;
+        }
+    }
+
+    /*
+     * Extends a held lock by ttl; false when it lapsed and another node took it.
+     */
+    public boolean renew(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer renewed = transactionTemplate.execute(tx -> jobLockRepository.acquire(name, owner, now, now.plus(ttl)));
+        return renewed != null && renewed == 1;
+    }
+
+    public void release(String name) {
+        transactionTemplate.executeWithoutResult(tx -> jobLockRepository.release(name, owner, LocalDateTime.now()));
+    }
+
+    public String owner() {
+        return owner;
+    }
+}
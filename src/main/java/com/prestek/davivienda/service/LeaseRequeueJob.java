@@ -0,0 +1,52 @@
+package com.prestek.davivienda.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+import com.prestek.davivienda.model.ApplicationLease;
+import com.prestek.davivienda.repository.ApplicationLeaseRepository;
+import com.prestek.davivienda.repository.ApplicationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Puts applications whose review lease expired back to PENDING so another
+ * worker can claim them. Runs on every node; expired leases are taken with
+ * SKIP LOCKED, so concurrent runs split the work instead of blocking.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaseRequeueJob {
+
+    private final ApplicationRepository applicationRepository;
+    private final ApplicationLeaseRepository applicationLeaseRepository;
+
+    @Value("${review-queue.requeue-batch-size:500}")
+    private int batchSize = 500;
+
+    @Scheduled(fixedDelayString = "${review-queue.requeue-interval:PT30S}",
+            initialDelayString = "${review-queue.requeue-interval:PT30S}")
+    @Transactional
+    public int requeueExpired() {
+        List<ApplicationLease> expired = applicationLeaseRepository.findExpiredForUpdate(LocalDateTime.now(),
+                PageRequest.of(0, batchSize));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = expired.stream().map(ApplicationLease::getApplicationId).toList();
+        int requeued = applicationRepository.requeue(ids, ApplicationStatus.UNDER_REVIEW, ApplicationStatus.PENDING);
+        applicationLeaseRepository.deleteByApplicationIdIn(ids);
+        log.info("Requeued {} of {} applications with expired review leases", requeued, ids.size());
+        return requeued;
+    }
+}
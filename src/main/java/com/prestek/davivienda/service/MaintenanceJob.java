@@ -0,0 +1,309 @@
+package com.prestek.davivienda.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+import com.prestek.davivienda.archive.ApplicationArchiver;
+import com.prestek.davivienda.repository.ApplicationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Nightly maintenance of the applications table:
+ *
+ *   expire - PENDING applications older than maintenance.pending-ttl become
+ *            REJECTED with rejection reason EXPIRED
+ *   purge  - REJECTED applications untouched for maintenance.rejected-retention
+ *            are archived and then deleted by ApplicationArchiver; without
+ *            archive.enabled the purge is skipped, never a plain delete
+ *
+ * Expiry walks the primary key with keyset batches of maintenance.batch-size,
+ * one short transaction per batch. Between batches the job sleeps at least
+ * maintenance.pause and, with maintenance.rows-per-second > 0, long enough to
+ * stay under that rate, so it never holds locks or I/O long enough to compete
+ * with live traffic. Progress is exposed through status() and counters.
+ *
+ * Only one node runs at a time: a run takes the "maintenance" job lock for
+ * maintenance.lock-ttl and renews it after every batch, so it should be longer
+ * than the slowest batch and the archiver's purge. A node that finds the lock
+ * held ends its run as SKIPPED.
+ */
+@Service
+@Slf4j
+public class MaintenanceJob {
+
+    static final String EXPIRED_REASON = "EXPIRED";
+    static final String LOCK_NAME = "maintenance";
+
+    public enum State { IDLE, RUNNING, COMPLETED, CANCELLED, FAILED, SKIPPED }
+
+    public record Status(State state, long expired, long purged, double rowsPerSecond,
+                         LocalDateTime startedAt, LocalDateTime finishedAt, String error) {
+    }
+
+    // Punto de extensión para los tests (sin sleeps reales)
+    interface Sleeper {
+        void sleepNanos(long nanos) throws InterruptedException;
+    }
+
+    private final ApplicationRepository applicationRepository;
+    private final ApplicationArchiver applicationArchiver;
+    private final TransactionTemplate transactionTemplate;
+    private final RequestCoalescer requestCoalescer;
+    private final JobLockService jobLockService;
+    private final Sleeper sleeper;
+
+    private final boolean enabled;
+    private final Duration pendingTtl;
+    private final Duration rejectedRetention;
+    private final int batchSize;
+    private final double rowsPerSecond;
+    private final long pauseNanos;
+    private final Duration lockTtl;
+
+    private final Counter expiredRows;
+    private final Counter purgedRows;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "maintenance-job"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean cancelRequested = new AtomicBoolean();
+    private volatile boolean purging;
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong purged = new AtomicLong();
+    private volatile State state = State.IDLE;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    @Autowired
+    public MaintenanceJob(ApplicationRepository applicationRepository,
+                          ApplicationArchiver applicationArchiver,
+                          PlatformTransactionManager transactionManager,
+                          RequestCoalescer requestCoalescer,
+                          JobLockService jobLockService,
+                          MeterRegistry meterRegistry,
+                          @Value("${maintenance.enabled:false}") boolean enabled,
+                          @Value("${maintenance.pending-ttl:P30D}") Duration pendingTtl,
+                          @Value("${maintenance.rejected-retention:P365D}") Duration rejectedRetention,
+                          @Value("${maintenance.batch-size:500}") int batchSize,
+                          @Value("${maintenance.rows-per-second:2000}") double rowsPerSecond,
+                          @Value("${maintenance.pause:PT0.1S}") Duration pause,
+                          @Value("${maintenance.lock-ttl:PT30M}") Duration lockTtl) {
+        this(applicationRepository, applicationArchiver, transactionManager, requestCoalescer, jobLockService, meterRegistry, enabled, pendingTtl, rejectedRetention, batchSize, rowsPerSecond, pause,
+                lockTtl, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    MaintenanceJob(ApplicationRepository applicationRepository, ApplicationArchiver applicationArchiver,
+                   PlatformTransactionManager transactionManager,
+                   RequestCoalescer requestCoalescer, JobLockService jobLockService,
+                   MeterRegistry meterRegistry, boolean enabled,
+                   Duration pendingTtl, Duration rejectedRetention, int batchSize, double rowsPerSecond,
+                   Duration pause, Duration lockTtl, Sleeper sleeper) {
+        this.applicationRepository = applicationRepository;
+        this.applicationArchiver = applicationArchiver;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requestCoalescer = requestCoalescer;
+        this.jobLockService = jobLockService;
+        this.enabled = enabled;
+        this.pendingTtl = pendingTtl;
+        this.rejectedRetention = rejectedRetention;
+        this.batchSize = batchSize;
+        this.rowsPerSecond = rowsPerSecond;
+        this.pauseNanos = pause.toNanos();
+        this.lockTtl = lockTtl;
+        this.sleeper = sleeper;
+        this.expiredRows = Counter.builder("application.maintenance.rows").tag("action", "expired")
+                .description("Applications processed by the maintenance job")
+                .register(meterRegistry);
+        this.purgedRows = Counter.builder("application.maintenance.rows").tag("action", "purged")
+                .description("Applications processed by the maintenance job")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${maintenance.cron:0 30 3 * * *}")
+    public void scheduled() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /*
+     * Starts a run in the background; false when one is already running.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Maintenance already running");
+            return false;
+        }
+        cancelRequested.set(false);
+        state = State.RUNNING;
+        runner.submit(this::run);
+        return true;
+    }
+
+    public void cancel() {
+        cancelRequested.set(true);
+        if (purging) {
+            applicationArchiver.cancel();
+        }
+    }
+
+    void run() {
+        begin();
+        boolean locked;
+        try {
+            locked = jobLockService.tryAcquire(LOCK_NAME, lockTtl);
+        } catch (RuntimeException e) {
+            log.error("Could not take the maintenance lock", e);
+            finish(State.FAILED, e.getMessage());
+            return;
+        }
+        if (!locked) {
+            log.info("Maintenance lock held by another node");
+            finish(State.SKIPPED, null);
+            return;
+        }
+        State finalState;
+        String failure = null;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            expireStale(now.minus(pendingTtl), now);
+            purgeRejected(now.minus(rejectedRetention));
+            finalState = cancelRequested.get() ? State.CANCELLED : State.COMPLETED;
+        } catch (RuntimeException e) {
+            log.error("Maintenance failed after expiring {} and purging {} applications", expired.get(),
+                    purged.get(), e);
+            finalState = State.FAILED;
+            failure = e.getMessage();
+        }
+        // Se libera antes de finish(): una vez running está en false otra corrida puede tomar el lock
+        try {
+            jobLockService.release(LOCK_NAME);
+        } catch (RuntimeException e) {
+            log.warn("Could not release the maintenance lock; it lapses after {}", lockTtl, e);
+        }
+        finish(finalState, failure);
+    }
+
+    public Status status() {
+        long end = state == State.RUNNING ? System.nanoTime() : finishedNanos;
+        double seconds = startedNanos == 0 ? 0 : (end - startedNanos) / 1_000_000_000.0;
+        long done = expired.get() + purged.get();
+        return new Status(state, expired.get(), purged.get(), seconds > 0 ? done / seconds : 0,
+                startedAt, finishedAt, error);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cancelRequested.set(true);
+        runner.shutdown();
+    }
+
+    private void expireStale(LocalDateTime cutoff, LocalDateTime now) {
+        String notes = "Expired after " + pendingTtl.toDays() + " days without review";
+        long afterId = 0;
+        List<Long> ids;
+        while (!cancelRequested.get() && !(ids = applicationRepository.findIdsByStatusAppliedBefore(
+                ApplicationStatus.PENDING, cutoff, afterId, PageRequest.of(0, batchSize))).isEmpty()) {
+            long batchStart = System.nanoTime();
+            List<Long> batch = ids;
+            int updated = transactionTemplate.execute(tx -> applicationRepository.decide(batch,
+                    ApplicationStatus.PENDING, ApplicationStatus.REJECTED, null, EXPIRED_REASON, notes, now));
+            expired.addAndGet(updated);
+            expiredRows.increment(updated);
+            requestCoalescer.invalidateAll();
+            afterId = ids.get(ids.size() - 1);
+            renewLock();
+            throttle(ids.size(), System.nanoTime() - batchStart);
+        }
+    }
+
+    private void purgeRejected(LocalDateTime cutoff) {
+        if (cancelRequested.get()) {
+            return;
+        }
+        if (!applicationArchiver.enabled()) {
+            log.warn("Skipping purge of REJECTED applications: archive.enabled is false");
+            return;
+        }
+        renewLock();
+        purging = true;
+        ApplicationArchiver.Status result;
+        try {
+            result = applicationArchiver.runNow(Set.of(ApplicationStatus.REJECTED), cutoff);
+        } finally {
+            purging = false;
+        }
+        if (result == null || result.state() == ApplicationArchiver.State.SKIPPED) {
+            log.info("Skipping purge of REJECTED applications: archiver already running");
+            return;
+        }
+        if (result.state() == ApplicationArchiver.State.FAILED) {
+            throw new IllegalStateException("Archiving REJECTED applications failed: " + result.error());
+        }
+        purged.addAndGet(result.deleted());
+        purgedRows.increment(result.deleted());
+    }
+
+    // Si el lock venció y otro nodo lo tomó, este nodo deja de trabajar
+    private void renewLock() {
+        if (!jobLockService.renew(LOCK_NAME, lockTtl)) {
+            throw new IllegalStateException("Lost the maintenance lock to another node");
+        }
+    }
+
+    private void throttle(int rows, long elapsedNanos) {
+        long budgetNanos = rowsPerSecond > 0 ? (long) (rows * 1_000_000_000.0 / rowsPerSecond) : 0;
+        long waitNanos = Math.max(pauseNanos, budgetNanos - elapsedNanos);
+        if (waitNanos <= 0) {
+            return;
+        }
+        try {
+            sleeper.sleepNanos(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelRequested.set(true);
+        }
+    }
+
+    private void begin() {
+        expired.set(0);
+        purged.set(0);
+        startedNanos = System.nanoTime();
+        finishedNanos = 0;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        error = null;
+        state = State.RUNNING;
+    }
+
+    private void finish(State finalState, String failure) {
+        finishedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        error = failure;
+        state = finalState;
+        running.set(false);
+        log.info("Maintenance {}: expired {}, purged {} applications", finalState, expired.get(), purged.get());
+    }
+}
@@ -0,0 +1,46 @@
+package com.prestek.davivienda.service;
+
+import com.prestek.FinancialEntityCore.dto.QuoteDto;
+
+/*
+ * Reusable struct-of-arrays output for QuoteKernel. Slot i holds the same
+ * figures a QuoteDto would carry for the i-th priced request.
+ */
+public final class QuoteBuffer {
+
+    final double[] rateEAmin;
+    final double[] rateEAmax;
+    final long[] monthlyPaymentMin;
+    final long[] monthlyPaymentMax;
+    final long[] feesEstimated;
+    final double[] aprEAEstimated;
+
+    public QuoteBuffer(int capacity) {
+        rateEAmin = new double[capacity];
+        rateEAmax = new double[capacity];
+        monthlyPaymentMin = new long[capacity];
+        monthlyPaymentMax = new long[capacity];
+        feesEstimated = new long[capacity];
+        aprEAEstimated = new double[capacity];
+    }
+
+    void put(int slot, QuoteDto quote) {
+        rateEAmin[slot] = quote.rateEAmin();
+        rateEAmax[slot] = quote.rateEAmax();
+        monthlyPaymentMin[slot] = quote.monthlyPaymentMin();
+        monthlyPaymentMax[slot] = quote.monthlyPaymentMax();
+        feesEstimated[slot] = quote.feesEstimated();
+        aprEAEstimated[slot] = quote.aprEAEstimated();
+    }
+
+    public int capacity() {
+        return rateEAmin.length;
+    }
+
+    public double rateEAmin(int slot) { return rateEAmin[slot]; }
+    public double rateEAmax(int slot) { return rateEAmax[slot]; }
+    public long monthlyPaymentMin(int slot) { return monthlyPaymentMin[slot]; }
+    public long monthlyPaymentMax(int slot) { return monthlyPaymentMax[slot]; }
+    public long feesEstimated(int slot) { return feesEstimated[slot]; }
+    public double aprEAEstimated(int slot) { return aprEAEstimated[slot]; }
+}
@@ -0,0 +1,46 @@
+package com.prestek.davivienda.service;
+
+/*
+ * Columnar input for bulk pricing: row i is
+ * (amounts[i], termMonths[i], scores[i], monthlyIncomes[i], monthlyExpenses[i]).
+ */
+public final class QuoteColumns {
+
+    final long[] amounts;
+    final int[] termMonths;
+    final int[] scores;
+    final long[] monthlyIncomes;
+    final long[] monthlyExpenses;
+    private int size;
+
+    public QuoteColumns(int capacity) {
+        amounts = new long[capacity];
+        termMonths = new int[capacity];
+        scores = new int[capacity];
+        monthlyIncomes = new long[capacity];
+        monthlyExpenses = new long[capacity];
+    }
+
+    public void set(int row, long amount, int termMonths, int score, long monthlyIncome, long monthlyExpenses) {
+        this.amounts[row] = amount;
+        this.termMonths[row] = termMonths;
+        this.scores[row] = score;
+        this.monthlyIncomes[row] = monthlyIncome;
+        this.monthlyExpenses[row] = monthlyExpenses;
+        if (row >= size) {
+            size = row + 1;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return amounts.length;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
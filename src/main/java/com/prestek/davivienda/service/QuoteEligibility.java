@@ -0,0 +1,15 @@
+package com.prestek.davivienda.service;
+
+/*
+ * Outcome of the pre-quote eligibility check. Anything other than ELIGIBLE
+ * is a reason code returned to the caller instead of a priced quote.
+ */
+public enum QuoteEligibility {
+    ELIGIBLE,
+    NON_POSITIVE_INCOME,
+    NEGATIVE_EXPENSES,
+    DTI_TOO_HIGH,
+    AMOUNT_OUT_OF_RANGE,
+    TERM_OUT_OF_RANGE,
+    SCORE_OUT_OF_RANGE
+}
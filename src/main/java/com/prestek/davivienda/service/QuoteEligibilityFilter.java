@@ -0,0 +1,92 @@
+package com.prestek.davivienda.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+
+/*
+ * Cheap checks run before the weighted pricing so that requests which can
+ * never be served are answered with a reason code instead of a full quote.
+ * check() works on primitives only and does not allocate.
+ *
+ * The per-verdict counters report quote requests only (GET
+ * /api/quotes/eligibility/stats); internal callers such as the decisioning
+ * pipeline use evaluate(), which applies the same rules without counting.
+ */
+public class QuoteEligibilityFilter {
+
+    private final long minAmount;
+    private final long maxAmount;
+    private final int minTermMonths;
+    private final int maxTermMonths;
+    private final int minScore;
+    private final int maxScore;
+    private final double maxDti;
+
+    private final AtomicLongArray counters = new AtomicLongArray(QuoteEligibility.values().length);
+
+    public QuoteEligibilityFilter(long minAmount, long maxAmount, int minTermMonths, int maxTermMonths,
+            int minScore, int maxScore, double maxDti) {
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.minTermMonths = minTermMonths;
+        this.maxTermMonths = maxTermMonths;
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.maxDti = maxDti;
+    }
+
+    public static QuoteEligibilityFilter defaults() {
+        return new QuoteEligibilityFilter(100_000L, 5_000_000_000L, 1, 360, 150, 950, 1.0);
+    }
+
+    public QuoteEligibility check(QuoteRequest request) {
+        return check(request.amount(), request.termMonths(), request.score(),
+                request.monthlyIncome(), request.monthlyExpenses());
+    }
+
+    public QuoteEligibility check(long amount, int termMonths, int score, long monthlyIncome, long monthlyExpenses) {
+        QuoteEligibility verdict = evaluate(amount, termMonths, score, monthlyIncome, monthlyExpenses);
+        counters.incrementAndGet(verdict.ordinal());
+        return verdict;
+    }
+
+    public QuoteEligibility evaluate(long amount, int termMonths, int score, long monthlyIncome, long monthlyExpenses) {
+        if (monthlyIncome <= 0) {
+            return QuoteEligibility.NON_POSITIVE_INCOME;
+        }
+        if (monthlyExpenses < 0) {
+            return QuoteEligibility.NEGATIVE_EXPENSES;
+        }
+        if ((double) monthlyExpenses / monthlyIncome >= maxDti) {
+            return QuoteEligibility.DTI_TOO_HIGH;
+        }
+        if (amount < minAmount || amount > maxAmount) {
+            return QuoteEligibility.AMOUNT_OUT_OF_RANGE;
+        }
+        if (termMonths < minTermMonths || termMonths > maxTermMonths) {
+            return QuoteEligibility.TERM_OUT_OF_RANGE;
+        }
+        if (score < minScore || score > maxScore) {
+            return QuoteEligibility.SCORE_OUT_OF_RANGE;
+        }
+        return QuoteEligibility.ELIGIBLE;
+    }
+
+    public long count(QuoteEligibility verdict) {
+        return counters.get(verdict.ordinal());
+    }
+
+    /*
+     * Number of checked requests per verdict, for reporting.
+     */
+    public Map<QuoteEligibility, Long> counts() {
+        Map<QuoteEligibility, Long> counts = new EnumMap<>(QuoteEligibility.class);
+        for (QuoteEligibility verdict : QuoteEligibility.values()) {
+            counts.put(verdict, counters.get(verdict.ordinal()));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,68 @@
+package com.prestek.davivienda.service;
+
+import com.prestek.FinancialEntityCore.dto.QuoteDto;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+
+import java.util.function.Function;
+
+/*
+ * Batch front end to the core pricing formula. Every row is priced by the
+ * same AbstractWeightedQuoteService.quote that POST /api/quotes and gRPC use,
+ * so batch figures are identical to the single-quote ones; only the
+ * eligibility check is left to the caller. The figures are copied into a
+ * reusable QuoteBuffer slot so batch callers keep primitive columns instead
+ * of holding on to one QuoteDto per row.
+ */
+public final class QuoteKernel {
+
+    private final Function<QuoteRequest, QuoteDto> core;
+    private final String fingerprint;
+
+    QuoteKernel(Function<QuoteRequest, QuoteDto> core, String fingerprint) {
+        this.core = core;
+        this.fingerprint = fingerprint;
+    }
+
+    public static QuoteKernel of(QuoteService service) {
+        double[] constants = {
+                service.wScore(), service.wDTI(), service.wTerm(), service.wIncome(),
+                service.kScore(), service.kDTI(), service.kTerm(), service.kIncome(),
+                service.baseEA(), service.floorEA(), service.ceilingEA(),
+                service.baseFees(), service.minFees(), service.maxFees()};
+        return new QuoteKernel(service::price, fingerprint(constants));
+    }
+
+    /*
+     * Prices one request into the given buffer slot.
+     */
+    public void price(long amount, int termMonths, int score, long monthlyIncome, long monthlyExpenses,
+                      QuoteBuffer out, int slot) {
+        out.put(slot, core.apply(new QuoteRequest(amount, termMonths, score, monthlyIncome, monthlyExpenses)));
+    }
+
+    /*
+     * Prices rows [0, count) of the input columns into slots [0, count) of out.
+     */
+    public void priceAll(long[] amounts, int[] termMonths, int[] scores, long[] monthlyIncomes,
+                         long[] monthlyExpenses, int count, QuoteBuffer out) {
+        for (int i = 0; i < count; i++) {
+            price(amounts[i], termMonths[i], scores[i], monthlyIncomes[i], monthlyExpenses[i], out, i);
+        }
+    }
+
+    /*
+     * Short identifier of the QuoteService constants; changes whenever any
+     * weight, sensitivity, rate bound or fee bound changes.
+     */
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    private static String fingerprint(double[] constants) {
+        long hash = 1125899906842597L;
+        for (double constant : constants) {
+            hash = 31 * hash + Double.doubleToLongBits(constant);
+        }
+        return Long.toHexString(hash);
+    }
+}
@@ -0,0 +1,12 @@
+package com.prestek.davivienda.service;
+
+/*
+ * 422 body for a QuoteRequest rejected before pricing. Written as JSON, CBOR
+ * or QuoteRejectionMessage, whichever the client accepts.
+ */
+public record QuoteRejection(String institution, String reason) {
+
+    public static QuoteRejection of(String institution, IneligibleQuoteException e) {
+        return new QuoteRejection(institution, e.getReason().name());
+    }
+}
@@ -1,11 +1,25 @@
 package com.prestek.davivienda.service;
 
+import com.prestek.FinancialEntityCore.dto.QuoteDto;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
 import com.prestek.FinancialEntityCore.service.AbstractWeightedQuoteService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class QuoteService extends AbstractWeightedQuoteService {
 
+    private final QuoteEligibilityFilter eligibilityFilter;
+
+    public QuoteService() {
+        this(QuoteEligibilityFilter.defaults());
+    }
+
+    @Autowired
+    public QuoteService(QuoteEligibilityFilter eligibilityFilter) {
+        this.eligibilityFilter = eligibilityFilter;
+    }
+
     @Override public String code() { return "DAVIVIENDA"; }
 
     @Override protected double wScore()  { return 0.35; }
@@ -24,4 +38,23 @@ public class QuoteService extends AbstractWeightedQuoteService {
     @Override protected long baseFees()   { return 35_000; } // fees más bajos
     @Override protected long minFees()    { return 25_000; }
     @Override protected long maxFees()    { return 80_000; }
-}
\ No newline at end of file
+
+    // Rechaza solicitudes imposibles antes de correr el pricing completo
+    @Override
+    public QuoteDto quote(QuoteRequest req) {
+        QuoteEligibility verdict = eligibilityFilter.check(req);
+        if (verdict != QuoteEligibility.ELIGIBLE) {
+            throw IneligibleQuoteException.of(verdict);
+        }
+        return super.quote(req);
+    }
+
+    // Fórmula del core sin el filtro de elegibilidad, para el pricing masivo
+    QuoteDto price(QuoteRequest req) {
+        return super.quote(req);
+    }
+
+    public QuoteKernel kernel() {
+        return QuoteKernel.of(this);
+    }
+}
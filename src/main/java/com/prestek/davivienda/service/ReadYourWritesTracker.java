@@ -0,0 +1,95 @@
+package com.prestek.davivienda.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/*
+ * Remembers which callers mutated applications recently so that their
+ * follow-up reads are served by the primary instead of a lagging replica.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    static final int MAX_TRACKED_SUBJECTS = 10_000;
+
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final LongSupplier nanoTime;
+    /*
+     * While the map is full, every read goes to the primary until this
+     * instant instead of letting the map grow further.
+     */
+    private volatile long saturatedUntilNanos;
+
+    @Autowired
+    public ReadYourWritesTracker(@Value("${datasource.replicas.read-your-writes-seconds:5}") long windowSeconds) {
+        this(windowSeconds, System::nanoTime);
+    }
+
+    ReadYourWritesTracker(long windowSeconds, LongSupplier nanoTime) {
+        this.windowNanos = windowSeconds * 1_000_000_000L;
+        this.nanoTime = nanoTime;
+        this.saturatedUntilNanos = nanoTime.getAsLong();
+    }
+
+    /*
+     * Records a write for the authenticated caller of the current thread.
+     */
+    public void recordWrite() {
+        String subject = currentSubject();
+        if (subject == null || windowNanos <= 0) {
+            return;
+        }
+        long now = nanoTime.getAsLong();
+        if (lastWriteNanos.size() >= MAX_TRACKED_SUBJECTS && !lastWriteNanos.containsKey(subject)) {
+            if (now - saturatedUntilNanos < 0) {
+                saturatedUntilNanos = now + windowNanos;
+                return;
+            }
+            evictExpired(now);
+            if (lastWriteNanos.size() >= MAX_TRACKED_SUBJECTS) {
+                saturatedUntilNanos = now + windowNanos;
+                return;
+            }
+        }
+        lastWriteNanos.put(subject, now);
+    }
+
+    /*
+     * Whether the caller of the current thread wrote within the replica lag window.
+     */
+    public boolean requiresPrimary() {
+        String subject = currentSubject();
+        if (subject == null) {
+            return false;
+        }
+        if (nanoTime.getAsLong() - saturatedUntilNanos < 0) {
+            return true;
+        }
+        Long writtenAt = lastWriteNanos.get(subject);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (nanoTime.getAsLong() - writtenAt < windowNanos) {
+            return true;
+        }
+        lastWriteNanos.remove(subject, writtenAt);
+        return false;
+    }
+
+    private void evictExpired(long now) {
+        lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+    }
+
+    private static String currentSubject() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,315 @@
+package com.prestek.davivienda.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+import com.prestek.davivienda.model.ApplicationQuoteInputs;
+import com.prestek.davivienda.model.RepricingCheckpoint;
+import com.prestek.davivienda.repository.ApplicationQuoteInputsRepository;
+import com.prestek.davivienda.repository.ApplicationRepository;
+import com.prestek.davivienda.repository.RepricingCheckpointRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Recomputes indicative rates of every PENDING and UNDER_REVIEW application
+ * after the QuoteService constants change. Applications are read in id order
+ * in chunks, priced in parallel blocks of BLOCK_ROWS rows on a dedicated pool
+ * and written back with JDBC batches; the checkpoint is committed in the same
+ * transaction as each chunk, so an interrupted run resumes where it stopped.
+ *
+ * Each application is priced with its own amount and the term, score,
+ * income and expenses stored in application_quote_inputs. Applications
+ * without stored inputs are skipped and any rate left from an earlier run
+ * is removed, rather than pricing them with a made-up profile.
+ */
+@Service
+@Slf4j
+public class RepricingJob {
+
+    static final Set<ApplicationStatus> REPRICED_STATUSES =
+            Set.of(ApplicationStatus.PENDING, ApplicationStatus.UNDER_REVIEW);
+
+    static final int BLOCK_ROWS = 512;
+
+    private static final String DELETE_RATE_SQL = "DELETE FROM indicative_rates WHERE application_id = ?";
+    private static final String INSERT_RATE_SQL = "INSERT INTO indicative_rates (application_id, rate_ea_min, "
+            + "rate_ea_max, monthly_payment_min, monthly_payment_max, fees_estimated, apr_ea_estimated, "
+            + "constants_version, priced_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public enum State { IDLE, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    public record Status(State state, String constantsVersion, long processed, long skipped, long total,
+                         long lastApplicationId, double rowsPerSecond, LocalDateTime startedAt,
+                         LocalDateTime finishedAt, String error) {
+    }
+
+    private final ApplicationRepository applicationRepository;
+    private final RepricingCheckpointRepository checkpointRepository;
+    private final ApplicationQuoteInputsRepository quoteInputsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final QuoteKernel kernel;
+
+    private final int chunkSize;
+    private final boolean autoStart;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "repricing-job"));
+    private final ForkJoinPool pricingPool;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean cancelRequested = new AtomicBoolean();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong lastApplicationId = new AtomicLong();
+    private volatile State state = State.IDLE;
+    private volatile long total;
+    private volatile long processedAtStart;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public RepricingJob(ApplicationRepository applicationRepository,
+                        RepricingCheckpointRepository checkpointRepository,
+                        ApplicationQuoteInputsRepository quoteInputsRepository,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        QuoteService quoteService,
+                        @Value("${repricing.chunk-size:1000}") int chunkSize,
+                        @Value("${repricing.parallelism:0}") int parallelism,
+                        @Value("${repricing.auto-start:false}") boolean autoStart) {
+        this.applicationRepository = applicationRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.quoteInputsRepository = quoteInputsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kernel = quoteService.kernel();
+        this.chunkSize = chunkSize;
+        this.autoStart = autoStart;
+        this.pricingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startIfConstantsChanged() {
+        if (autoStart) {
+            start(false);
+        }
+    }
+
+    /*
+     * Starts (or resumes) repricing in the background. Returns false when a run
+     * is already in progress or the current constants were already fully
+     * repriced and force is false.
+     */
+    public boolean start(boolean force) {
+        String version = kernel.fingerprint();
+        if (!running.compareAndSet(false, true)) {
+            log.info("Repricing already running");
+            return false;
+        }
+        boolean submitted = false;
+        try {
+            RepricingCheckpoint checkpoint = checkpointRepository.findById(version).orElse(null);
+            if (checkpoint != null && Boolean.TRUE.equals(checkpoint.getCompleted()) && !force) {
+                log.info("Applications already repriced for constants {}", version);
+                return false;
+            }
+            if (checkpoint != null && force) {
+                checkpointRepository.delete(checkpoint);
+            }
+            cancelRequested.set(false);
+            state = State.RUNNING;
+            runner.submit(() -> run(version));
+            submitted = true;
+            return true;
+        } finally {
+            // Si no se lanzó la corrida (ya completa o error de BD) se libera el flag
+            if (!submitted) {
+                running.set(false);
+            }
+        }
+    }
+
+    public void cancel() {
+        cancelRequested.set(true);
+    }
+
+    void run(String version) {
+        try {
+            RepricingCheckpoint checkpoint = checkpointRepository.findById(version)
+                    .orElseGet(() -> RepricingCheckpoint.builder()
+                            .constantsVersion(version)
+                            .lastApplicationId(0L)
+                            .processed(0L)
+                            .completed(false)
+                            .startedAt(LocalDateTime.now())
+                            .build());
+
+            begin(checkpoint);
+            log.info("Repricing {} applications for constants {} from id {}",
+                    total, version, checkpoint.getLastApplicationId());
+
+            QuoteColumns columns = new QuoteColumns(chunkSize);
+            QuoteBuffer buffer = new QuoteBuffer(chunkSize);
+            long[] pricedIds = new long[chunkSize];
+            List<Application> chunk;
+            while (!cancelRequested.get()
+                    && !(chunk = applicationRepository.findChunkByStatusAfterId(
+                            REPRICED_STATUSES, lastApplicationId.get(), PageRequest.of(0, chunkSize))).isEmpty()) {
+                int priced = price(chunk, columns, pricedIds, buffer);
+                write(chunk, pricedIds, priced, buffer, checkpoint);
+                processed.addAndGet(chunk.size());
+                skipped.addAndGet(chunk.size() - priced);
+                lastApplicationId.set(chunk.get(chunk.size() - 1).getId());
+            }
+
+            if (cancelRequested.get()) {
+                finish(State.CANCELLED, null);
+            } else {
+                checkpoint.setCompleted(true);
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+                finish(State.COMPLETED, null);
+            }
+        } catch (RuntimeException e) {
+            log.error("Repricing failed after {} applications", processed.get(), e);
+            finish(State.FAILED, e.getMessage());
+        } catch (Error e) {
+            // Un Error (p. ej. OutOfMemoryError) se propaga, pero la corrida no queda RUNNING
+            finish(State.FAILED, e.toString());
+            throw e;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Status status() {
+        long end = state == State.RUNNING ? System.nanoTime() : finishedNanos;
+        double seconds = startedNanos == 0 ? 0 : (end - startedNanos) / 1_000_000_000.0;
+        long done = processed.get();
+        double rowsPerSecond = seconds > 0 ? (done - processedAtStart) / seconds : 0;
+        return new Status(state, kernel.fingerprint(), done, skipped.get(), total,
+                lastApplicationId.get(), rowsPerSecond, startedAt, finishedAt, error);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cancelRequested.set(true);
+        runner.shutdown();
+        pricingPool.shutdown();
+    }
+
+    private void begin(RepricingCheckpoint checkpoint) {
+        processed.set(checkpoint.getProcessed());
+        skipped.set(0);
+        processedAtStart = checkpoint.getProcessed();
+        lastApplicationId.set(checkpoint.getLastApplicationId());
+        total = applicationRepository.countByStatusIn(REPRICED_STATUSES);
+        startedNanos = System.nanoTime();
+        finishedNanos = 0;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        error = null;
+        state = State.RUNNING;
+    }
+
+    private void finish(State finalState, String failure) {
+        finishedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        error = failure;
+        state = finalState;
+        log.info("Repricing {} after {} applications", finalState, processed.get());
+    }
+
+    /*
+     * Prices the applications of the chunk that have stored quote inputs into
+     * slots [0, n) of buffer, with their ids in pricedIds; returns n.
+     */
+    private int price(List<Application> chunk, QuoteColumns columns, long[] pricedIds, QuoteBuffer buffer) {
+        Map<Long, ApplicationQuoteInputs> inputs = quoteInputsRepository
+                .findAllById(chunk.stream().map(Application::getId).toList()).stream()
+                .collect(Collectors.toMap(ApplicationQuoteInputs::getApplicationId, Function.identity()));
+        columns.clear();
+        int priced = 0;
+        for (Application application : chunk) {
+            ApplicationQuoteInputs profile = inputs.get(application.getId());
+            if (profile == null || application.getAmount() == null) {
+                continue;
+            }
+            columns.set(priced, Math.round(application.getAmount()), profile.getTermMonths(), profile.getScore(),
+                    profile.getMonthlyIncome(), profile.getMonthlyExpenses());
+            pricedIds[priced++] = application.getId();
+        }
+        if (priced > 0) {
+            int rows = priced;
+            pricingPool.submit(() -> priceBlocks(columns, rows, buffer)).join();
+        }
+        return priced;
+    }
+
+    // Cada bloque escribe en sus propios slots del buffer
+    private void priceBlocks(QuoteColumns columns, int rows, QuoteBuffer buffer) {
+        int blocks = (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int from = block * BLOCK_ROWS;
+            for (int i = from; i < Math.min(rows, from + BLOCK_ROWS); i++) {
+                kernel.price(columns.amounts[i], columns.termMonths[i], columns.scores[i],
+                        columns.monthlyIncomes[i], columns.monthlyExpenses[i], buffer, i);
+            }
+        });
+    }
+
+    private void write(List<Application> chunk, long[] pricedIds, int priced, QuoteBuffer buffer,
+                       RepricingCheckpoint checkpoint) {
+        Timestamp pricedAt = Timestamp.valueOf(LocalDateTime.now());
+        String version = checkpoint.getConstantsVersion();
+        // También se borran las tasas de las que quedaron sin datos del solicitante
+        List<Object[]> ids = chunk.stream().map(a -> new Object[]{a.getId()}).toList();
+        List<Object[]> rows = IntStream.range(0, priced)
+                .mapToObj(i -> new Object[]{
+                        pricedIds[i],
+                        buffer.rateEAmin(i),
+                        buffer.rateEAmax(i),
+                        buffer.monthlyPaymentMin(i),
+                        buffer.monthlyPaymentMax(i),
+                        buffer.feesEstimated(i),
+                        buffer.aprEAEstimated(i),
+                        version,
+                        pricedAt})
+                .toList();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.batchUpdate(DELETE_RATE_SQL, ids);
+            jdbcTemplate.batchUpdate(INSERT_RATE_SQL, rows);
+            checkpoint.setLastApplicationId(chunk.get(chunk.size() - 1).getId());
+            checkpoint.setProcessed(checkpoint.getProcessed() + chunk.size());
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+        });
+    }
+}
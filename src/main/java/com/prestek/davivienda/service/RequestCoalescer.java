@@ -0,0 +1,218 @@
+package com.prestek.davivienda.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/*
+ * Single flight for identical concurrent reads: the first caller for a key
+ * (the leader) runs the loader and every caller arriving while it runs gets
+ * the same result instead of issuing its own query. With a linger window the
+ * completed result keeps being served for that long; writes call invalidate
+ * so callers after a write never see the pre-write value.
+ *
+ * At most max-keys keys are tracked; beyond that callers load on their own.
+ * A full map is swept for expired entries at most once per
+ * OVERFLOW_SWEEP_INTERVAL, so a flood of distinct keys (or a map full of
+ * in-flight entries that a sweep cannot free) bypasses straight away instead
+ * of rescanning the map on every request.
+ *
+ * Joiners wait for the leader at most join-timeout-millis and then load on
+ * their own, so one slow or hung leader query does not hold every request
+ * thread that joined it.
+ */
+@Component
+public class RequestCoalescer implements MeterBinder {
+
+    private static final long OVERFLOW_SWEEP_INTERVAL = 1_000_000_000L;
+    private static final long DEFAULT_JOIN_TIMEOUT_MILLIS = 2_000L;
+
+    private static final class Entry {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile long completedAtNanos;
+        volatile boolean completed;
+    }
+
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong();
+    private final AtomicLong lingered = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    private final long lingerNanos;
+    private final int maxKeys;
+    private final long joinTimeoutMillis;
+    private final LongSupplier nanoClock;
+    private final AtomicLong nextOverflowSweep;
+
+    public RequestCoalescer(long lingerMillis, int maxKeys) {
+        this(lingerMillis, maxKeys, DEFAULT_JOIN_TIMEOUT_MILLIS);
+    }
+
+    @Autowired
+    public RequestCoalescer(@Value("${read-coalescing.linger-millis:0}") long lingerMillis,
+                            @Value("${read-coalescing.max-keys:10000}") int maxKeys,
+                            @Value("${read-coalescing.join-timeout-millis:2000}") long joinTimeoutMillis) {
+        this(lingerMillis, maxKeys, joinTimeoutMillis, System::nanoTime);
+    }
+
+    RequestCoalescer(long lingerMillis, int maxKeys, long joinTimeoutMillis, LongSupplier nanoClock) {
+        this.lingerNanos = lingerMillis * 1_000_000L;
+        this.maxKeys = maxKeys;
+        this.joinTimeoutMillis = joinTimeoutMillis;
+        this.nanoClock = nanoClock;
+        this.nextOverflowSweep = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /*
+     * Returns the in-flight or lingering result for key, or runs loader as
+     * the leader. Failures reach every waiting caller and are never lingered.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(Object key, Supplier<V> loader) {
+        long now = nanoClock.getAsLong();
+        Entry mine = null;
+        Entry existing;
+        while (true) {
+            existing = entries.get(key);
+            if (existing != null && existing.completed && now - existing.completedAtNanos >= lingerNanos) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (existing != null) {
+                break;
+            }
+            if (entries.size() >= maxKeys && !sweepOverflow(now)) {
+                bypassed.incrementAndGet();
+                return loader.get();
+            }
+            if (mine == null) {
+                mine = new Entry();
+            }
+            existing = entries.putIfAbsent(key, mine);
+            if (existing == null) {
+                return lead(key, mine, loader);
+            }
+        }
+
+        (existing.completed ? lingered : joined).incrementAndGet();
+        try {
+            return (V) await(existing.result, joinTimeoutMillis);
+        } catch (TimeoutException e) {
+            // El líder sigue sin responder: esta petición consulta por su cuenta
+            timedOut.incrementAndGet();
+            return loader.get();
+        }
+    }
+
+    /*
+     * Drops the lingering or in-flight entry for key; the next caller reloads.
+     */
+    public void invalidate(Object key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "leader", leaders);
+        counter(registry, "joined", joined);
+        counter(registry, "lingered", lingered);
+        counter(registry, "bypassed", bypassed);
+        counter(registry, "timed_out", timedOut);
+    }
+
+    long leaders() {
+        return leaders.get();
+    }
+
+    long joined() {
+        return joined.get();
+    }
+
+    long lingered() {
+        return lingered.get();
+    }
+
+    long timedOut() {
+        return timedOut.get();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private <V> V lead(Object key, Entry mine, Supplier<V> loader) {
+        leaders.incrementAndGet();
+        try {
+            V value = loader.get();
+            mine.completedAtNanos = nanoClock.getAsLong();
+            mine.completed = true;
+            mine.result.complete(value);
+            if (lingerNanos <= 0) {
+                entries.remove(key, mine);
+            }
+            return value;
+        } catch (RuntimeException | Error e) {
+            entries.remove(key, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Barre como máximo una vez por intervalo; true si después queda espacio
+    private boolean sweepOverflow(long now) {
+        long next = nextOverflowSweep.get();
+        if (now - next >= 0 && nextOverflowSweep.compareAndSet(next, now + OVERFLOW_SWEEP_INTERVAL)) {
+            sweep(now);
+        }
+        return entries.size() < maxKeys;
+    }
+
+    private void sweep(long now) {
+        entries.values().removeIf(e -> e.completed && now - e.completedAtNanos >= lingerNanos);
+    }
+
+    private static void counter(MeterRegistry registry, String outcome, AtomicLong count) {
+        FunctionCounter.builder("application.reads.coalescing", count, AtomicLong::get)
+                .tag("outcome", outcome)
+                .description("Application reads by coalescing outcome; joined and lingered skipped the database")
+                .register(registry);
+    }
+
+    private static Object await(CompletableFuture<Object> result, long timeoutMillis) throws TimeoutException {
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for coalesced read", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.prestek.davivienda.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestek.FinancialEntityCore.dto.QuoteDto;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+
+/*
+ * Amortization tables for a QuoteRequest under the current QuoteService
+ * pricing: one schedule at each end of the quoted band. Rates and payments
+ * are taken from QuoteService.quote (rateEAmin/rateEAmax and
+ * monthlyPaymentMin/Max), so the table always agrees with POST /api/quotes.
+ *
+ * plan() only prices the request; the rows are produced by write() while
+ * they are serialized, so memory does not grow with the term or the number
+ * of scenarios.
+ */
+@Service
+public class ScheduleService {
+
+    public enum Scenario { MIN, MAX }
+
+    public record Plan(long amount, int termMonths, long feesEstimated, double[] rates, long[] payments) {
+    }
+
+    private final QuoteService quoteService;
+    private final ObjectMapper objectMapper;
+
+    public ScheduleService(QuoteService quoteService, ObjectMapper objectMapper) {
+        this.quoteService = quoteService;
+        this.objectMapper = objectMapper;
+    }
+
+    /*
+     * Quotes the request and keeps the rate and payment of each scenario.
+     *
+     * @throws IneligibleQuoteException if the request fails the same
+     *         eligibility checks as POST /api/quotes
+     */
+    public Plan plan(QuoteRequest request) {
+        QuoteDto quote = quoteService.quote(request);
+        double[] rates = new double[Scenario.values().length];
+        long[] payments = new long[Scenario.values().length];
+        rates[Scenario.MIN.ordinal()] = quote.rateEAmin();
+        rates[Scenario.MAX.ordinal()] = quote.rateEAmax();
+        payments[Scenario.MIN.ordinal()] = quote.monthlyPaymentMin();
+        payments[Scenario.MAX.ordinal()] = quote.monthlyPaymentMax();
+        return new Plan(request.amount(), request.termMonths(), quote.feesEstimated(), rates, payments);
+    }
+
+    /*
+     * Streams the plan as JSON to out, generating each row as it is written.
+     * out is flushed but not closed.
+     */
+    public void write(Plan plan, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeStringField("institution", quoteService.code());
+            json.writeNumberField("amount", plan.amount());
+            json.writeNumberField("termMonths", plan.termMonths());
+            json.writeNumberField("feesEstimated", plan.feesEstimated());
+            json.writeArrayFieldStart("scenarios");
+            for (Scenario scenario : Scenario.values()) {
+                writeSchedule(json, scenario, new AmortizationSchedule(plan.amount(), plan.termMonths(),
+                        plan.rates()[scenario.ordinal()], plan.payments()[scenario.ordinal()]));
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeSchedule(JsonGenerator json, Scenario scenario, AmortizationSchedule schedule)
+            throws IOException {
+        json.writeStartObject();
+        json.writeStringField("scenario", scenario.name());
+        json.writeNumberField("rateEA", schedule.rateEA());
+        json.writeNumberField("monthlyRate", schedule.monthlyRate());
+        json.writeNumberField("monthlyPayment", schedule.payment());
+        json.writeArrayFieldStart("rows");
+        while (schedule.next()) {
+            json.writeStartObject();
+            json.writeNumberField("month", schedule.month());
+            json.writeNumberField("payment", schedule.rowPayment());
+            json.writeNumberField("interest", schedule.interest());
+            json.writeNumberField("principal", schedule.principal());
+            json.writeNumberField("balance", schedule.balance());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        // Los totales van al final: se conocen solo después de generar las filas
+        json.writeNumberField("totalInterest", schedule.totalInterest());
+        json.writeNumberField("totalPaid", schedule.amount() + schedule.totalInterest());
+        json.writeEndObject();
+    }
+}
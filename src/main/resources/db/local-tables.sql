@@ -0,0 +1,69 @@
+-- Tablas propias del servicio (entidades en com.prestek.davivienda.model).
+-- Idempotente: se ejecuta en cada arranque del perfil prod, antes de que
+-- Hibernate valide el esquema.
+
+CREATE TABLE IF NOT EXISTS indicative_rates (
+    application_id      BIGINT           PRIMARY KEY,
+    rate_ea_min         DOUBLE PRECISION NOT NULL,
+    rate_ea_max         DOUBLE PRECISION NOT NULL,
+    monthly_payment_min BIGINT           NOT NULL,
+    monthly_payment_max BIGINT           NOT NULL,
+    fees_estimated      BIGINT           NOT NULL,
+    apr_ea_estimated    DOUBLE PRECISION NOT NULL,
+    constants_version   VARCHAR(32)      NOT NULL,
+    priced_at           TIMESTAMP(6)     NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS application_quote_inputs (
+    application_id   BIGINT        PRIMARY KEY,
+    term_months      INTEGER       NOT NULL,
+    score            INTEGER       NOT NULL,
+    monthly_income   BIGINT        NOT NULL,
+    monthly_expenses BIGINT        NOT NULL,
+    updated_at       TIMESTAMP(6)  NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS repricing_checkpoints (
+    constants_version   VARCHAR(32)  PRIMARY KEY,
+    last_application_id BIGINT       NOT NULL,
+    processed           BIGINT       NOT NULL,
+    completed           BOOLEAN      NOT NULL,
+    started_at          TIMESTAMP(6),
+    updated_at          TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idem_key      VARCHAR(300)  PRIMARY KEY,
+    fingerprint   VARCHAR(64)   NOT NULL,
+    response_body VARCHAR(8192),
+    created_at    TIMESTAMP(6)  NOT NULL,
+    expires_at    TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
+
+CREATE TABLE IF NOT EXISTS application_leases (
+    application_id BIGINT        PRIMARY KEY,
+    worker_id      VARCHAR(200)  NOT NULL,
+    claimed_at     TIMESTAMP(6)  NOT NULL,
+    expires_at     TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_application_leases_expires_at ON application_leases (expires_at);
+
+CREATE TABLE IF NOT EXISTS import_checkpoints (
+    file_name   VARCHAR(255)  PRIMARY KEY,
+    file_size   BIGINT        NOT NULL,
+    next_offset BIGINT        NOT NULL,
+    imported    BIGINT        NOT NULL,
+    rejected    BIGINT        NOT NULL,
+    completed   BOOLEAN       NOT NULL,
+    started_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS job_locks (
+    name         VARCHAR(100)  PRIMARY KEY,
+    owner        VARCHAR(200)  NOT NULL,
+    locked_until TIMESTAMP(6)  NOT NULL
+);
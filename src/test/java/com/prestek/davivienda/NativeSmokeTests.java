@@ -0,0 +1,82 @@
+package com.prestek.davivienda;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * End-to-end smoke tests over HTTP with H2. They run on the JVM with the
+ * regular build and inside the native image with ./mvnw -PnativeTest test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "ALLOWED_ORIGINS_HTTP=http://localhost",
+        "ALLOWED_ORIGINS_HTTPS=https://localhost"
+})
+@ActiveProfiles("test")
+@DisplayName("Smoke Tests (JVM and native image)")
+class NativeSmokeTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Should report readiness UP")
+    void shouldReportReadiness() {
+        ResponseEntity<Map> response = restTemplate.getForEntity("/actuator/health/readiness", Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsEntry("status", "UP");
+    }
+
+    @Test
+    @DisplayName("Should create an application and read it back")
+    void shouldCreateAndReadApplication() {
+        // Given
+        Map<String, Object> request = Map.of("userId", "smoke-user", "amount", 2500000.0);
+
+        // When
+        ResponseEntity<Map> created = restTemplate.postForEntity("/api/applications", request, Map.class);
+        Number id = (Number) created.getBody().get("id");
+        ResponseEntity<Map> byId = restTemplate.getForEntity("/api/applications/" + id, Map.class);
+        ResponseEntity<List> byUser = restTemplate.getForEntity("/api/applications/user/smoke-user", List.class);
+
+        // Then
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(byId.getBody()).containsEntry("userId", "smoke-user").containsEntry("status", "PENDING");
+        assertThat(byUser.getBody()).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("Should price a quote")
+    void shouldPriceQuote() {
+        // Given
+        Map<String, Object> request = Map.of("amount", 10000000L, "termMonths", 36, "score", 750,
+                "monthlyIncome", 5000000L, "monthlyExpenses", 1000000L);
+
+        // When
+        ResponseEntity<Map> response = restTemplate.postForEntity("/api/quotes", request, Map.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsEntry("institution", "DAVIVIENDA");
+    }
+
+    @Test
+    @DisplayName("Should serve the OpenAPI document")
+    void shouldServeApiDocs() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api-docs", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).contains("/api/applications");
+    }
+}
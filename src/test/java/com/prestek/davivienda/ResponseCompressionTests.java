@@ -0,0 +1,72 @@
+package com.prestek.davivienda;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * server.compression over HTTP with H2: the application list is served gzip
+ * once it is above server.compression.min-response-size.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "ALLOWED_ORIGINS_HTTP=http://localhost",
+        "ALLOWED_ORIGINS_HTTPS=https://localhost"
+})
+@ActiveProfiles("test")
+@DisplayName("Response Compression Tests")
+class ResponseCompressionTests {
+
+    private static final int APPLICATIONS = 40;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < APPLICATIONS; i++) {
+            restTemplate.postForEntity("/api/applications",
+                    Map.of("userId", "compression-user-" + i, "amount", 2500000.0 + i), Map.class);
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/applications - Should gzip the list when the client accepts it")
+    void shouldCompressApplicationList() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        // When
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/applications", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    @DisplayName("GET /api/applications - Should send plain JSON when the client does not accept gzip")
+    void shouldNotCompressWithoutAcceptEncoding() {
+        // When
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/applications", HttpMethod.GET,
+                HttpEntity.EMPTY, byte[].class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+}
@@ -0,0 +1,177 @@
+package com.prestek.davivienda.archive;
+
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.model.Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ApplicationArchive Unit Tests")
+class ApplicationArchiveTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 15, 10, 30, 0, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should find archived applications across blocks and segments")
+    void find_RoundTripsAcrossBlocks() throws IOException {
+        // Given
+        writeSegment("applications-a.dvar", 1, 250);
+        writeSegment("applications-b.dvar", 1000, 1010);
+        ApplicationArchive archive = new ApplicationArchive(directory, Duration.ZERO);
+
+        // When
+        archive.load();
+
+        // Then
+        assertThat(archive.blocks()).isEqualTo(5);
+        for (long id : new long[]{1, 64, 65, 199, 250, 1000, 1010}) {
+            Optional<ApplicationDto> found = archive.find(id);
+            assertThat(found).isPresent();
+            assertThat(found.get().getId()).isEqualTo(id);
+            assertThat(found.get().getUserId()).isEqualTo("user_" + id % 7);
+            assertThat(found.get().getAmount()).isEqualTo(id * 1000.0);
+            assertThat(found.get().getStatus()).isEqualTo(id % 2 == 0
+                    ? Application.ApplicationStatus.APPROVED : Application.ApplicationStatus.REJECTED);
+            assertThat(found.get().getApplicationDate()).isEqualTo(BASE.plusDays(id));
+            assertThat(found.get().getApprovalDate()).isEqualTo(id % 2 == 0 ? BASE.plusDays(id + 1) : null);
+            assertThat(found.get().getRejectionReason()).isEqualTo(id % 2 == 0 ? null : "EXPIRED");
+            assertThat(found.get().getNotes()).isEqualTo(id % 3 == 0 ? "nota " + id : null);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return empty for ids that were never archived")
+    void find_MissingIds() throws IOException {
+        // Given
+        writeSegment("applications-a.dvar", 10, 20);
+        writeSegment("applications-b.dvar", 40, 50);
+        ApplicationArchive archive = new ApplicationArchive(directory, Duration.ZERO);
+        archive.load();
+
+        // Then
+        assertThat(archive.find(5)).isEmpty();
+        assertThat(archive.find(30)).isEmpty();
+        assertThat(archive.find(51)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find ids in interleaved and overlapping segments")
+    void find_InterleavedSegments() throws IOException {
+        // Given: pares e impares en segmentos distintos con rangos que se solapan,
+        // y un tercero que empieza en el mismo id que el de impares
+        writeSegment("applications-odd.dvar", LongStream.rangeClosed(1, 400).filter(id -> id % 2 == 1));
+        writeSegment("applications-even.dvar", LongStream.rangeClosed(1, 400).filter(id -> id % 2 == 0));
+        writeSegment("applications-late.dvar", LongStream.concat(LongStream.of(1), LongStream.rangeClosed(401, 420)));
+        ApplicationArchive archive = new ApplicationArchive(directory, Duration.ZERO);
+
+        // When
+        archive.load();
+
+        // Then
+        for (long id = 1; id <= 420; id++) {
+            assertThat(archive.find(id)).as("id %d", id).map(ApplicationDto::getId).contains(id);
+        }
+        assertThat(archive.find(421)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not duplicate blocks when a segment is registered twice")
+    void register_SameSegmentTwice() throws IOException {
+        // Given
+        writeSegment("applications-a.dvar", 1, 250);
+        ApplicationArchive archive = new ApplicationArchive(directory, Duration.ZERO);
+        archive.load();
+
+        // When
+        archive.register(directory.resolve("applications-a.dvar"));
+
+        // Then
+        assertThat(archive.blocks()).isEqualTo(4);
+        assertThat(archive.find(250)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should find segments written by another instance after loading")
+    void find_IndexesSegmentsWrittenAfterLoad() throws IOException {
+        // Given
+        writeSegment("applications-a.dvar", 1, 100);
+        ApplicationArchive archive = new ApplicationArchive(directory, Duration.ZERO);
+        archive.load();
+
+        // When: otra instancia escribe un segmento en el directorio compartido
+        writeSegment("applications-b.dvar", 500, 600);
+
+        // Then
+        assertThat(archive.find(550)).map(ApplicationDto::getId).contains(550L);
+        assertThat(archive.blocks()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should rescan the directory at most once per interval")
+    void find_RescansAtMostOncePerInterval() throws IOException {
+        // Given
+        ApplicationArchive archive = new ApplicationArchive(directory, Duration.ofHours(1));
+        archive.load();
+        assertThat(archive.find(550)).isEmpty(); // consume el rescan de este intervalo
+
+        // When
+        writeSegment("applications-b.dvar", 500, 600);
+
+        // Then
+        assertThat(archive.find(550)).isEmpty();
+        assertThat(archive.blocks()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject rows that are not in ascending id order")
+    void append_RequiresAscendingIds() throws IOException {
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(directory.resolve("bad.dvar"), 64)) {
+            writer.append(application(2));
+
+            assertThatThrownBy(() -> writer.append(application(1)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private void writeSegment(String name, long firstId, long lastId) throws IOException {
+        writeSegment(name, LongStream.rangeClosed(firstId, lastId));
+    }
+
+    private void writeSegment(String name, LongStream ids) throws IOException {
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(directory.resolve(name), 64)) {
+            for (long id : ids.toArray()) {
+                writer.append(application(id));
+            }
+            writer.finish();
+        }
+    }
+
+    private static Application application(long id) {
+        boolean approved = id % 2 == 0;
+        return Application.builder()
+                .id(id)
+                .userId("user_" + id % 7)
+                .amount(id * 1000.0)
+                .status(approved ? Application.ApplicationStatus.APPROVED : Application.ApplicationStatus.REJECTED)
+                .applicationDate(BASE.plusDays(id))
+                .approvalDate(approved ? BASE.plusDays(id + 1) : null)
+                .rejectionReason(approved ? null : "EXPIRED")
+                .notes(id % 3 == 0 ? "nota " + id : null)
+                .createdAt(BASE.plusDays(id).truncatedTo(ChronoUnit.MICROS))
+                .build();
+    }
+}
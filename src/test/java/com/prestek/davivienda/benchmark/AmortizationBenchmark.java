@@ -0,0 +1,98 @@
+package com.prestek.davivienda.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+import com.prestek.davivienda.service.AmortizationSchedule;
+import com.prestek.davivienda.service.QuoteService;
+import com.prestek.davivienda.service.ScheduleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost per row of a 360-month amortization table: AmortizationSchedule
+ * (balance carried from row to row, one pow per schedule) vs the closed form
+ * evaluated per row (two pow per row), plus the full POST /api/quotes/schedule
+ * body (2 scenarios) written with JsonGenerator to a discarding stream.
+ * Run from the IDE or with
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.prestek.davivienda.benchmark.AmortizationBenchmark
+ * gc.alloc.rate.norm stays flat with the term: rows are never materialized.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AmortizationBenchmark {
+
+    private static final int TERM = 360;
+    private static final long AMOUNT = 250_000_000L;
+    private static final double RATE_EA = 0.205;
+
+    private ScheduleService scheduleService;
+    private ScheduleService.Plan plan;
+    private final OutputStream discard = OutputStream.nullOutputStream();
+
+    @Setup
+    public void setUp() {
+        QuoteService quoteService = new QuoteService();
+        scheduleService = new ScheduleService(quoteService, new ObjectMapper());
+        plan = scheduleService.plan(new QuoteRequest(AMOUNT, TERM, 720, 12_000_000L, 3_000_000L));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TERM)
+    public long incremental() {
+        AmortizationSchedule schedule = new AmortizationSchedule(AMOUNT, TERM, RATE_EA);
+        long checksum = 0;
+        while (schedule.next()) {
+            checksum += schedule.interest() ^ schedule.balance();
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TERM)
+    public long perRowPow() {
+        double i = AmortizationSchedule.monthlyRate(RATE_EA);
+        long payment = AmortizationSchedule.monthlyPayment(AMOUNT, TERM, RATE_EA);
+        long checksum = 0;
+        for (int k = 1; k <= TERM; k++) {
+            double before = AMOUNT * Math.pow(1 + i, k - 1) - payment * (Math.pow(1 + i, k - 1) - 1) / i;
+            long interest = Math.round(before * i);
+            long balance = Math.round(before - (payment - interest));
+            checksum += interest ^ balance;
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(3 * TERM)
+    public void writeJson() throws IOException {
+        scheduleService.write(plan, discard);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AmortizationBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
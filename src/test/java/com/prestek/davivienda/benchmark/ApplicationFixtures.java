@@ -0,0 +1,49 @@
+package com.prestek.davivienda.benchmark;
+
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.model.Application;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/*
+ * ApplicationDto payloads shared by the serialization benchmarks, so JSON,
+ * compression and wire-format numbers are measured on the same rows: every
+ * status, review and approval dates on part of them, optional notes and
+ * rejection reasons, and timestamps with millisecond fractions.
+ */
+final class ApplicationFixtures {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+    private ApplicationFixtures() {
+    }
+
+    // userId recibe el índice: constante para "las solicitudes de un usuario", variable para listados
+    static List<ApplicationDto> applications(int count, IntFunction<String> userId) {
+        List<ApplicationDto> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime created = BASE.plusMinutes(i * 7L).plusNanos(i * 1_000_000L);
+            list.add(ApplicationDto.builder()
+                    .id(100_000L + i)
+                    .userId(userId.apply(i))
+                    .amount(1_000_000.0 + (i * 37_000L) % 49_000_000)
+                    .status(Application.ApplicationStatus.values()[i % 4])
+                    .applicationDate(created)
+                    .reviewDate(i % 2 == 0 ? created.plusDays(1) : null)
+                    .approvalDate(i % 4 == 2 ? created.plusDays(2) : null)
+                    .notes(i % 3 == 0 ? "Documentos completos" : null)
+                    .rejectionReason(i % 4 == 3 ? "Capacidad de pago insuficiente" : null)
+                    .createdAt(created)
+                    .updatedAt(created.plusHours(3))
+                    .build());
+        }
+        return list;
+    }
+
+    static List<ApplicationDto> applications(int count) {
+        return applications(count, i -> "user_" + Integer.toHexString(i * 31 + 7));
+    }
+}
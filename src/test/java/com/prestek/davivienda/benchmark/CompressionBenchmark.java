@@ -0,0 +1,91 @@
+package com.prestek.davivienda.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.prestek.davivienda.config.JacksonConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Bytes on wire and CPU cost of server.compression (gzip, as Tomcat applies
+ * it) for the list endpoints at realistic sizes: a user's applications (20),
+ * a status page (1k) and GET /api/applications (10k). Setup prints raw vs
+ * gzipped size and the transfer time saved on a 100 Mbit/s link, to weigh
+ * against the compress/decompress times measured here. End-to-end numbers
+ * against a running instance: scripts/compression-check.sh.
+ * Run from the IDE or with
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.prestek.davivienda.benchmark.CompressionBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final double LINK_BYTES_PER_MICRO = 100_000_000 / 8 / 1_000_000.0;
+
+    @Param({"20", "1000", "10000"})
+    public int applications;
+
+    private byte[] json;
+    private byte[] gzipped;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(JacksonConfig.blackbirdModule(), JacksonConfig.isoDateTimeModule())
+                .build();
+        json = mapper.writeValueAsBytes(ApplicationFixtures.applications(applications));
+        gzipped = compress();
+
+        double savedMicros = (json.length - gzipped.length) / LINK_BYTES_PER_MICRO;
+        System.out.printf("%n[%d applications] json=%d B, gzip=%d B (%.1fx), transfer saved @100Mbit/s=%.0f us%n",
+                applications, json.length, gzipped.length, (double) json.length / gzipped.length, savedMicros);
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] decompress() throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CompressionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,133 @@
+package com.prestek.davivienda.benchmark;
+
+import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.davivienda.DaviviendaApplication;
+import com.prestek.davivienda.repository.ApplicationRepository;
+import com.prestek.davivienda.service.ApplicationCsvExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Rows per second of GET /api/applications/export.csv (ApplicationCsvExporter
+ * over the streaming cursor) on a 2M-row H2 table, plain and gzipped. The gc
+ * profiler's alloc.rate.norm is per row and should stay flat as ROWS grows:
+ * nothing is accumulated besides the fetch-size buffer. Loading the table
+ * takes a while on the first trial.
+ * Run from the IDE or with
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.prestek.davivienda.benchmark.CsvExportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class CsvExportBenchmark {
+
+    private static final int ROWS = 2_000_000;
+    private static final int LOAD_BATCH = 10_000;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ConfigurableApplicationContext context;
+    private ApplicationCsvExporter exporter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:export;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.jdbc.batch_size", "500");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("ALLOWED_ORIGINS_HTTP", "http://localhost");
+        properties.put("ALLOWED_ORIGINS_HTTPS", "https://localhost");
+
+        context = new SpringApplicationBuilder(DaviviendaApplication.class)
+                .profiles("test")
+                .properties(properties)
+                .run();
+        exporter = context.getBean(ApplicationCsvExporter.class);
+        ApplicationRepository repository = context.getBean(ApplicationRepository.class);
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        for (int loaded = 0; loaded < ROWS; loaded += LOAD_BATCH) {
+            int first = loaded;
+            transactionTemplate.executeWithoutResult(tx -> repository.saveAll(newApplications(first)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long export() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        if (!gzip) {
+            return exporter.export(null, null, out);
+        }
+        GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+        long rows = exporter.export(null, null, compressed);
+        compressed.finish();
+        return rows;
+    }
+
+    private static List<Application> newApplications(int first) {
+        Application.ApplicationStatus[] statuses = Application.ApplicationStatus.values();
+        LocalDateTime now = LocalDateTime.now();
+        List<Application> applications = new ArrayList<>(LOAD_BATCH);
+        for (int i = first; i < first + LOAD_BATCH; i++) {
+            applications.add(Application.builder()
+                    .userId("export-" + (i % 5000))
+                    .amount(1_000_000.0 + i)
+                    .status(statuses[i % statuses.length])
+                    .applicationDate(now.minusMinutes(i))
+                    .notes(i % 10 == 0 ? "Revisar, \"documentos\" pendientes" : null)
+                    .createdAt(now.minusMinutes(i))
+                    .build());
+        }
+        return applications;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CsvExportBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.prestek.davivienda.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.davivienda.config.CachedWriterJsonHttpMessageConverter;
+import com.prestek.davivienda.config.JacksonConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Serializing the getAllApplications response (10k ApplicationDto) through the
+ * stock MVC JSON converter vs the tuned one from JacksonConfig (Blackbird,
+ * ISO date serializer, cached writer). Run from the IDE or with
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.prestek.davivienda.benchmark.JsonSerializationBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final int APPLICATIONS = 10_000;
+    private static final Type LIST_TYPE = new ParameterizedTypeReference<List<ApplicationDto>>() { }.getType();
+
+    private List<ApplicationDto> applications;
+    private MappingJackson2HttpMessageConverter stock;
+    private MappingJackson2HttpMessageConverter tuned;
+
+    @Setup
+    public void setUp() {
+        applications = ApplicationFixtures.applications(APPLICATIONS, i -> "user_" + (i % 500));
+
+        // Lo que usa hoy @EnableWebMvc por defecto, con fechas ISO para comparar el mismo payload
+        stock = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+
+        ObjectMapper tunedMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(JacksonConfig.blackbirdModule(), JacksonConfig.isoDateTimeModule())
+                .build();
+        tuned = new CachedWriterJsonHttpMessageConverter(tunedMapper);
+    }
+
+    @Benchmark
+    public int stockConverter() throws IOException {
+        return write(stock);
+    }
+
+    @Benchmark
+    public int tunedConverter() throws IOException {
+        return write(tuned);
+    }
+
+    private int write(MappingJackson2HttpMessageConverter converter) throws IOException {
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        converter.write(applications, LIST_TYPE, MediaType.APPLICATION_JSON, out);
+        return out.getBodyAsBytes().length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JsonSerializationBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,144 @@
+package com.prestek.davivienda.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.dto.QuoteDto;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+import com.prestek.davivienda.config.JacksonConfig;
+import com.prestek.davivienda.mapper.ProtoMapper;
+import com.prestek.davivienda.proto.ApplicationListMessage;
+import com.prestek.davivienda.proto.ApplicationMessage;
+import com.prestek.davivienda.proto.QuoteMessage;
+import com.prestek.davivienda.proto.QuoteRequestMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Encode/decode cost per format for the aggregator's two hot payloads: one
+ * QuoteRequest -> QuoteDto round trip and the 50-application list of
+ * GET /api/applications/user/{userId}. Payload sizes are printed at setup.
+ * Run from the IDE or with
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.prestek.davivienda.benchmark.MessageFormatBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageFormatBenchmark {
+
+    private static final int APPLICATIONS_PER_USER = 50;
+
+    @Param({"json", "cbor", "protobuf"})
+    public String format;
+
+    private QuoteRequest request;
+    private QuoteDto quote;
+    private List<ApplicationDto> applications;
+
+    private ObjectWriter writer;
+    private ObjectReader requestReader;
+    private ObjectReader quoteReader;
+    private ObjectReader applicationsReader;
+
+    private byte[] encodedRequest;
+    private byte[] encodedQuote;
+    private byte[] encodedApplications;
+
+    @Setup
+    public void setUp() throws IOException {
+        request = new QuoteRequest(10_000_000L, 36, 720, 5_000_000L, 1_200_000L);
+        quote = new QuoteDto("DAVIVIENDA", 0.1925, 0.2225, 372_118L, 384_905L, 38_500L, 0.2238, "2025-12-31");
+        applications = ApplicationFixtures.applications(APPLICATIONS_PER_USER, i -> "user_2kF9xQ");
+
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(JacksonConfig.blackbirdModule(), JacksonConfig.isoDateTimeModule());
+        ObjectMapper mapper = "cbor".equals(format) ? builder.factory(new CBORFactory()).build() : builder.build();
+        writer = mapper.writer();
+        requestReader = mapper.readerFor(QuoteRequest.class);
+        quoteReader = mapper.readerFor(QuoteDto.class);
+        applicationsReader = mapper.readerFor(mapper.getTypeFactory()
+                .constructCollectionType(List.class, ApplicationDto.class));
+
+        encodedRequest = encodeRequest();
+        encodedQuote = encodeQuote();
+        encodedApplications = encodeApplications();
+        System.out.printf("%n[%s] QuoteRequest=%d B, QuoteDto=%d B, %d applications=%d B%n", format,
+                encodedRequest.length, encodedQuote.length, APPLICATIONS_PER_USER, encodedApplications.length);
+    }
+
+    @Benchmark
+    public byte[] encodeRequest() throws IOException {
+        return "protobuf".equals(format) ? ProtoMapper.toMessage(request).toByteArray() : writer.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public Object decodeRequest() throws IOException {
+        return "protobuf".equals(format)
+                ? ProtoMapper.toQuoteRequest(QuoteRequestMessage.parseFrom(encodedRequest))
+                : requestReader.readValue(encodedRequest);
+    }
+
+    @Benchmark
+    public byte[] encodeQuote() throws IOException {
+        return "protobuf".equals(format) ? ProtoMapper.toMessage(quote).toByteArray() : writer.writeValueAsBytes(quote);
+    }
+
+    @Benchmark
+    public Object decodeQuote() throws IOException {
+        return "protobuf".equals(format)
+                ? ProtoMapper.toQuoteDto(QuoteMessage.parseFrom(encodedQuote))
+                : quoteReader.readValue(encodedQuote);
+    }
+
+    @Benchmark
+    public byte[] encodeApplications() throws IOException {
+        return "protobuf".equals(format)
+                ? ProtoMapper.toListMessage(applications).toByteArray()
+                : writer.writeValueAsBytes(applications);
+    }
+
+    @Benchmark
+    public Object decodeApplications() throws IOException {
+        if (!"protobuf".equals(format)) {
+            return applicationsReader.readValue(encodedApplications);
+        }
+        List<ApplicationDto> decoded = new ArrayList<>(APPLICATIONS_PER_USER);
+        for (ApplicationMessage message : ApplicationListMessage.parseFrom(encodedApplications).getApplicationsList()) {
+            decoded.add(ProtoMapper.toApplicationDto(message));
+        }
+        return decoded;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageFormatBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
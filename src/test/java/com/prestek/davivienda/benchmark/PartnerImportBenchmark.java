@@ -0,0 +1,151 @@
+package com.prestek.davivienda.benchmark;
+
+import com.prestek.davivienda.DaviviendaApplication;
+import com.prestek.davivienda.ingest.ImportFormat;
+import com.prestek.davivienda.ingest.PartnerImportJob;
+import com.prestek.davivienda.repository.ApplicationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * End-to-end throughput of the partner import: PartnerImportJob maps, parses
+ * and batch-inserts a generated CSV into the application table (H2 in
+ * PostgreSQL mode, prod JPA/Hikari settings; swap the URL for a local
+ * PostgreSQL container to get the reWriteBatchedInserts effect too), with 1
+ * parser thread vs all cores. Each invocation is one full import of the
+ * file; the table is emptied before each one and rows/s of the run is printed
+ * after it. Needs sizeMb of free space in java.io.tmpdir.
+ * Run from the IDE or with
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.prestek.davivienda.benchmark.PartnerImportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PartnerImportBenchmark {
+
+    private static final String FILE_NAME = "partner.csv";
+    private static final String LINE_FORMAT = "user_%08d,%012d.%02d\n";
+    private static final int LINE_BYTES = String.format(LINE_FORMAT, 0, 0, 0).length();
+
+    @Param({"64"})
+    private int sizeMb;
+
+    @Param({"1", "0"})
+    private int parallelism;
+
+    @Param({"jdbc:h2:mem:importtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+    private String url;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private PartnerImportJob job;
+    private ApplicationRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("partner-import");
+        Path file = directory.resolve(FILE_NAME);
+        long lines = (sizeMb * (1L << 20)) / LINE_BYTES;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 20)) {
+            for (long i = 0; i < lines; i++) {
+                out.write(String.format(LINE_FORMAT, i % 100_000_000, 1_000_000 + i % 900_000_000, i % 100)
+                        .getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("ALLOWED_ORIGINS_HTTP", "http://localhost");
+        properties.put("ALLOWED_ORIGINS_HTTPS", "https://localhost");
+        properties.put("spring.datasource.hikari.auto-commit", "false");
+        properties.put("spring.jpa.properties.hibernate.connection.provider_disables_autocommit", "true");
+        properties.put("import.directory", directory.toString());
+        properties.put("import.parallelism", String.valueOf(parallelism));
+
+        context = new SpringApplicationBuilder(DaviviendaApplication.class)
+                .profiles("test")
+                .properties(properties)
+                .run();
+        job = context.getBean(PartnerImportJob.class);
+        repository = context.getBean(ApplicationRepository.class);
+        System.out.printf("%n%s: %d MB, %d records, parallelism %d%n", file, Files.size(file) >> 20, lines,
+                parallelism);
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTable() {
+        repository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Invocation)
+    public void report() {
+        PartnerImportJob.Status status = job.status();
+        System.out.printf("%n%s: %d imported, %.0f rows/s%n", status.state(), status.imported(),
+                status.rowsPerSecond());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(directory.resolve(FILE_NAME));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long importFile() throws InterruptedException {
+        // restart: cada invocación importa el archivo completo, sin checkpoint previo;
+        // start() devuelve false mientras la corrida anterior termina de cerrarse
+        while (!job.start(FILE_NAME, ImportFormat.CSV, true)) {
+            Thread.sleep(1);
+        }
+        PartnerImportJob.Status status;
+        while ((status = job.status()).state() == PartnerImportJob.State.RUNNING) {
+            Thread.sleep(10);
+        }
+        if (status.state() != PartnerImportJob.State.COMPLETED) {
+            throw new IllegalStateException("Import " + status.state() + ": " + status.error());
+        }
+        return status.imported();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PartnerImportBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,132 @@
+package com.prestek.davivienda.benchmark;
+
+import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.davivienda.DaviviendaApplication;
+import com.prestek.davivienda.repository.ApplicationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Write throughput of the application table with Spring/Hibernate defaults vs
+ * the JPA/Hikari settings of the prod profile, on H2 in PostgreSQL mode (swap
+ * the URL for a local PostgreSQL container to get the reWriteBatchedInserts
+ * and server-side prepared statement effects too).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PersistenceLoadBenchmark {
+
+    private static final int ROWS_PER_TX = 200;
+
+    @Param({"defaults", "prod"})
+    private String settings;
+
+    @Param({"jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+    private String url;
+
+    private ConfigurableApplicationContext context;
+    private ApplicationRepository repository;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        properties.put("ALLOWED_ORIGINS_HTTP", "http://localhost");
+        properties.put("ALLOWED_ORIGINS_HTTPS", "https://localhost");
+        if ("prod".equals(settings)) {
+            properties.put("spring.jpa.properties.hibernate.jdbc.batch_size", "50");
+            properties.put("spring.jpa.properties.hibernate.order_inserts", "true");
+            properties.put("spring.jpa.properties.hibernate.order_updates", "true");
+            properties.put("spring.jpa.properties.hibernate.query.plan_cache_max_size", "2048");
+            properties.put("spring.jpa.properties.hibernate.query.in_clause_parameter_padding", "true");
+            properties.put("spring.datasource.hikari.auto-commit", "false");
+            properties.put("spring.jpa.properties.hibernate.connection.provider_disables_autocommit", "true");
+        }
+
+        context = new SpringApplicationBuilder(DaviviendaApplication.class)
+                .profiles("test")
+                .properties(properties)
+                .run();
+        repository = context.getBean(ApplicationRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        ids = transactionTemplate.execute(tx -> repository.saveAll(newApplications()).stream()
+                .map(Application::getId)
+                .toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TX)
+    public void insertApplications() {
+        transactionTemplate.executeWithoutResult(tx -> repository.saveAll(newApplications()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TX)
+    public void updateStatuses() {
+        transactionTemplate.executeWithoutResult(tx -> repository.findAllById(ids).forEach(application ->
+                application.setStatus(application.getStatus() == Application.ApplicationStatus.PENDING
+                        ? Application.ApplicationStatus.UNDER_REVIEW
+                        : Application.ApplicationStatus.PENDING)));
+    }
+
+    private static List<Application> newApplications() {
+        List<Application> applications = new ArrayList<>(ROWS_PER_TX);
+        for (int i = 0; i < ROWS_PER_TX; i++) {
+            applications.add(Application.builder()
+                    .userId("load-" + (i % 50))
+                    .amount(1_000_000.0 + i)
+                    .status(Application.ApplicationStatus.PENDING)
+                    .applicationDate(LocalDateTime.now())
+                    .build());
+        }
+        return applications;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PersistenceLoadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
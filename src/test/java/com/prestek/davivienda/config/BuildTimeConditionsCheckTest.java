@@ -0,0 +1,68 @@
+package com.prestek.davivienda.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BuildTimeConditionsCheck Unit Tests")
+class BuildTimeConditionsCheckTest {
+
+    private MockEnvironment environment;
+    private DefaultListableBeanFactory beanFactory;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment();
+        beanFactory = new DefaultListableBeanFactory();
+        // Lo que produce un build AOT con los valores por defecto
+        beanFactory.registerBeanDefinition("schedulingConfig", new RootBeanDefinition(SchedulingConfig.class));
+    }
+
+    @Test
+    @DisplayName("Should accept runtime settings equal to the build")
+    void shouldAcceptMatchingSettings() {
+        assertThat(BuildTimeConditionsCheck.mismatches(environment, beanFactory)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report replicas enabled at runtime on an image built without them")
+    void shouldReportReplicasEnabledOnlyAtRuntime() {
+        // Given
+        environment.setProperty("datasource.replicas.enabled", "true");
+
+        // When & Then
+        assertThat(BuildTimeConditionsCheck.mismatches(environment, beanFactory))
+                .containsExactly("datasource.replicas.enabled is true at runtime but false in the build");
+    }
+
+    @Test
+    @DisplayName("Should report scheduling and test profile differences")
+    void shouldReportSchedulingAndProfile() {
+        // Given
+        environment.setProperty("scheduling.enabled", "false");
+        environment.setActiveProfiles("test");
+
+        // When & Then
+        assertThat(BuildTimeConditionsCheck.mismatches(environment, beanFactory)).containsExactly(
+                "scheduling.enabled is false at runtime but true in the build",
+                "profile test is true at runtime but false in the build");
+    }
+
+    @Test
+    @DisplayName("Should not treat runtime toggles as build-time")
+    void shouldIgnoreRuntimeToggles() {
+        // Given
+        environment.setProperty("grpc.server.enabled", "false");
+        environment.setProperty("rate-limit.enabled", "false");
+        environment.setProperty("concurrency-limit.enabled", "false");
+        environment.setActiveProfiles("l2cache");
+
+        // When & Then
+        assertThat(BuildTimeConditionsCheck.mismatches(environment, beanFactory)).isEmpty();
+    }
+}
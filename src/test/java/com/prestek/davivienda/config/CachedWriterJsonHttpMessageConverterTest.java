@@ -0,0 +1,45 @@
+package com.prestek.davivienda.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CachedWriterJsonHttpMessageConverter Unit Tests")
+class CachedWriterJsonHttpMessageConverterTest {
+
+    private final CachedWriterJsonHttpMessageConverter converter =
+            new CachedWriterJsonHttpMessageConverter(new ObjectMapper());
+
+    @Test
+    @DisplayName("Should write by the runtime class when the value does not match the declared type")
+    void write_NotAssignable_UsesRuntimeClass() throws Exception {
+        // Given
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        // When
+        converter.write(Map.of("error", "x"), List.class, MediaType.APPLICATION_JSON, output);
+
+        // Then
+        assertThat(output.getBodyAsString()).isEqualTo("{\"error\":\"x\"}");
+    }
+
+    @Test
+    @DisplayName("Should write by the declared type when the value matches it")
+    void write_Assignable_UsesDeclaredType() throws Exception {
+        // Given
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        // When
+        converter.write(List.of(1, 2), List.class, MediaType.APPLICATION_JSON, output);
+
+        // Then
+        assertThat(output.getBodyAsString()).isEqualTo("[1,2]");
+    }
+}
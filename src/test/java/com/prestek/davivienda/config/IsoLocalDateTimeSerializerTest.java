@@ -0,0 +1,77 @@
+package com.prestek.davivienda.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("IsoLocalDateTimeSerializer Unit Tests")
+class IsoLocalDateTimeSerializerTest {
+
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new ObjectMapper().registerModule(new SimpleModule()
+                .addSerializer(LocalDateTime.class, new IsoLocalDateTimeSerializer()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2025-01-02T03:04:05",
+            "2025-12-31T23:59:00",
+            "0001-01-01T00:00:00",
+            "2025-06-15T10:30:00.5",
+            "2025-06-15T10:30:00.123",
+            "2025-06-15T10:30:00.000123",
+            "2025-06-15T10:30:00.000000001",
+            "2025-06-15T10:30:00.987654321"
+    })
+    @DisplayName("Should match ISO_LOCAL_DATE_TIME output")
+    void serialize_MatchesIsoFormatter(String text) throws Exception {
+        // Given
+        LocalDateTime value = LocalDateTime.parse(text);
+
+        // When
+        String json = mapper.writeValueAsString(value);
+
+        // Then
+        assertThat(json).isEqualTo("\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value) + "\"");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the formatter for years beyond 9999")
+    void serialize_LargeYear_UsesFormatter() throws Exception {
+        // Given
+        LocalDateTime value = LocalDateTime.of(12025, 1, 1, 0, 0);
+
+        // When
+        String json = mapper.writeValueAsString(value);
+
+        // Then
+        assertThat(json).isEqualTo("\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value) + "\"");
+    }
+
+    @Test
+    @DisplayName("Should write dates inside objects and lists")
+    void serialize_InsideCollections() throws Exception {
+        // Given
+        LocalDateTime value = LocalDateTime.of(2025, 3, 4, 5, 6, 7);
+
+        // When
+        String json = mapper.writeValueAsString(List.of(Map.of("createdAt", value)));
+
+        // Then
+        assertThat(json).isEqualTo("[{\"createdAt\":\"2025-03-04T05:06:07\"}]");
+    }
+}
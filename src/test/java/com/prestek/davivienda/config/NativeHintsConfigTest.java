@@ -0,0 +1,47 @@
+package com.prestek.davivienda.config;
+
+import com.prestek.davivienda.archive.ApplicationArchiver;
+import com.prestek.davivienda.ingest.PartnerImportJob;
+import com.prestek.davivienda.model.ApplicationLease;
+import com.prestek.davivienda.model.ApplicationQuoteInputs;
+import com.prestek.davivienda.model.IdempotencyRecord;
+import com.prestek.davivienda.model.ImportCheckpoint;
+import com.prestek.davivienda.model.IndicativeRate;
+import com.prestek.davivienda.model.JobLock;
+import com.prestek.davivienda.model.RepricingCheckpoint;
+import com.prestek.davivienda.service.MaintenanceJob;
+import com.prestek.davivienda.service.QuoteRejection;
+import com.prestek.davivienda.service.RepricingJob;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("NativeHintsConfig Unit Tests")
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = registeredHints();
+
+    @ParameterizedTest
+    @ValueSource(classes = {IdempotencyRecord.class, ApplicationLease.class, ImportCheckpoint.class, JobLock.class,
+            IndicativeRate.class, RepricingCheckpoint.class, ApplicationQuoteInputs.class, QuoteRejection.class,
+            RepricingJob.Status.class, MaintenanceJob.Status.class, ApplicationArchiver.Status.class,
+            PartnerImportJob.Status.class})
+    @DisplayName("Should register entities and job statuses for reflective binding")
+    void registerHints_CoversEntitiesAndJobStatuses(Class<?> type) {
+        assertThat(RuntimeHintsPredicates.reflection().onType(type)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS))
+                .accepts(hints);
+    }
+
+    private static RuntimeHints registeredHints() {
+        RuntimeHints hints = new RuntimeHints();
+        new NativeHintsConfig.DaviviendaRuntimeHints()
+                .registerHints(hints, NativeHintsConfigTest.class.getClassLoader());
+        return hints;
+    }
+}
@@ -0,0 +1,109 @@
+package com.prestek.davivienda.config;
+
+import com.prestek.davivienda.service.ReadYourWritesTracker;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReplicaRoutingDataSource Unit Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private ReadYourWritesTracker tracker;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing_primary", "primary");
+        DataSource replica = h2("routing_replica", "replica");
+
+        tracker = new ReadYourWritesTracker(5);
+        jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, List.of(replica), tracker)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should route writes to the primary")
+    void shouldRouteWritesToPrimary() {
+        // When
+        String node = jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+
+        // Then
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should route read-only transactions to a replica")
+    void shouldRouteReadOnlyToReplica() {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        String node = jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+
+        // Then
+        assertThat(node).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Should keep a user on the primary right after their own write")
+    void shouldReadYourOwnWritesFromPrimary() {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user123", null, List.of()));
+        tracker.recordWrite();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        String node = jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+
+        // Then
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should send other users to the replica after someone else writes")
+    void shouldNotPinOtherUsers() {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("writer", null, List.of()));
+        tracker.recordWrite();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("reader", null, List.of()));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        String node = jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+
+        // Then
+        assertThat(node).isEqualTo("replica");
+    }
+
+    private static DataSource h2(String database, String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        template.update("DELETE FROM node");
+        template.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
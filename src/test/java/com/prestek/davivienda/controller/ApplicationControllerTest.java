@@ -1,11 +1,19 @@
 package com.prestek.davivienda.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.prestek.davivienda.config.ProtobufDtoHttpMessageConverter;
 import com.prestek.davivienda.config.TestSecurityConfig;
+import com.prestek.davivienda.proto.ApplicationListMessage;
+import com.prestek.davivienda.proto.ApplicationStatusMessage;
+import com.prestek.davivienda.service.ApplicationCsvExporter;
 import com.prestek.davivienda.service.ApplicationService;
+import com.prestek.davivienda.service.IdempotencyService;
 import com.prestek.FinancialEntityCore.dto.ApplicationDto;
 import com.prestek.FinancialEntityCore.model.Application;
 import com.prestek.FinancialEntityCore.request.CreateApplicationRequest;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,16 +24,25 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -45,6 +62,12 @@ class ApplicationControllerTest {
     @MockBean
     private ApplicationService applicationService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private ApplicationCsvExporter applicationCsvExporter;
+
     private ApplicationDto testApplicationDto;
 
     @BeforeEach
@@ -78,6 +101,26 @@ class ApplicationControllerTest {
         verify(applicationService, times(1)).getAllApplications();
     }
 
+    @Test
+    @DisplayName("GET /api/applications/{id} - Should keep the numeric-array date format by default")
+    void shouldWriteDatesAsArraysByDefault() throws Exception {
+        // Given
+        ApplicationDto dated = ApplicationDto.builder()
+                .id(1L)
+                .userId("user123")
+                .status(Application.ApplicationStatus.PENDING)
+                .createdAt(LocalDateTime.of(2025, 3, 4, 5, 6, 7, 500_000_000))
+                .build();
+        when(applicationService.getApplicationById(1L)).thenReturn(Optional.of(dated));
+
+        // When & Then
+        mockMvc.perform(get("/api/applications/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdAt[0]").value(2025))
+                .andExpect(jsonPath("$.createdAt[1]").value(3))
+                .andExpect(jsonPath("$.createdAt[6]").value(500_000_000));
+    }
+
     @Test
     @DisplayName("GET /api/applications/{id} - Should return application by ID")
     void shouldGetApplicationById() throws Exception {
@@ -121,6 +164,45 @@ class ApplicationControllerTest {
         verify(applicationService, times(1)).getApplicationsByUserId("user123");
     }
 
+    @Test
+    @DisplayName("GET /api/applications/user/{userId} - Should return CBOR when requested")
+    void shouldGetApplicationsByUserIdAsCbor() throws Exception {
+        // Given
+        when(applicationService.getApplicationsByUserId("user123")).thenReturn(List.of(testApplicationDto));
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/applications/user/user123")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode applications = new CBORMapper().readTree(body);
+        assertThat(applications.get(0).get("userId").asText()).isEqualTo("user123");
+        assertThat(applications.get(0).get("amount").asDouble()).isEqualTo(5000000.0);
+    }
+
+    @Test
+    @DisplayName("GET /api/applications/user/{userId} - Should return Protobuf when requested")
+    void shouldGetApplicationsByUserIdAsProtobuf() throws Exception {
+        // Given
+        when(applicationService.getApplicationsByUserId("user123")).thenReturn(List.of(testApplicationDto));
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/applications/user/user123")
+                        .accept(ProtobufDtoHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProtobufDtoHttpMessageConverter.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        ApplicationListMessage applications = ApplicationListMessage.parseFrom(body);
+        assertThat(applications.getApplicationsCount()).isEqualTo(1);
+        assertThat(applications.getApplications(0).getUserId()).isEqualTo("user123");
+        assertThat(applications.getApplications(0).getStatus()).isEqualTo(ApplicationStatusMessage.PENDING);
+    }
+
     @Test
     @DisplayName("GET /api/applications/status/{status} - Should return applications by status")
     void shouldGetApplicationsByStatus() throws Exception {
@@ -137,6 +219,57 @@ class ApplicationControllerTest {
         verify(applicationService, times(1)).getApplicationsByStatus(Application.ApplicationStatus.PENDING);
     }
 
+    @Test
+    @DisplayName("GET /api/applications/export.csv - Should stream CSV with the requested filters")
+    void shouldExportApplicationsAsCsv() throws Exception {
+        // Given
+        when(applicationCsvExporter.export(eq("user123"), eq(Application.ApplicationStatus.APPROVED), any()))
+                .thenAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(2);
+                    out.write("id,userId\n1,user123\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/applications/export.csv")
+                        .param("userId", "user123")
+                        .param("status", "APPROVED"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"applications.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id,userId\n1,user123\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/applications/export.csv - Should gzip the file when requested")
+    void shouldExportApplicationsAsGzip() throws Exception {
+        // Given
+        when(applicationCsvExporter.export(isNull(), isNull(), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("id,userId\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/applications/export.csv").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id,userId\n");
+        }
+    }
+
     @Test
     @DisplayName("POST /api/applications - Should create new application")
     void shouldCreateApplication() throws Exception {
@@ -159,6 +292,80 @@ class ApplicationControllerTest {
         verify(applicationService, times(1)).createApplication("user123", 5000000.0);
     }
 
+    @Test
+    @DisplayName("POST /api/applications/claim - Should return the claimed applications")
+    void shouldClaimApplications() throws Exception {
+        // Given
+        ApplicationDto claimed = ApplicationDto.builder()
+                .id(1L)
+                .userId("user123")
+                .amount(5000000.0)
+                .status(Application.ApplicationStatus.UNDER_REVIEW)
+                .build();
+        when(applicationService.claimApplications(5)).thenReturn(List.of(claimed));
+
+        // When & Then
+        mockMvc.perform(post("/api/applications/claim").param("count", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].status").value("UNDER_REVIEW"));
+
+        verify(applicationService, times(1)).claimApplications(5);
+    }
+
+    @Test
+    @DisplayName("POST /api/applications/claim - Should reject a count out of range")
+    void shouldRejectInvalidClaimCount() throws Exception {
+        mockMvc.perform(post("/api/applications/claim").param("count", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/applications/claim").param("count", "1000"))
+                .andExpect(status().isBadRequest());
+
+        verify(applicationService, never()).claimApplications(anyInt());
+    }
+
+    @Test
+    @DisplayName("POST /api/applications - Should replay the original application for a repeated Idempotency-Key")
+    void shouldReplayApplicationForRepeatedIdempotencyKey() throws Exception {
+        // Given
+        CreateApplicationRequest request = new CreateApplicationRequest();
+        request.setUserId("user123");
+        request.setAmount(5000000.0);
+
+        when(idempotencyService.execute(eq("key-1"), anyString(), eq(ApplicationDto.class), any()))
+                .thenReturn(new IdempotencyService.Result<>(testApplicationDto, true));
+
+        // When & Then
+        mockMvc.perform(post("/api/applications")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(applicationService, never()).createApplication(anyString(), any(Double.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/applications - Should return 422 when an Idempotency-Key is reused with another payload")
+    void shouldReturn422WhenIdempotencyKeyReused() throws Exception {
+        // Given
+        CreateApplicationRequest request = new CreateApplicationRequest();
+        request.setUserId("user123");
+        request.setAmount(7000000.0);
+
+        when(idempotencyService.execute(eq("key-1"), anyString(), eq(ApplicationDto.class), any()))
+                .thenThrow(new IdempotencyService.KeyReusedException());
+
+        // When & Then
+        mockMvc.perform(post("/api/applications")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     @DisplayName("POST /api/applications - Should return 400 when userId is missing")
     void shouldReturn400WhenUserIdMissing() throws Exception {
@@ -207,6 +414,23 @@ class ApplicationControllerTest {
         verify(applicationService, times(1)).updateApplicationStatus(eq(1L), any(), eq("Application approved"));
     }
 
+    @Test
+    @DisplayName("PATCH /api/applications/{id}/status - Should return 409 when another worker holds the lease")
+    void shouldReturn409WhenLeaseHeldByAnotherWorker() throws Exception {
+        // Given
+        Map<String, String> statusUpdate = new HashMap<>();
+        statusUpdate.put("status", "APPROVED");
+        statusUpdate.put("notes", "ok");
+        when(applicationService.updateApplicationStatus(eq(1L), any(), anyString()))
+                .thenThrow(new ApplicationService.LeaseHeldException(1L, "reviewer-2"));
+
+        // When & Then
+        mockMvc.perform(patch("/api/applications/1/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(statusUpdate)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @DisplayName("PATCH /api/applications/{id}/status - Should return 400 when status is missing")
     void shouldReturn400WhenStatusMissing() throws Exception {
@@ -237,6 +461,37 @@ class ApplicationControllerTest {
         verify(applicationService, times(1)).getApplicationCountByUserId("user123");
     }
 
+    @Test
+    @DisplayName("PUT /api/applications/{id}/quote-inputs - Should store the applicant quote inputs")
+    void shouldSaveQuoteInputs() throws Exception {
+        // Given
+        QuoteRequest inputs = new QuoteRequest(5000000L, 36, 720, 4500000L, 1200000L);
+        when(applicationService.saveQuoteInputs(eq(1L), any(QuoteRequest.class))).thenReturn(true);
+
+        // When & Then
+        mockMvc.perform(put("/api/applications/1/quote-inputs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputs)))
+                .andExpect(status().isNoContent());
+
+        verify(applicationService).saveQuoteInputs(1L, inputs);
+    }
+
+    @Test
+    @DisplayName("PUT /api/applications/{id}/quote-inputs - Should reject a non-positive income")
+    void shouldRejectInvalidQuoteInputs() throws Exception {
+        // Given
+        QuoteRequest inputs = new QuoteRequest(5000000L, 36, 720, 0L, 1200000L);
+
+        // When & Then
+        mockMvc.perform(put("/api/applications/1/quote-inputs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputs)))
+                .andExpect(status().isBadRequest());
+
+        verify(applicationService, never()).saveQuoteInputs(any(), any());
+    }
+
     @Test
     @DisplayName("DELETE /api/applications/{id} - Should delete application")
     void shouldDeleteApplication() throws Exception {
@@ -1,10 +1,18 @@
 package com.prestek.davivienda.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestek.davivienda.config.ProtobufDtoHttpMessageConverter;
 import com.prestek.davivienda.config.TestSecurityConfig;
 import com.prestek.FinancialEntityCore.dto.QuoteDto;
 import com.prestek.FinancialEntityCore.request.QuoteRequest;
 import com.prestek.FinancialEntityCore.service.AbstractWeightedQuoteService;
+import com.prestek.davivienda.mapper.ProtoMapper;
+import com.prestek.davivienda.proto.QuoteMessage;
+import com.prestek.davivienda.proto.QuoteRejectionMessage;
+import com.prestek.davivienda.service.IneligibleQuoteException;
+import com.prestek.davivienda.service.QuoteEligibility;
+import com.prestek.davivienda.service.QuoteEligibilityFilter;
+import com.prestek.davivienda.service.ScheduleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,7 +24,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +49,12 @@ class QuoteControllerTest {
     @MockBean
     private AbstractWeightedQuoteService quoteService;
 
+    @MockBean
+    private QuoteEligibilityFilter eligibilityFilter;
+
+    @MockBean
+    private ScheduleService scheduleService;
+
     private QuoteRequest testRequest;
     private QuoteDto testQuote;
 
@@ -82,6 +101,29 @@ class QuoteControllerTest {
         verify(quoteService, times(1)).quote(any(QuoteRequest.class));
     }
 
+    @Test
+    @DisplayName("POST /api/quotes - Should accept and return Protobuf")
+    void shouldGenerateQuoteWithProtobuf() throws Exception {
+        // Given
+        when(quoteService.quote(testRequest)).thenReturn(testQuote);
+
+        // When
+        byte[] body = mockMvc.perform(post("/api/quotes")
+                        .contentType(ProtobufDtoHttpMessageConverter.PROTOBUF)
+                        .accept(ProtobufDtoHttpMessageConverter.PROTOBUF)
+                        .content(ProtoMapper.toMessage(testRequest).toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProtobufDtoHttpMessageConverter.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        QuoteMessage quote = QuoteMessage.parseFrom(body);
+        assertThat(quote.getInstitution()).isEqualTo("DAVIVIENDA");
+        assertThat(quote.getRateEaMin()).isEqualTo(0.18);
+        assertThat(quote.getMonthlyPaymentMax()).isEqualTo(370000L);
+        verify(quoteService, times(1)).quote(testRequest);
+    }
+
     @Test
     @DisplayName("POST /api/quotes - Should handle request with different credit score")
     void shouldHandleRequestWithDifferentCreditScore() throws Exception {
@@ -172,4 +214,90 @@ class QuoteControllerTest {
 
         verify(quoteService, times(1)).quote(any(QuoteRequest.class));
     }
+
+    @Test
+    @DisplayName("POST /api/quotes - Should return 422 with reason for ineligible request")
+    void shouldReturnReasonForIneligibleRequest() throws Exception {
+        // Given
+        QuoteRequest hopelessRequest = new QuoteRequest(
+                10000000L, 36, 750, 2000000L, 2500000L  // gastos > ingresos
+        );
+
+        when(quoteService.code()).thenReturn("DAVIVIENDA");
+        when(quoteService.quote(any(QuoteRequest.class)))
+                .thenThrow(IneligibleQuoteException.of(QuoteEligibility.DTI_TOO_HIGH));
+
+        // When & Then
+        mockMvc.perform(post("/api/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(hopelessRequest)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.institution").value("DAVIVIENDA"))
+                .andExpect(jsonPath("$.reason").value("DTI_TOO_HIGH"));
+    }
+
+    @Test
+    @DisplayName("POST /api/quotes - Should return the 422 reason as Protobuf")
+    void shouldReturnReasonForIneligibleRequestWithProtobuf() throws Exception {
+        // Given
+        when(quoteService.code()).thenReturn("DAVIVIENDA");
+        when(quoteService.quote(testRequest))
+                .thenThrow(IneligibleQuoteException.of(QuoteEligibility.DTI_TOO_HIGH));
+
+        // When
+        byte[] body = mockMvc.perform(post("/api/quotes")
+                        .contentType(ProtobufDtoHttpMessageConverter.PROTOBUF)
+                        .accept(ProtobufDtoHttpMessageConverter.PROTOBUF)
+                        .content(ProtoMapper.toMessage(testRequest).toByteArray()))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().contentType(ProtobufDtoHttpMessageConverter.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        QuoteRejectionMessage rejection = QuoteRejectionMessage.parseFrom(body);
+        assertThat(rejection.getInstitution()).isEqualTo("DAVIVIENDA");
+        assertThat(rejection.getReason()).isEqualTo("DTI_TOO_HIGH");
+    }
+
+    @Test
+    @DisplayName("POST /api/quotes/schedule - Should stream the schedule written by the service")
+    void shouldStreamSchedule() throws Exception {
+        // Given
+        ScheduleService.Plan plan = new ScheduleService.Plan(10000000L, 36, 45000L, new double[]{0.19, 0.22},
+                new long[]{365000L, 380000L});
+        when(scheduleService.plan(testRequest)).thenReturn(plan);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"institution\":\"DAVIVIENDA\",\"scenarios\":[]}".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(scheduleService).write(eq(plan), any(OutputStream.class));
+
+        // When & Then
+        mockMvc.perform(post("/api/quotes/schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testRequest)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.institution").value("DAVIVIENDA"));
+
+        verify(scheduleService, times(1)).write(eq(plan), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/quotes/schedule - Should return 422 with reason for ineligible request")
+    void shouldReturnReasonForIneligibleSchedule() throws Exception {
+        // Given
+        when(quoteService.code()).thenReturn("DAVIVIENDA");
+        when(scheduleService.plan(any(QuoteRequest.class)))
+                .thenThrow(IneligibleQuoteException.of(QuoteEligibility.DTI_TOO_HIGH));
+
+        // When & Then
+        mockMvc.perform(post("/api/quotes/schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testRequest)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.reason").value("DTI_TOO_HIGH"));
+
+        verify(scheduleService, never()).write(any(), any());
+    }
 }
@@ -0,0 +1,133 @@
+package com.prestek.davivienda.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AdaptiveConcurrencyLimiter Unit Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("Should reject once in-flight requests reach the limit")
+    void tryAcquire_AtLimit_Rejects() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 1.5, 0.2);
+
+        // When
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(limiter.inflight()).isEqualTo(2);
+        assertThat(limiter.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should free the slot on release even for failed requests")
+    void release_Failure_FreesSlot() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 10, 1.5, 0.2);
+        limiter.tryAcquire();
+
+        // When
+        limiter.release(SLOW, false);
+
+        // Then
+        assertThat(limiter.inflight()).isZero();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.limit()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should cut the limit on failed requests, down to the minimum")
+    void release_Failure_CutsLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 50, 4, 100, 1.5, 0.2);
+
+        // When
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+        int afterOne = limiter.limit();
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+        }
+
+        // Then
+        assertThat(afterOne).isEqualTo(45);
+        assertThat(limiter.limit()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should treat requests slower than the timeout as drops")
+    void release_Timeout_CutsLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 50, 4, 100, 1.5, 0.2, FAST);
+        limiter.tryAcquire();
+
+        // When
+        limiter.release(SLOW, true);
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(45);
+    }
+
+    @Test
+    @DisplayName("Should grow the limit while latency stays steady under load")
+    void onSample_SteadyLatency_GrowsLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 2, 100, 1.5, 0.2);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(FAST, limiter.limit());
+        }
+
+        // Then
+        assertThat(limiter.limit()).isGreaterThan(10);
+    }
+
+    @Test
+    @DisplayName("Should not grow the limit while traffic uses less than half of it")
+    void onSample_AppLimited_KeepsLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 2, 100, 1.5, 0.2);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(FAST, 1);
+        }
+
+        // Then
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit when latency rises, down to the minimum")
+    void onSample_LatencyIncrease_ShrinksLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 50, 4, 100, 1.5, 0.2);
+        for (int i = 0; i < 10; i++) {
+            limiter.onSample(FAST, limiter.limit());
+        }
+        int healthyLimit = limiter.limit();
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            limiter.onSample(SLOW, limiter.limit());
+        }
+
+        // Then
+        assertThat(limiter.limit()).isLessThan(healthyLimit).isGreaterThanOrEqualTo(4);
+    }
+}
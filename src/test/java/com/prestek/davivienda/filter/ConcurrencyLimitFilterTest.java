@@ -0,0 +1,148 @@
+package com.prestek.davivienda.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ConcurrencyLimitFilter Unit Tests")
+class ConcurrencyLimitFilterTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter("applications", 1, 1, 1, 2.0, 0.1);
+        filter = new ConcurrencyLimitFilter(List.of(new ConcurrencyLimitFilter.Group("/api/applications", limiter)));
+    }
+
+    @Test
+    @DisplayName("Should release the permit when a synchronous request returns")
+    void doFilter_Sync_ReleasesOnReturn() throws Exception {
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/applications/1"), response, new MockFilterChain());
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(limiter.inflight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should hold the permit until an async request completes")
+    void doFilter_Async_ReleasesOnComplete() throws Exception {
+        // Given: el handler arranca el modo async, como un StreamingResponseBody
+        MockHttpServletRequest request = asyncRequest();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        // Then: el primer dispatch terminó pero el stream sigue dentro del bulkhead
+        assertThat(limiter.inflight()).isEqualTo(1);
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/applications/1"), shed, new MockFilterChain());
+        assertThat(shed.getStatus()).isEqualTo(503);
+
+        // When
+        request.getAsyncContext().complete();
+
+        // Then
+        assertThat(limiter.inflight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should release the permit once when an async request times out")
+    void doFilter_AsyncTimeout_ReleasesOnce() throws Exception {
+        // Given
+        MockHttpServletRequest request = asyncRequest();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+
+        // When: el contenedor notifica el timeout y luego completa
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        assertThat(limiter.inflight()).isEqualTo(1);
+        asyncContext.complete();
+
+        // Then
+        assertThat(limiter.inflight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not cut the limit when a long async request completes")
+    void doFilter_SlowAsync_KeepsLimit() throws Exception {
+        // Given: timeout 0, cualquier respuesta síncrona contaría como drop
+        AdaptiveConcurrencyLimiter slow = new AdaptiveConcurrencyLimiter("applications", 10, 1, 10, 2.0, 0.1, 0);
+        ConcurrencyLimitFilter slowFilter = new ConcurrencyLimitFilter(
+                List.of(new ConcurrencyLimitFilter.Group("/api/applications", slow)));
+        MockHttpServletRequest request = asyncRequest();
+        slowFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        // When
+        request.getAsyncContext().complete();
+
+        // Then
+        assertThat(slow.inflight()).isZero();
+        assertThat(slow.limit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should cut the limit when an async request fails")
+    void doFilter_AsyncError_CutsLimit() throws Exception {
+        // Given
+        AdaptiveConcurrencyLimiter tracked = new AdaptiveConcurrencyLimiter("applications", 10, 1, 10, 2.0, 0.1);
+        ConcurrencyLimitFilter trackedFilter = new ConcurrencyLimitFilter(
+                List.of(new ConcurrencyLimitFilter.Group("/api/applications", tracked)));
+        MockHttpServletRequest request = asyncRequest();
+        trackedFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+
+        // When
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onError(new AsyncEvent(asyncContext));
+        }
+        asyncContext.complete();
+
+        // Then
+        assertThat(tracked.inflight()).isZero();
+        assertThat(tracked.limit()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Should let excluded paths bypass the bulkhead")
+    void doFilter_ExcludedPath_TakesNoPermit() throws Exception {
+        // Given
+        ConcurrencyLimitFilter excluding = new ConcurrencyLimitFilter(
+                List.of(new ConcurrencyLimitFilter.Group("/api/applications", limiter)),
+                Set.of("/api/applications/export.csv"));
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/api/applications/export.csv");
+        export.setAsyncSupported(true);
+
+        // When
+        excluding.doFilter(export, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        // Then: la exportación en curso no ocupa el único permiso
+        assertThat(limiter.inflight()).isZero();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        excluding.doFilter(new MockHttpServletRequest("GET", "/api/applications/1"), response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletRequest asyncRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/applications/stream");
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
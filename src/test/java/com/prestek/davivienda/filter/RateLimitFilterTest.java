@@ -0,0 +1,71 @@
+package com.prestek.davivienda.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimitFilter Unit Tests")
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimiter limiter = new RateLimiter(List.of(
+                new RateLimiter.Rule("quotes", "POST", "/api/quotes/**", 1, 1)), 5.0, 1000);
+        filter = new RateLimitFilter(limiter, meterRegistry);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user_1", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should return 429 with Retry-After once the bucket is empty")
+    void doFilter_OverLimit_Returns429() throws Exception {
+        // Given
+        MockHttpServletResponse first = perform("POST", "/api/quotes");
+
+        // When
+        MockHttpServletResponse second = perform("POST", "/api/quotes");
+
+        // Then
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(429);
+        assertThat(second.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.get("http.server.ratelimit.rejections")
+                .tag("rule", "quotes").tag("role", "ROLE_USER").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not limit paths without a rule")
+    void doFilter_NoRule_PassesThrough() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(perform("GET", "/actuator/health").getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
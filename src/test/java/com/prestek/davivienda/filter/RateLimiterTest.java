@@ -0,0 +1,129 @@
+package com.prestek.davivienda.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimiter Unit Tests")
+class RateLimiterTest {
+
+    private static final RateLimiter.Rule QUOTES = new RateLimiter.Rule("quotes", "POST", "/api/quotes/**", 10, 5);
+    private static final RateLimiter.Rule LIST = new RateLimiter.Rule("list", "GET", "/api/applications", 1, 2);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new RateLimiter(List.of(QUOTES, LIST), 2.0, 1000, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should match the first rule for method and path")
+    void match_ByMethodAndPath() {
+        assertThat(limiter.match("POST", "/api/quotes")).isEqualTo(QUOTES);
+        assertThat(limiter.match("GET", "/api/applications")).isEqualTo(LIST);
+        assertThat(limiter.match("GET", "/api/applications/1")).isNull();
+        assertThat(limiter.match("GET", "/actuator/health")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should allow the burst and then reject with the wait until the next token")
+    void tryAcquire_BurstThenReject() {
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(QUOTES, "user_1|ROLE_USER", false)).isZero();
+        }
+        long wait = limiter.tryAcquire(QUOTES, "user_1|ROLE_USER", false);
+
+        // Then
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    @DisplayName("Should refill at the configured rate")
+    void tryAcquire_RefillsOverTime() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(QUOTES, "user_1|ROLE_USER", false);
+        }
+
+        // When
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Then
+        assertThat(limiter.tryAcquire(QUOTES, "user_1|ROLE_USER", false)).isZero();
+        assertThat(limiter.tryAcquire(QUOTES, "user_1|ROLE_USER", false)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should keep separate buckets per client key")
+    void tryAcquire_IndependentKeys() {
+        // Given
+        limiter.tryAcquire(LIST, "user_1|ROLE_USER", false);
+        limiter.tryAcquire(LIST, "user_1|ROLE_USER", false);
+
+        // Then
+        assertThat(limiter.tryAcquire(LIST, "user_1|ROLE_USER", false)).isPositive();
+        assertThat(limiter.tryAcquire(LIST, "user_2|ROLE_USER", false)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should give privileged callers a larger burst")
+    void tryAcquire_PrivilegedMultiplier() {
+        // When
+        int allowed = 0;
+        while (limiter.tryAcquire(LIST, "admin|ROLE_ADMIN", true) == 0) {
+            allowed++;
+        }
+
+        // Then
+        assertThat(allowed).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should evict idle buckets once the key limit is exceeded")
+    void tryAcquire_EvictsIdleBuckets() {
+        // Given
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire(QUOTES, "user_" + i, false);
+        }
+
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        limiter.tryAcquire(QUOTES, "late_1", false);
+        limiter.tryAcquire(QUOTES, "late_2", false);
+
+        // Then
+        assertThat(limiter.size()).isLessThan(10);
+    }
+
+    @Test
+    @DisplayName("Should send new keys to a shared overflow bucket while the map stays full")
+    void tryAcquire_FullMap_UsesOverflowBucket() {
+        // Given
+        RateLimiter small = new RateLimiter(List.of(QUOTES), 1.0, 10, clock::get);
+        for (int i = 0; i < 10; i++) {
+            small.tryAcquire(QUOTES, "user_" + i, false);
+        }
+
+        // When
+        int allowed = 0;
+        for (int i = 0; i < 100; i++) {
+            if (small.tryAcquire(QUOTES, "flood_" + i, false) == 0) {
+                allowed++;
+            }
+        }
+
+        // Then
+        assertThat(small.size()).isEqualTo(11);
+        assertThat(allowed).isEqualTo(QUOTES.burst());
+        assertThat(small.tryAcquire(QUOTES, "user_0", false)).isZero();
+    }
+}
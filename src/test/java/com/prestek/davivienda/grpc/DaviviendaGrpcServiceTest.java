@@ -0,0 +1,275 @@
+package com.prestek.davivienda.grpc;
+
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.davivienda.config.JwtTokenVerifier;
+import com.prestek.davivienda.proto.ApplicationMessage;
+import com.prestek.davivienda.proto.ApplicationsByUserRequest;
+import com.prestek.davivienda.proto.BatchQuoteReply;
+import com.prestek.davivienda.proto.BatchQuoteRequest;
+import com.prestek.davivienda.proto.DaviviendaServiceGrpc;
+import com.prestek.davivienda.proto.QuoteMessage;
+import com.prestek.davivienda.proto.QuoteRequestMessage;
+import com.prestek.davivienda.service.ApplicationService;
+import com.prestek.davivienda.service.QuoteService;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DaviviendaGrpcService In-Process Tests")
+class DaviviendaGrpcServiceTest {
+
+    private static final String TOKEN = "valid-token";
+
+    @Mock
+    private ApplicationService applicationService;
+
+    @Mock
+    private JwtTokenVerifier jwtTokenVerifier;
+
+    @Spy
+    private QuoteService quoteService = new QuoteService();
+
+    private Server server;
+    private ManagedChannel channel;
+    private DaviviendaServiceGrpc.DaviviendaServiceBlockingStub blockingStub;
+    private DaviviendaServiceGrpc.DaviviendaServiceStub asyncStub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        DaviviendaGrpcService service = new DaviviendaGrpcService(quoteService, applicationService);
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(service, new JwtServerInterceptor(jwtTokenVerifier)))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+
+        Metadata headers = new Metadata();
+        headers.put(JwtServerInterceptor.AUTHORIZATION, "Bearer " + TOKEN);
+        blockingStub = DaviviendaServiceGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+        asyncStub = DaviviendaServiceGrpc.newStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Quote - Should price an eligible request")
+    void quote_EligibleRequest_ReturnsQuote() throws Exception {
+        // Given
+        authenticated("user_1");
+
+        // When
+        QuoteMessage quote = blockingStub.quote(request(10_000_000L, 36, 750));
+
+        // Then
+        assertThat(quote.getInstitution()).isEqualTo("DAVIVIENDA");
+        assertThat(quote.getRateEaMin()).isPositive();
+        assertThat(quote.getMonthlyPaymentMin()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Quote - Should fail with INVALID_ARGUMENT for ineligible requests")
+    void quote_IneligibleRequest_InvalidArgument() throws Exception {
+        // Given
+        authenticated("user_1");
+
+        // When & Then
+        assertThatThrownBy(() -> blockingStub.quote(request(10_000_000L, 0, 750)))
+                .isInstanceOf(StatusRuntimeException.class)
+                .satisfies(e -> {
+                    Status status = ((StatusRuntimeException) e).getStatus();
+                    assertThat(status.getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT);
+                    assertThat(status.getDescription()).isEqualTo("TERM_OUT_OF_RANGE");
+                });
+    }
+
+    @Test
+    @DisplayName("BatchQuote - Should answer every request in order, rejecting ineligible ones")
+    void batchQuote_MixedRequests_RepliesInOrder() throws Exception {
+        // Given
+        authenticated("user_1");
+        List<BatchQuoteReply> replies = new ArrayList<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        StreamObserver<BatchQuoteReply> responses = new StreamObserver<>() {
+            @Override public void onNext(BatchQuoteReply reply) { replies.add(reply); }
+            @Override public void onError(Throwable t) { error.set(t); }
+            @Override public void onCompleted() { }
+        };
+
+        // When
+        StreamObserver<BatchQuoteRequest> requests = asyncStub.batchQuote(responses);
+        requests.onNext(batch("a", request(10_000_000L, 36, 750)));
+        requests.onNext(batch("b", request(10_000_000L, 36, 50)));
+        requests.onNext(batch("c", request(20_000_000L, 60, 680)));
+        requests.onCompleted();
+
+        // Then
+        assertThat(error.get()).isNull();
+        assertThat(replies).extracting(BatchQuoteReply::getCorrelationId).containsExactly("a", "b", "c");
+        assertThat(replies.get(0).hasQuote()).isTrue();
+        assertThat(replies.get(1).getRejection().getReason()).isEqualTo("SCORE_OUT_OF_RANGE");
+        assertThat(replies.get(2).hasQuote()).isTrue();
+        verify(jwtTokenVerifier, times(1)).verify(TOKEN);
+    }
+
+    @Test
+    @DisplayName("BatchQuote - Should stop pulling requests while the client is not reading replies")
+    void batchQuote_SlowReader_ServerWaitsForDemand() throws Exception {
+        // Given: un cliente que pide una sola respuesta a la vez
+        authenticated("user_1");
+        int total = 20;
+        BlockingQueue<BatchQuoteReply> replies = new LinkedBlockingQueue<>();
+        AtomicReference<ClientCallStreamObserver<BatchQuoteRequest>> call = new AtomicReference<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        ClientResponseObserver<BatchQuoteRequest, BatchQuoteReply> slowReader = new ClientResponseObserver<>() {
+            @Override public void beforeStart(ClientCallStreamObserver<BatchQuoteRequest> requestStream) {
+                call.set(requestStream);
+                requestStream.disableAutoRequestWithInitial(1);
+            }
+            @Override public void onNext(BatchQuoteReply reply) { replies.add(reply); }
+            @Override public void onError(Throwable t) { completed.countDown(); }
+            @Override public void onCompleted() { completed.countDown(); }
+        };
+
+        // When: envía todo el lote pero lee solo la primera respuesta
+        StreamObserver<BatchQuoteRequest> requests = asyncStub.batchQuote(slowReader);
+        for (int i = 0; i < total; i++) {
+            requests.onNext(batch(String.valueOf(i), request(10_000_000L + i, 36, 750)));
+        }
+        requests.onCompleted();
+
+        // Then: el servidor cotiza solo lo que el cliente alcanza a leer
+        assertThat(replies.poll(5, TimeUnit.SECONDS)).isNotNull();
+        verify(quoteService, after(200).times(1)).quote(any());
+
+        // When: el cliente lee el resto
+        call.get().request(total);
+
+        // Then
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(replies).hasSize(total - 1);
+        assertThat(replies.peek().getCorrelationId()).isEqualTo("1");
+        verify(quoteService, times(total)).quote(any());
+    }
+
+    @Test
+    @DisplayName("GetApplicationsByUser - Should stream the user's applications")
+    void getApplicationsByUser_StreamsApplications() throws Exception {
+        // Given
+        authenticated("user_1");
+        when(applicationService.getApplicationsByUserId("user_1")).thenAnswer(invocation -> {
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("user_1");
+            return List.of(application(1L), application(2L));
+        });
+
+        // When
+        Iterator<ApplicationMessage> stream = blockingStub.getApplicationsByUser(
+                ApplicationsByUserRequest.newBuilder().setUserId("user_1").build());
+        List<ApplicationMessage> received = new ArrayList<>();
+        stream.forEachRemaining(received::add);
+
+        // Then
+        assertThat(received).extracting(ApplicationMessage::getId).containsExactly(1L, 2L);
+        assertThat(received.get(0).getUserId()).isEqualTo("user_1");
+    }
+
+    @Test
+    @DisplayName("Should reject calls without a bearer token")
+    void call_WithoutToken_Unauthenticated() {
+        // Given
+        DaviviendaServiceGrpc.DaviviendaServiceBlockingStub anonymous = DaviviendaServiceGrpc.newBlockingStub(channel);
+
+        // When & Then
+        assertThatThrownBy(() -> anonymous.quote(request(10_000_000L, 36, 750)))
+                .isInstanceOf(StatusRuntimeException.class)
+                .satisfies(e -> assertThat(((StatusRuntimeException) e).getStatus().getCode())
+                        .isEqualTo(Status.Code.UNAUTHENTICATED));
+        verifyNoInteractions(jwtTokenVerifier);
+    }
+
+    @Test
+    @DisplayName("Should reject calls with an invalid token")
+    void call_InvalidToken_Unauthenticated() throws Exception {
+        // Given
+        when(jwtTokenVerifier.verify(TOKEN)).thenThrow(new JwtTokenVerifier.InvalidTokenException("Token expired"));
+
+        // When & Then
+        assertThatThrownBy(() -> blockingStub.quote(request(10_000_000L, 36, 750)))
+                .isInstanceOf(StatusRuntimeException.class)
+                .satisfies(e -> {
+                    Status status = ((StatusRuntimeException) e).getStatus();
+                    assertThat(status.getCode()).isEqualTo(Status.Code.UNAUTHENTICATED);
+                    assertThat(status.getDescription()).isEqualTo("Token expired");
+                });
+    }
+
+    private void authenticated(String subject) throws Exception {
+        when(jwtTokenVerifier.verify(TOKEN)).thenReturn(new UsernamePasswordAuthenticationToken(subject, null, List.of()));
+    }
+
+    private static QuoteRequestMessage request(long amount, int termMonths, int score) {
+        return QuoteRequestMessage.newBuilder()
+                .setAmount(amount)
+                .setTermMonths(termMonths)
+                .setScore(score)
+                .setMonthlyIncome(5_000_000L)
+                .setMonthlyExpenses(1_000_000L)
+                .build();
+    }
+
+    private static BatchQuoteRequest batch(String correlationId, QuoteRequestMessage request) {
+        return BatchQuoteRequest.newBuilder().setCorrelationId(correlationId).setRequest(request).build();
+    }
+
+    private static ApplicationDto application(Long id) {
+        return ApplicationDto.builder()
+                .id(id)
+                .userId("user_1")
+                .amount(5_000_000.0)
+                .status(Application.ApplicationStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,164 @@
+package com.prestek.davivienda.ingest;
+
+import com.prestek.davivienda.model.ImportCheckpoint;
+import com.prestek.davivienda.repository.ImportCheckpointRepository;
+import com.prestek.davivienda.service.RequestCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PartnerImportJob Unit Tests")
+class PartnerImportJobTest {
+
+    private static final String CONTENT = "userId,amount\n"
+            + "user_1,1000\n"
+            + "user_2,2000\n"
+            + "user_3,oops\n"
+            + "user_4,4000\n"
+            + "user_5,5000\n";
+
+    private static final ApplicationInsert INSERT = new ApplicationInsert(
+            "INSERT INTO applications (user_id, amount, status, application_date, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", "PENDING");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ImportCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private final List<Object[]> saved = new ArrayList<>();
+    private PartnerImportJob job;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Chunks de ~16 bytes y 2 parsers: varios chunks en vuelo a la vez
+        job = new PartnerImportJob(jdbcTemplate, checkpointRepository, INSERT, transactionManager,
+                new RequestCoalescer(0, 100), new SimpleMeterRegistry(), directory, 16, 2, 2, 64, 18);
+        file = Files.writeString(directory.resolve("partner.csv"), CONTENT);
+        lenient().when(jdbcTemplate.batchUpdate(eq(INSERT.sql()), anyList())).thenAnswer(invocation -> {
+            // insert() reutiliza la lista del lote: se copia lo guardado
+            List<Object[]> rows = invocation.getArgument(1);
+            saved.addAll(rows);
+            return new int[rows.size()];
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should import valid records in file order and complete the checkpoint")
+    void run_ImportsWholeFile() {
+        // Given
+        when(checkpointRepository.findById("partner.csv")).thenReturn(Optional.empty());
+
+        // When
+        job.run(file, ImportFormat.CSV, false);
+
+        // Then
+        assertThat(saved).extracting(row -> row[0]).containsExactly("user_1", "user_2", "user_4", "user_5");
+        assertThat(saved).extracting(row -> row[2]).containsOnly("PENDING");
+        assertThat(saved.get(3)[1]).isEqualTo(5000.0);
+
+        ImportCheckpoint checkpoint = lastSavedCheckpoint();
+        assertThat(checkpoint.getCompleted()).isTrue();
+        assertThat(checkpoint.getNextOffset()).isEqualTo(CONTENT.length());
+        assertThat(checkpoint.getImported()).isEqualTo(4);
+        assertThat(checkpoint.getRejected()).isEqualTo(1);
+
+        PartnerImportJob.Status status = job.status();
+        assertThat(status.state()).isEqualTo(PartnerImportJob.State.COMPLETED);
+        assertThat(status.bytesDone()).isEqualTo(status.bytesTotal());
+        // Lotes de 2 filas: un batch JDBC por lote, no un INSERT por fila
+        verify(jdbcTemplate, atLeast(2)).batchUpdate(eq(INSERT.sql()), anyList());
+    }
+
+    @Test
+    @DisplayName("Should resume after the committed offset of an earlier run")
+    void run_ResumesFromCheckpoint() {
+        // Given
+        long offset = CONTENT.indexOf("user_3");
+        when(checkpointRepository.findById("partner.csv")).thenReturn(Optional.of(ImportCheckpoint.builder()
+                .fileName("partner.csv")
+                .fileSize((long) CONTENT.length())
+                .nextOffset(offset)
+                .imported(2L)
+                .rejected(0L)
+                .completed(false)
+                .build()));
+
+        // When
+        job.run(file, ImportFormat.CSV, false);
+
+        // Then
+        assertThat(saved).extracting(row -> row[0]).containsExactly("user_4", "user_5");
+        ImportCheckpoint checkpoint = lastSavedCheckpoint();
+        assertThat(checkpoint.getImported()).isEqualTo(4);
+        assertThat(checkpoint.getRejected()).isEqualTo(1);
+        assertThat(checkpoint.getCompleted()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should split chunks only at line boundaries")
+    void split_EndsChunksAtLineBoundaries() throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            List<PartnerImportJob.Chunk> chunks = PartnerImportJob.split(channel, 0, CONTENT.length(), 16);
+
+            assertThat(chunks.get(0).start()).isZero();
+            assertThat(chunks.get(chunks.size() - 1).end()).isEqualTo(CONTENT.length());
+            for (PartnerImportJob.Chunk chunk : chunks) {
+                assertThat(CONTENT.charAt((int) chunk.end() - 1)).isEqualTo('\n');
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse files outside the import directory")
+    void start_RejectsPathsOutsideDirectory() {
+        assertThatThrownBy(() -> job.start("../secrets.csv", ImportFormat.CSV, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> job.start("missing.csv", ImportFormat.CSV, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(checkpointRepository);
+    }
+
+    private ImportCheckpoint lastSavedCheckpoint() {
+        ArgumentCaptor<ImportCheckpoint> captor = ArgumentCaptor.forClass(ImportCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,89 @@
+package com.prestek.davivienda.ingest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RecordParser Unit Tests")
+class RecordParserTest {
+
+    private final RecordParser csv = new RecordParser(ImportFormat.CSV, 0, 0);
+    private final RecordParser fixed = new RecordParser(ImportFormat.FIXED_WIDTH, 8, 12);
+
+    @Test
+    @DisplayName("Should parse CSV records, skipping the header and counting invalid rows")
+    void parse_Csv() {
+        // Given
+        ByteBuffer buffer = bytes("userId,amount\r\n"
+                + "user_1,1500000\r\n"
+                + "\"user_2\", 2500000.75 ,extra\n"
+                + "\n"
+                + "user_3,\n"
+                + ",1000\n"
+                + "user_4,-5\n"
+                + "user_5,12abc\n"
+                + "user_6,300");
+
+        // When
+        RecordParser.ParsedChunk chunk = csv.parse(buffer, true);
+
+        // Then
+        assertThat(chunk.size()).isEqualTo(3);
+        assertThat(chunk.userId(0)).isEqualTo("user_1");
+        assertThat(chunk.amount(0)).isEqualTo(1500000.0);
+        assertThat(chunk.userId(1)).isEqualTo("user_2");
+        assertThat(chunk.amount(1)).isEqualTo(2500000.75);
+        assertThat(chunk.userId(2)).isEqualTo("user_6");
+        assertThat(chunk.amount(2)).isEqualTo(300.0);
+        assertThat(chunk.rejected()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should count an invalid first line as rejected outside the first chunk")
+    void parse_HeaderOnlyInFirstChunk() {
+        // When
+        RecordParser.ParsedChunk chunk = csv.parse(bytes("userId,amount\nuser_1,10\n"), false);
+
+        // Then
+        assertThat(chunk.size()).isEqualTo(1);
+        assertThat(chunk.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should parse space padded fixed-width records")
+    void parse_FixedWidth() {
+        // Given
+        ByteBuffer buffer = bytes("user_1  " + "   1500000.5" + "\n"
+                + "user_22 " + "000000002000" + "\n"
+                + "        " + "000000002000" + "\n"
+                + "user_3\n");
+
+        // When
+        RecordParser.ParsedChunk chunk = fixed.parse(buffer, false);
+
+        // Then
+        assertThat(chunk.size()).isEqualTo(2);
+        assertThat(chunk.userId(0)).isEqualTo("user_1");
+        assertThat(chunk.amount(0)).isEqualTo(1500000.5);
+        assertThat(chunk.userId(1)).isEqualTo("user_22");
+        assertThat(chunk.amount(1)).isEqualTo(2000.0);
+        assertThat(chunk.rejected()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject amounts that do not fit exactly in a long")
+    void parseAmount_TooManyDigits() {
+        ByteBuffer buffer = bytes("1234567890123456789");
+
+        assertThat(RecordParser.parseAmount(buffer, 0, 18)).isEqualTo(123456789012345678.0);
+        assertThat(RecordParser.parseAmount(buffer, 0, 19)).isNaN();
+    }
+
+    private static ByteBuffer bytes(String content) {
+        return ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,128 @@
+package com.prestek.davivienda.repository;
+
+import com.prestek.FinancialEntityCore.model.Application;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sin transacción de test: cada claim corre en su propia transacción, como dos workers
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.prestek.davivienda.repository.ReviewQueueClaimTest$RecordingInspector")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("test")
+@DisplayName("Review queue claim (findForClaim)")
+class ReviewQueueClaimTest {
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        applicationRepository.deleteAll();
+        for (int i = 0; i < 4; i++) {
+            applicationRepository.save(application("user_" + i));
+        }
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should lock with SKIP LOCKED so concurrent claims get disjoint rows")
+    void findForClaim_ConcurrentTransactions_GetDisjointRows() throws Exception {
+        // Given
+        CountDownLatch firstClaimed = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = claim();
+            firstClaimed.countDown();
+            await(secondDone);
+            return ids;
+        }));
+        assertThat(firstClaimed.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        List<Long> second;
+        try {
+            second = transactionTemplate.execute(status -> claim());
+        } finally {
+            secondDone.countDown();
+        }
+
+        // Then
+        List<Long> firstIds = first.get(10, TimeUnit.SECONDS);
+        assertThat(firstIds).hasSize(2);
+        assertThat(second).hasSize(2).doesNotContainAnyElementsOf(firstIds);
+        assertThat(RecordingInspector.STATEMENTS)
+                .filteredOn(sql -> sql.toLowerCase().contains("for update"))
+                .isNotEmpty()
+                .allSatisfy(sql -> assertThat(sql.toLowerCase()).contains("skip locked"));
+    }
+
+    private List<Long> claim() {
+        return applicationRepository.findForClaim(Application.ApplicationStatus.PENDING, PageRequest.of(0, 2))
+                .stream()
+                .map(Application::getId)
+                .toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Application application(String userId) {
+        return Application.builder()
+                .userId(userId)
+                .amount(5_000_000.0)
+                .status(Application.ApplicationStatus.PENDING)
+                .applicationDate(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.prestek.davivienda.repository;
+
+import com.prestek.FinancialEntityCore.model.Application;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sin transacción de test: la caché de consultas ignora resultados mientras
+// la tabla tiene escrituras sin commit
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles({"test", "l2cache"})
+@DisplayName("Hibernate second-level cache (l2cache profile)")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated findById from the entity region")
+    void findById_SecondRead_HitsCache() {
+        // Given
+        Long id = applicationRepository.save(application("user_1")).getId();
+
+        // When
+        applicationRepository.findById(id);
+        Application cached = applicationRepository.findById(id).orElseThrow();
+
+        // Then
+        assertThat(cached.getUserId()).isEqualTo("user_1");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(1);
+        assertThat(statistics.getCacheRegionStatistics(Application.class.getName()).getHitCount())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should cache findByUserIdAndStatus in its own query region")
+    void findByUserIdAndStatus_SecondCall_HitsQueryCache() {
+        // Given
+        applicationRepository.save(application("user_2"));
+
+        // When
+        applicationRepository.findByUserIdAndStatus("user_2", Application.ApplicationStatus.PENDING);
+        List<Application> result =
+                applicationRepository.findByUserIdAndStatus("user_2", Application.ApplicationStatus.PENDING);
+
+        // Then
+        assertThat(result).hasSize(1);
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThanOrEqualTo(1);
+        assertThat(statistics.getQueryRegionStatistics("applications.byUserAndStatus").getHitCount())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    private static Application application(String userId) {
+        return Application.builder()
+                .userId(userId)
+                .amount(5_000_000.0)
+                .status(Application.ApplicationStatus.PENDING)
+                .applicationDate(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.prestek.davivienda.service;
+
+import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.davivienda.repository.ApplicationRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ApplicationCsvExporter Unit Tests")
+class ApplicationCsvExporterTest {
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationCsvExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new ApplicationCsvExporter(applicationRepository, entityManager, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should write a header and one escaped row per application, detaching each one")
+    void export_WritesRowsAndDetaches() throws Exception {
+        // Given
+        Application approved = Application.builder()
+                .id(1L)
+                .userId("user123")
+                .amount(50000000.0)
+                .status(Application.ApplicationStatus.APPROVED)
+                .applicationDate(LocalDateTime.of(2025, 3, 1, 9, 15))
+                .approvalDate(LocalDateTime.of(2025, 3, 2, 10, 0, 30))
+                .notes("Cliente \"preferente\", sin mora")
+                .build();
+        Application rejected = Application.builder()
+                .id(2L)
+                .userId("user456")
+                .status(Application.ApplicationStatus.REJECTED)
+                .rejectionReason("EXPIRED")
+                .build();
+        when(applicationRepository.streamForExport("user123", null)).thenReturn(Stream.of(approved, rejected));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = exporter.export("user123", null, out);
+
+        // Then
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(ApplicationCsvExporter.HEADER + "\n"
+                + "1,user123,50000000,APPROVED,2025-03-01T09:15,,2025-03-02T10:00:30,,"
+                + "\"Cliente \"\"preferente\"\", sin mora\",,\n"
+                + "2,user456,,REJECTED,,,,EXPIRED,,,\n");
+        verify(entityManager).detach(approved);
+        verify(entityManager).detach(rejected);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should write only the header when nothing matches")
+    void export_EmptyResult() throws Exception {
+        // Given
+        when(applicationRepository.streamForExport(null, Application.ApplicationStatus.PENDING))
+                .thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = exporter.export(null, Application.ApplicationStatus.PENDING, out);
+
+        // Then
+        assertThat(rows).isZero();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(ApplicationCsvExporter.HEADER + "\n");
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    @DisplayName("Should prefix text cells that a spreadsheet would evaluate as formulas")
+    void writeRow_FormulaCells_AreNeutralized() throws Exception {
+        // Given
+        Application application = Application.builder()
+                .id(3L)
+                .userId("@SUM(A1:A9)")
+                .rejectionReason("-2+3")
+                .notes("=HYPERLINK(\"http://evil.example\",\"ver\")")
+                .build();
+        StringWriter out = new StringWriter();
+
+        // When
+        ApplicationCsvExporter.writeRow(out, application);
+
+        // Then
+        assertThat(out.toString()).isEqualTo("3,'@SUM(A1:A9),,,,,,'-2+3,"
+                + "\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"ver\"\")\",,\n");
+    }
+}
@@ -1,15 +1,25 @@
 package com.prestek.davivienda.service;
 
+import com.prestek.davivienda.archive.ApplicationArchive;
+import com.prestek.davivienda.repository.ApplicationLeaseRepository;
+import com.prestek.davivienda.repository.ApplicationQuoteInputsRepository;
 import com.prestek.davivienda.repository.ApplicationRepository;
+import com.prestek.davivienda.repository.IndicativeRateRepository;
 import com.prestek.FinancialEntityCore.dto.ApplicationDto;
 import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.davivienda.model.ApplicationLease;
+import com.prestek.davivienda.model.ApplicationQuoteInputs;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -17,7 +27,9 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +39,27 @@ class ApplicationServiceTest {
     @Mock
     private ApplicationRepository applicationRepository;
 
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Mock
+    private GroupCommitWriter groupCommitWriter;
+
+    @Mock
+    private ApplicationLeaseRepository applicationLeaseRepository;
+
+    @Mock
+    private ApplicationArchive applicationArchive;
+
+    @Mock
+    private ApplicationQuoteInputsRepository applicationQuoteInputsRepository;
+
+    @Mock
+    private IndicativeRateRepository indicativeRateRepository;
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(0, 100);
+
     @InjectMocks
     private ApplicationService applicationService;
 
@@ -95,6 +128,42 @@ class ApplicationServiceTest {
         // Then
         assertThat(result).isEmpty();
         verify(applicationRepository, times(1)).findById(999L);
+        verify(applicationArchive, times(1)).find(999L);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the archive when the application is no longer live")
+    void shouldGetArchivedApplicationById() {
+        // Given
+        ApplicationDto archived = ApplicationDto.builder()
+                .id(7L)
+                .userId(testUserId)
+                .status(Application.ApplicationStatus.APPROVED)
+                .build();
+        when(applicationRepository.findById(7L)).thenReturn(Optional.empty());
+        when(applicationArchive.find(7L)).thenReturn(Optional.of(archived));
+
+        // When
+        Optional<ApplicationDto> result = applicationService.getApplicationById(7L);
+
+        // Then
+        assertThat(result).contains(archived);
+    }
+
+    @Test
+    @DisplayName("Should read through the coalescer unless the caller needs the primary")
+    void shouldBypassCoalescerAfterOwnWrite() {
+        // Given
+        when(applicationRepository.findById(1L)).thenReturn(Optional.of(testApplication));
+        when(readYourWritesTracker.requiresPrimary()).thenReturn(false, true);
+
+        // When
+        applicationService.getApplicationById(1L);
+        applicationService.getApplicationById(1L);
+
+        // Then
+        verify(requestCoalescer, times(1)).execute(any(), any());
+        verify(applicationRepository, times(2)).findById(1L);
     }
 
     @Test
@@ -148,6 +217,7 @@ class ApplicationServiceTest {
         assertThat(result.getAmount()).isEqualTo(testAmount);
         assertThat(result.getStatus()).isEqualTo(Application.ApplicationStatus.PENDING);
         verify(applicationRepository, times(1)).save(any(Application.class));
+        verify(readYourWritesTracker, times(1)).recordWrite();
     }
 
     @Test
@@ -168,6 +238,86 @@ class ApplicationServiceTest {
         verify(applicationRepository, times(1)).save(any(Application.class));
     }
 
+    @Test
+    @DisplayName("Should claim pending applications under a lease for the caller")
+    @SuppressWarnings("unchecked")
+    void shouldClaimPendingApplications() {
+        // Given
+        when(applicationRepository.findForClaim(eq(Application.ApplicationStatus.PENDING), any(Pageable.class)))
+                .thenReturn(List.of(testApplication));
+
+        // When
+        List<ApplicationDto> result = applicationService.claimApplications(10);
+
+        // Then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getStatus()).isEqualTo(Application.ApplicationStatus.UNDER_REVIEW);
+        assertThat(result.get(0).getReviewDate()).isNotNull();
+        ArgumentCaptor<List<ApplicationLease>> leases = ArgumentCaptor.forClass(List.class);
+        verify(applicationLeaseRepository).saveAll(leases.capture());
+        assertThat(leases.getValue()).singleElement().satisfies(lease -> {
+            assertThat(lease.getApplicationId()).isEqualTo(1L);
+            assertThat(lease.getWorkerId()).isEqualTo("anonymous");
+            assertThat(lease.getExpiresAt()).isAfter(lease.getClaimedAt());
+        });
+    }
+
+    @Test
+    @DisplayName("Should release the review lease once an application is decided")
+    void shouldReleaseLeaseOnDecision() {
+        // Given
+        when(applicationRepository.findById(1L)).thenReturn(Optional.of(testApplication));
+        when(applicationRepository.save(any(Application.class))).thenReturn(testApplication);
+
+        // When
+        applicationService.updateApplicationStatus(1L, Application.ApplicationStatus.APPROVED, "ok");
+
+        // Then
+        verify(applicationLeaseRepository, times(1)).deleteByApplicationId(1L);
+    }
+
+    @Test
+    @DisplayName("Should reject a status change while another worker holds the lease")
+    void shouldRejectUpdateLeasedToAnotherWorker() {
+        // Given
+        when(applicationRepository.findById(1L)).thenReturn(Optional.of(testApplication));
+        when(applicationLeaseRepository.findByApplicationIdForUpdate(1L)).thenReturn(Optional.of(ApplicationLease.builder()
+                .applicationId(1L)
+                .workerId("reviewer-2")
+                .claimedAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusMinutes(10))
+                .build()));
+
+        // When & Then
+        assertThatThrownBy(() -> applicationService.updateApplicationStatus(
+                1L, Application.ApplicationStatus.APPROVED, "ok"))
+                .isInstanceOf(ApplicationService.LeaseHeldException.class);
+        verify(applicationRepository, never()).save(any(Application.class));
+        verify(applicationLeaseRepository, never()).deleteByApplicationId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should let the lease holder decide the application")
+    void shouldAllowUpdateByLeaseHolder() {
+        // Given
+        when(applicationRepository.findById(1L)).thenReturn(Optional.of(testApplication));
+        when(applicationRepository.save(any(Application.class))).thenReturn(testApplication);
+        when(applicationLeaseRepository.findByApplicationIdForUpdate(1L)).thenReturn(Optional.of(ApplicationLease.builder()
+                .applicationId(1L)
+                .workerId("anonymous")
+                .claimedAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusMinutes(10))
+                .build()));
+
+        // When
+        Optional<ApplicationDto> result = applicationService.updateApplicationStatus(
+                1L, Application.ApplicationStatus.APPROVED, "ok");
+
+        // Then
+        assertThat(result).isPresent();
+        verify(applicationLeaseRepository, times(1)).deleteByApplicationId(1L);
+    }
+
     @Test
     @DisplayName("Should update application status to REJECTED")
     void shouldUpdateApplicationStatusToRejected() {
@@ -200,7 +350,7 @@ class ApplicationServiceTest {
     }
 
     @Test
-    @DisplayName("Should delete application successfully")
+    @DisplayName("Should delete application with its quote inputs, indicative rate and lease")
     void shouldDeleteApplication() {
         // Given
         when(applicationRepository.existsById(1L)).thenReturn(true);
@@ -213,6 +363,43 @@ class ApplicationServiceTest {
         assertThat(result).isTrue();
         verify(applicationRepository, times(1)).existsById(1L);
         verify(applicationRepository, times(1)).deleteById(1L);
+        verify(applicationQuoteInputsRepository).deleteById(1L);
+        verify(indicativeRateRepository).deleteById(1L);
+        verify(applicationLeaseRepository).deleteByApplicationId(1L);
+    }
+
+    @Test
+    @DisplayName("Should store quote inputs for an existing application")
+    void shouldSaveQuoteInputs() {
+        // Given
+        when(applicationRepository.existsById(1L)).thenReturn(true);
+
+        // When
+        boolean result = applicationService.saveQuoteInputs(1L, new QuoteRequest(1L, 48, 710, 6000000L, 1500000L));
+
+        // Then
+        assertThat(result).isTrue();
+        ArgumentCaptor<ApplicationQuoteInputs> saved = ArgumentCaptor.forClass(ApplicationQuoteInputs.class);
+        verify(applicationQuoteInputsRepository).save(saved.capture());
+        assertThat(saved.getValue().getApplicationId()).isEqualTo(1L);
+        assertThat(saved.getValue().getTermMonths()).isEqualTo(48);
+        assertThat(saved.getValue().getScore()).isEqualTo(710);
+        assertThat(saved.getValue().getMonthlyIncome()).isEqualTo(6000000L);
+        assertThat(saved.getValue().getMonthlyExpenses()).isEqualTo(1500000L);
+    }
+
+    @Test
+    @DisplayName("Should not store quote inputs for a missing application")
+    void shouldNotSaveQuoteInputsForMissingApplication() {
+        // Given
+        when(applicationRepository.existsById(999L)).thenReturn(false);
+
+        // When
+        boolean result = applicationService.saveQuoteInputs(999L, new QuoteRequest(1L, 48, 710, 6000000L, 1500000L));
+
+        // Then
+        assertThat(result).isFalse();
+        verify(applicationQuoteInputsRepository, never()).save(any());
     }
 
     @Test
@@ -227,6 +414,8 @@ class ApplicationServiceTest {
         // Then
         assertThat(result).isFalse();
         verify(applicationRepository, never()).deleteById(anyLong());
+        verify(indicativeRateRepository, never()).deleteById(anyLong());
+        verify(applicationLeaseRepository, never()).deleteByApplicationId(anyLong());
     }
 
     @Test
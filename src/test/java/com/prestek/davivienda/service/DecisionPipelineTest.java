@@ -0,0 +1,237 @@
+package com.prestek.davivienda.service;
+
+import com.prestek.davivienda.model.ApplicationQuoteInputs;
+import com.prestek.davivienda.repository.ApplicationLeaseRepository;
+import com.prestek.davivienda.repository.ApplicationQuoteInputsRepository;
+import com.prestek.davivienda.repository.ApplicationRepository;
+import com.prestek.FinancialEntityCore.dto.ApplicationDto;
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DecisionPipeline Unit Tests")
+class DecisionPipelineTest {
+
+    @Mock
+    private ApplicationService applicationService;
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private ApplicationLeaseRepository applicationLeaseRepository;
+
+    @Mock
+    private ApplicationQuoteInputsRepository applicationQuoteInputsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private static final String WORKER_ID = DecisionPipeline.WORKER_ID_PREFIX + "/node-a";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QuoteEligibilityFilter eligibilityFilter = QuoteEligibilityFilter.defaults();
+    private DecisionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new DecisionPipeline(applicationService, applicationRepository, applicationLeaseRepository,
+                applicationQuoteInputsRepository, new RequestCoalescer(0, 100), transactionManager,
+                new QuoteService().kernel(), eligibilityFilter, meterRegistry,
+                true, 3, 10, 2,
+                new DecisionPipeline.Rules(100_000_000, 0.8, 20_000_000, 0.35),
+                WORKER_ID, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Should only refer rows without quote inputs, flagging invalid amounts and exposure")
+    void refer_WithoutInputs_AlwaysRefers() {
+        assertThat(pipeline.refer(5_000_000, 0).reason()).isNull();
+        assertThat(pipeline.refer(0, 0).reason()).isEqualTo("INVALID_AMOUNT");
+        assertThat(pipeline.refer(5_000_000, 99_000_000).outcome()).isEqualTo(DecisionPipeline.Outcome.REFER);
+        assertThat(pipeline.refer(5_000_000, 99_000_000).note())
+                .isEqualTo("Referred to manual review: EXPOSURE_LIMIT");
+    }
+
+    @Test
+    @DisplayName("Should approve, reject or refer rows with quote inputs")
+    void decide_WithInputs_AppliesRules() {
+        ApplicationQuoteInputs profile = inputs(1L, 700, 2_000_000L, 500_000L);
+
+        assertThat(pipeline.decide(5_000_000, 0, profile, QuoteEligibility.ELIGIBLE, 300_000, 0.25))
+                .isEqualTo(new DecisionPipeline.Decision(DecisionPipeline.Outcome.APPROVE, null));
+        assertThat(pipeline.decide(5_000_000, 0, profile, QuoteEligibility.SCORE_OUT_OF_RANGE, 0, 0).reason())
+                .isEqualTo("SCORE_OUT_OF_RANGE");
+        assertThat(pipeline.decide(5_000_000, 99_000_000, profile, QuoteEligibility.ELIGIBLE, 300_000, 0.25).reason())
+                .isEqualTo("EXPOSURE_LIMIT");
+        assertThat(pipeline.decide(5_000_000, 0, profile, QuoteEligibility.ELIGIBLE, 1_200_000, 0.25).note())
+                .isEqualTo("Auto-rejected by decisioning pipeline: AFFORDABILITY");
+        assertThat(pipeline.decide(30_000_000, 0, profile, QuoteEligibility.ELIGIBLE, 300_000, 0.25).outcome())
+                .isEqualTo(DecisionPipeline.Outcome.REFER);
+    }
+
+    @Test
+    @DisplayName("Should approve and reject scored rows and refer the rest, all under the pipeline's lease")
+    void runOnce_ApprovesRejectsAndRefers() {
+        // Given: 1 y 2 con datos del solicitante (2 con score fuera de rango), 3 sin datos
+        when(applicationService.claimApplications(WORKER_ID, 3, DecisionPipeline.REFERRED_NOTE))
+                .thenReturn(List.of(application(1L, "user_a", 5_000_000.0), application(2L, "user_b", 5_000_000.0),
+                        application(3L, "user_c", 5_000_000.0)))
+                .thenReturn(List.of());
+        when(applicationRepository.sumAmountByUserIdIn(anyCollection(), eq(ApplicationStatus.APPROVED)))
+                .thenReturn(List.of());
+        when(applicationQuoteInputsRepository.findAllById(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(inputs(1L, 780, 8_000_000L, 1_000_000L), inputs(2L, 100, 8_000_000L, 1_000_000L)));
+        when(applicationRepository.decide(anyCollection(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(1);
+        when(applicationRepository.refer(anyCollection(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        // When
+        int claimed = pipeline.runOnce();
+
+        // Then
+        assertThat(claimed).isEqualTo(3);
+        verify(applicationService, times(2))
+                .claimApplications(WORKER_ID, 3, DecisionPipeline.REFERRED_NOTE);
+        verify(applicationRepository).lockByUserIdIn(Set.of("user_a"));
+        verify(applicationRepository).decide(eq(List.of(1L)), eq(ApplicationStatus.UNDER_REVIEW),
+                eq(ApplicationStatus.APPROVED), any(LocalDateTime.class), isNull(),
+                eq("Auto-approved by decisioning pipeline"), eq(WORKER_ID), any());
+        verify(applicationRepository).decide(eq(List.of(2L)), eq(ApplicationStatus.UNDER_REVIEW),
+                eq(ApplicationStatus.REJECTED), isNull(), eq("SCORE_OUT_OF_RANGE"),
+                eq("Auto-rejected by decisioning pipeline: SCORE_OUT_OF_RANGE"), eq(WORKER_ID),
+                any());
+        verify(applicationRepository).refer(eq(List.of(3L)), eq(ApplicationStatus.UNDER_REVIEW),
+                eq(ApplicationStatus.PENDING), eq("Referred to manual review"), eq(WORKER_ID), any());
+        verify(applicationRepository, never()).decide(anyCollection(), any(), any(), any(), any(), any(), any());
+        verify(applicationLeaseRepository).deleteByApplicationIdInAndWorkerId(List.of(1L, 2L, 3L),
+                WORKER_ID);
+        verify(transactionManager, times(1)).commit(any());
+        assertThat(meterRegistry.get("application.decisioning.decisions").tag("outcome", "approve")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("application.decisioning.decisions").tag("outcome", "reject")
+                .tag("reason", "score_out_of_range").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("application.decisioning.decisions").tag("outcome", "refer")
+                .tag("reason", "none").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("application.decisioning.stage").tag("stage", "score")
+                .timer().count()).isEqualTo(1);
+        // Las estadísticas de /api/quotes/eligibility/stats no cuentan al pipeline
+        assertThat(eligibilityFilter.counts()).allSatisfy((verdict, count) -> assertThat(count).isZero());
+    }
+
+    @Test
+    @DisplayName("Should reject an approval when another chunk used up the user's exposure before the update")
+    void runOnce_ExposureTakenConcurrently_RejectsUnderLock() {
+        // Given: enrich no ve exposición; al actualizar, otro chunk ya aprobó 98M para user_a
+        when(applicationService.claimApplications(WORKER_ID, 3, DecisionPipeline.REFERRED_NOTE))
+                .thenReturn(List.of(application(1L, "user_a", 5_000_000.0)))
+                .thenReturn(List.of());
+        when(applicationRepository.sumAmountByUserIdIn(anyCollection(), eq(ApplicationStatus.APPROVED)))
+                .thenReturn(List.of())
+                .thenReturn(List.<Object[]>of(new Object[] {"user_a", 98_000_000.0}));
+        when(applicationQuoteInputsRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(inputs(1L, 780, 8_000_000L, 1_000_000L)));
+        when(applicationRepository.decide(anyCollection(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(1);
+
+        // When
+        pipeline.runOnce();
+
+        // Then
+        InOrder order = inOrder(applicationRepository);
+        order.verify(applicationRepository).lockByUserIdIn(Set.of("user_a"));
+        order.verify(applicationRepository).decide(eq(List.of(1L)), eq(ApplicationStatus.UNDER_REVIEW),
+                eq(ApplicationStatus.REJECTED), isNull(), eq("EXPOSURE_LIMIT"),
+                eq("Auto-rejected by decisioning pipeline: EXPOSURE_LIMIT"), eq(WORKER_ID),
+                any());
+        verify(applicationRepository, never()).decide(anyCollection(), any(), eq(ApplicationStatus.APPROVED),
+                any(), any(), any(), any(), any());
+        assertThat(meterRegistry.get("application.decisioning.decisions").tag("outcome", "reject")
+                .tag("reason", "exposure_limit").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should end the tick instead of blocking the scheduler when every in-flight slot is taken")
+    void runOnce_PoolSaturated_EndsTick() {
+        // Given: el executor retiene los chunks, así que los 2 permisos no se liberan
+        List<Runnable> held = new ArrayList<>();
+        DecisionPipeline saturated = new DecisionPipeline(applicationService, applicationRepository,
+                applicationLeaseRepository, applicationQuoteInputsRepository, new RequestCoalescer(0, 100),
+                transactionManager, new QuoteService().kernel(), QuoteEligibilityFilter.defaults(), meterRegistry,
+                true, 3, 10, 2,
+                new DecisionPipeline.Rules(100_000_000, 0.8, 20_000_000, 0.35),
+                WORKER_ID, held::add);
+        when(applicationService.claimApplications(WORKER_ID, 3, DecisionPipeline.REFERRED_NOTE))
+                .thenReturn(List.of(application(1L, "user_a", 5_000_000.0), application(2L, "user_b", 5_000_000.0),
+                        application(3L, "user_c", 5_000_000.0)));
+
+        // When
+        int claimed = saturated.runOnce();
+
+        // Then
+        assertThat(claimed).isEqualTo(6);
+        assertThat(held).hasSize(2);
+        verify(applicationService, times(2)).claimApplications(WORKER_ID, 3, DecisionPipeline.REFERRED_NOTE);
+    }
+
+    @Test
+    @DisplayName("Should release the in-flight slot when a chunk fails so later ticks keep running")
+    void runOnce_ChunkFailure_ReleasesBackpressure() {
+        // Given
+        when(applicationService.claimApplications(WORKER_ID, 3, DecisionPipeline.REFERRED_NOTE))
+                .thenReturn(List.of(application(1L, "user_a", 5_000_000.0)));
+        when(applicationRepository.sumAmountByUserIdIn(anyCollection(), eq(ApplicationStatus.APPROVED)))
+                .thenThrow(new IllegalStateException("db down"));
+
+        // When
+        pipeline.runOnce();
+        pipeline.runOnce();
+        int claimed = pipeline.runOnce();
+
+        // Then
+        assertThat(claimed).isEqualTo(1);
+        verify(applicationService, times(3))
+                .claimApplications(WORKER_ID, 3, DecisionPipeline.REFERRED_NOTE);
+        verify(applicationLeaseRepository, never()).deleteByApplicationIdInAndWorkerId(any(), any());
+    }
+
+    private static ApplicationQuoteInputs inputs(Long id, int score, long monthlyIncome, long monthlyExpenses) {
+        return ApplicationQuoteInputs.builder()
+                .applicationId(id)
+                .termMonths(36)
+                .score(score)
+                .monthlyIncome(monthlyIncome)
+                .monthlyExpenses(monthlyExpenses)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static ApplicationDto application(Long id, String userId, Double amount) {
+        return ApplicationDto.builder()
+                .id(id)
+                .userId(userId)
+                .amount(amount)
+                .status(ApplicationStatus.UNDER_REVIEW)
+                .build();
+    }
+}
@@ -0,0 +1,181 @@
+package com.prestek.davivienda.service;
+
+import com.prestek.davivienda.repository.ApplicationRepository;
+import com.prestek.FinancialEntityCore.model.Application;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GroupCommitWriter Unit Tests")
+class GroupCommitWriterTest {
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong ids = new AtomicLong();
+    private GroupCommitWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new GroupCommitWriter(applicationRepository, transactionManager, new SimpleMeterRegistry(),
+                true, 10, 5, 3, 50);
+    }
+
+    @Test
+    @DisplayName("Should insert queued rows in one transaction and complete each caller with its id")
+    void drainAndFlush_CommitsBatchOnce() throws Exception {
+        // Given
+        when(applicationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Application> rows = invocation.getArgument(0);
+            List<Application> saved = new ArrayList<>();
+            rows.forEach(row -> saved.add(withId(row)));
+            return saved;
+        });
+        CompletableFuture<Application> first = writer.enqueue(() -> application("user_1"));
+        CompletableFuture<Application> second = writer.enqueue(() -> application("user_2"));
+
+        // When
+        int flushed = writer.drainAndFlush();
+
+        // Then
+        assertThat(flushed).isEqualTo(2);
+        assertThat(first.get().getUserId()).isEqualTo("user_1");
+        assertThat(second.get().getUserId()).isEqualTo("user_2");
+        assertThat(first.get().getId()).isNotEqualTo(second.get().getId());
+        verify(transactionManager, times(1)).commit(any());
+        verify(applicationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should roll back a failed batch and retry each row so only the bad row fails")
+    void drainAndFlush_BatchFailure_RetriesRowByRow() {
+        // Given
+        when(applicationRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("amount check"));
+        when(applicationRepository.save(any(Application.class))).thenAnswer(invocation -> {
+            Application row = invocation.getArgument(0);
+            if ("bad_user".equals(row.getUserId())) {
+                throw new DataIntegrityViolationException("amount check");
+            }
+            return withId(row);
+        });
+        CompletableFuture<Application> good = writer.enqueue(() -> application("user_1"));
+        CompletableFuture<Application> bad = writer.enqueue(() -> application("bad_user"));
+        CompletableFuture<Application> alsoGood = writer.enqueue(() -> application("user_3"));
+
+        // When
+        writer.drainAndFlush();
+
+        // Then
+        assertThat(good.join().getId()).isNotNull();
+        assertThat(alsoGood.join().getId()).isNotNull();
+        assertThatThrownBy(bad::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+        verify(applicationRepository, times(3)).save(any(Application.class));
+    }
+
+    @Test
+    @DisplayName("Should refuse to queue beyond capacity")
+    void enqueue_Full_ReturnsNull() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            writer.enqueue(() -> application("user"));
+        }
+
+        // When
+        CompletableFuture<Application> overflow = writer.enqueue(() -> application("user"));
+
+        // Then
+        assertThat(overflow).isNull();
+    }
+
+    @Test
+    @DisplayName("Should insert directly when the committer is not running")
+    void save_NotRunning_InsertsDirectly() {
+        // Given
+        when(applicationRepository.save(any(Application.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+
+        // When
+        Application saved = writer.save(() -> application("user_1"));
+
+        // Then
+        assertThat(saved.getId()).isNotNull();
+        verify(applicationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should take back a row nobody committed and insert it directly after the timeout")
+    void await_StillQueued_InsertsDirectly() {
+        // Given
+        when(applicationRepository.save(any(Application.class))).thenAnswer(invocation -> withId(invocation.getArgument(0)));
+        CompletableFuture<Application> stranded = writer.enqueue(() -> application("user_1"));
+
+        // When
+        Application saved = writer.await(stranded, () -> application("user_1"));
+
+        // Then
+        assertThat(saved.getId()).isNotNull();
+        assertThat(writer.drainAndFlush()).isZero();
+        verify(applicationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should wait for a row already in a flushing batch instead of failing after the timeout")
+    void await_InFlightBatch_WaitsForResult() {
+        // Given: el committer ya sacó la fila de la cola y su lote tarda más de dos timeouts
+        CompletableFuture<Application> inFlight = new CompletableFuture<>();
+        Application committed = withId(application("user_1"));
+        CompletableFuture.delayedExecutor(150, TimeUnit.MILLISECONDS).execute(() -> inFlight.complete(committed));
+
+        // When
+        Application saved = writer.await(inFlight, () -> application("user_1"));
+
+        // Then
+        assertThat(saved).isSameAs(committed);
+        verify(applicationRepository, never()).save(any(Application.class));
+    }
+
+    private Application withId(Application row) {
+        return Application.builder()
+                .id(ids.incrementAndGet())
+                .userId(row.getUserId())
+                .amount(row.getAmount())
+                .status(row.getStatus())
+                .applicationDate(row.getApplicationDate())
+                .build();
+    }
+
+    private static Application application(String userId) {
+        return Application.builder()
+                .userId(userId)
+                .amount(5_000_000.0)
+                .status(Application.ApplicationStatus.PENDING)
+                .build();
+    }
+}
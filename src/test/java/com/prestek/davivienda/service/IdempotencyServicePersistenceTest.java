@@ -0,0 +1,131 @@
+package com.prestek.davivienda.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * idempotency.persistent=true against H2 with auto-commit off, as the prod
+ * pool runs. Two service instances share the table, standing in for two nodes.
+ */
+@DisplayName("IdempotencyService Persistence Tests")
+class IdempotencyServicePersistenceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private IdempotencyService nodeA;
+    private IdempotencyService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:idempotency_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1") {
+            @Override
+            protected Connection getConnectionFromDriver(Properties props) throws SQLException {
+                Connection connection = super.getConnectionFromDriver(props);
+                connection.setAutoCommit(false);
+                return connection;
+            }
+        };
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate.execute("CREATE TABLE idempotency_keys (idem_key VARCHAR(300) PRIMARY KEY, "
+                + "fingerprint VARCHAR(64) NOT NULL, response_body VARCHAR(8192), "
+                + "created_at TIMESTAMP(6) NOT NULL, expires_at TIMESTAMP(6) NOT NULL)");
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        nodeA = new IdempotencyService(jdbcTemplate, transactionManager, objectMapper, 60, 1000, true, System::nanoTime);
+        nodeB = new IdempotencyService(jdbcTemplate, transactionManager, objectMapper, 60, 1000, true, System::nanoTime);
+    }
+
+    @Test
+    @DisplayName("Should commit the claim and response so another node replays it")
+    void execute_OtherNode_ReplaysStoredResponse() {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+        nodeA.execute("k1", "user-1|1000.0", String.class, () -> "app-" + runs.incrementAndGet());
+
+        // When
+        IdempotencyService.Result<String> replay = nodeB.execute("k1", "user-1|1000.0", String.class,
+                () -> "app-" + runs.incrementAndGet());
+
+        // Then
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(replay.replayed()).isTrue();
+        assertThat(replay.value()).isEqualTo("app-1");
+    }
+
+    @Test
+    @DisplayName("Should store the SHA-256 of the fingerprint, not the payload")
+    void execute_StoresHashedFingerprint() {
+        // When
+        nodeA.execute("k1", "user-1|1000.0", String.class, () -> "app");
+
+        // Then
+        String stored = jdbcTemplate.queryForObject("SELECT fingerprint FROM idempotency_keys", String.class);
+        assertThat(stored).hasSize(64).isEqualTo(IdempotencyService.sha256("user-1|1000.0")).doesNotContain("user-1");
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused on another node with a different payload")
+    void execute_OtherNodeDifferentPayload_Throws() {
+        // Given
+        nodeA.execute("k1", "user-1|1000.0", String.class, () -> "app");
+
+        // When & Then
+        assertThatThrownBy(() -> nodeB.execute("k1", "user-1|2000.0", String.class, () -> "other"))
+                .isInstanceOf(IdempotencyService.KeyReusedException.class);
+    }
+
+    @Test
+    @DisplayName("Should release the committed claim when the action fails")
+    void execute_ActionFails_ReleasesKey() {
+        // Given
+        assertThatThrownBy(() -> nodeA.execute("k1", "fp", String.class, () -> {
+            throw new IllegalArgumentException("boom");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        // When
+        IdempotencyService.Result<String> retry = nodeB.execute("k1", "fp", String.class, () -> "app");
+
+        // Then
+        assertThat(retry.replayed()).isFalse();
+        assertThat(retry.value()).isEqualTo("app");
+    }
+
+    @Test
+    @DisplayName("Should return the result and keep the claim when the response cannot be stored")
+    void execute_StoreFails_KeepsClaim() {
+        // Given: Jackson no puede serializar un Object vacío
+        Object created = new Object();
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        IdempotencyService.Result<Object> first = nodeA.execute("k1", "fp", Object.class, () -> {
+            runs.incrementAndGet();
+            return created;
+        });
+
+        // Then
+        assertThat(first.replayed()).isFalse();
+        assertThat(first.value()).isSameAs(created);
+        assertThat(nodeA.execute("k1", "fp", Object.class, Object::new).value()).isSameAs(created);
+        assertThatThrownBy(() -> nodeB.execute("k1", "fp", Object.class, () -> {
+            runs.incrementAndGet();
+            return new Object();
+        })).isInstanceOf(IdempotencyService.KeyInProgressException.class);
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,149 @@
+package com.prestek.davivienda.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("IdempotencyService Unit Tests")
+class IdempotencyServiceTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService(null, null, new ObjectMapper(), 60, 1000, false, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should run the action once and replay the result for the same key")
+    void execute_SameKey_ReplaysResult() {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        IdempotencyService.Result<String> first = service.execute("k1", "fp", String.class,
+                () -> "app-" + runs.incrementAndGet());
+        IdempotencyService.Result<String> second = service.execute("k1", "fp", String.class,
+                () -> "app-" + runs.incrementAndGet());
+
+        // Then
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(first.replayed()).isFalse();
+        assertThat(second.replayed()).isTrue();
+        assertThat(second.value()).isEqualTo("app-1");
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused with a different fingerprint")
+    void execute_DifferentFingerprint_Throws() {
+        // Given
+        service.execute("k1", "fp-a", String.class, () -> "app");
+
+        // When & Then
+        assertThatThrownBy(() -> service.execute("k1", "fp-b", String.class, () -> "other"))
+                .isInstanceOf(IdempotencyService.KeyReusedException.class);
+    }
+
+    @Test
+    @DisplayName("Should release the key when the action fails so a retry runs again")
+    void execute_ActionFails_KeyReleased() {
+        // Given
+        assertThatThrownBy(() -> service.execute("k1", "fp", String.class, () -> {
+            throw new IllegalArgumentException("boom");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        // When
+        IdempotencyService.Result<String> retry = service.execute("k1", "fp", String.class, () -> "app");
+
+        // Then
+        assertThat(retry.replayed()).isFalse();
+        assertThat(retry.value()).isEqualTo("app");
+    }
+
+    @Test
+    @DisplayName("Should run the action again once the key expires")
+    void execute_AfterTtl_RunsAgain() {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+        service.execute("k1", "fp", String.class, () -> "app-" + runs.incrementAndGet());
+
+        // When
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        IdempotencyService.Result<String> later = service.execute("k1", "fp", String.class,
+                () -> "app-" + runs.incrementAndGet());
+
+        // Then
+        assertThat(later.replayed()).isFalse();
+        assertThat(later.value()).isEqualTo("app-2");
+    }
+
+    @Test
+    @DisplayName("Should make concurrent duplicates wait for the in-flight request")
+    void execute_ConcurrentDuplicates_SingleFlight() throws Exception {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        try {
+            // When
+            Future<IdempotencyService.Result<String>> original = pool.submit(() ->
+                    service.execute("k1", "fp", String.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return "app-" + runs.incrementAndGet();
+                    }));
+            started.await(5, TimeUnit.SECONDS);
+            Future<IdempotencyService.Result<String>> duplicate1 = pool.submit(() ->
+                    service.execute("k1", "fp", String.class, () -> "app-" + runs.incrementAndGet()));
+            Future<IdempotencyService.Result<String>> duplicate2 = pool.submit(() ->
+                    service.execute("k1", "fp", String.class, () -> "app-" + runs.incrementAndGet()));
+            release.countDown();
+
+            // Then
+            assertThat(original.get(5, TimeUnit.SECONDS).value()).isEqualTo("app-1");
+            assertThat(duplicate1.get(5, TimeUnit.SECONDS).value()).isEqualTo("app-1");
+            assertThat(duplicate2.get(5, TimeUnit.SECONDS).replayed()).isTrue();
+            assertThat(runs.get()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the in-memory store bounded")
+    void execute_ManyKeys_StaysBounded() {
+        // Given
+        IdempotencyService small = new IdempotencyService(null, null, new ObjectMapper(), 60, 100, false, clock::get);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            small.execute("k" + i, "fp", String.class, () -> "app");
+        }
+
+        // Then
+        assertThat(small.size()).isLessThanOrEqualTo(101);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
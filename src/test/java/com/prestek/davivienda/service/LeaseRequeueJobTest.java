@@ -0,0 +1,72 @@
+package com.prestek.davivienda.service;
+
+import com.prestek.davivienda.model.ApplicationLease;
+import com.prestek.davivienda.repository.ApplicationLeaseRepository;
+import com.prestek.davivienda.repository.ApplicationRepository;
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LeaseRequeueJob Unit Tests")
+class LeaseRequeueJobTest {
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private ApplicationLeaseRepository applicationLeaseRepository;
+
+    @InjectMocks
+    private LeaseRequeueJob job;
+
+    @Test
+    @DisplayName("Should put applications with expired leases back to PENDING and drop the leases")
+    void requeueExpired_ExpiredLeases_RequeuesStillUnderReview() {
+        // Given
+        LocalDateTime past = LocalDateTime.now().minusMinutes(1);
+        List<ApplicationLease> expired = List.of(
+                ApplicationLease.builder().applicationId(1L).workerId("w1").claimedAt(past).expiresAt(past).build(),
+                ApplicationLease.builder().applicationId(2L).workerId("w1").claimedAt(past).expiresAt(past).build());
+        when(applicationLeaseRepository.findExpiredForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(expired);
+        // La 2 ya fue aprobada por el revisor: solo una sigue en revisión
+        when(applicationRepository.requeue(List.of(1L, 2L), ApplicationStatus.UNDER_REVIEW, ApplicationStatus.PENDING))
+                .thenReturn(1);
+
+        // When
+        int requeued = job.requeueExpired();
+
+        // Then
+        assertThat(requeued).isEqualTo(1);
+        verify(applicationLeaseRepository, times(1)).deleteByApplicationIdIn(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no lease has expired")
+    void requeueExpired_NoneExpired_NoWrites() {
+        // Given
+        when(applicationLeaseRepository.findExpiredForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // When
+        int requeued = job.requeueExpired();
+
+        // Then
+        assertThat(requeued).isZero();
+        verifyNoInteractions(applicationRepository);
+        verify(applicationLeaseRepository, never()).deleteByApplicationIdIn(any());
+    }
+}
@@ -0,0 +1,188 @@
+package com.prestek.davivienda.service;
+
+import com.prestek.davivienda.archive.ApplicationArchiver;
+import com.prestek.davivienda.repository.ApplicationRepository;
+import com.prestek.FinancialEntityCore.model.Application.ApplicationStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MaintenanceJob Unit Tests")
+class MaintenanceJobTest {
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private ApplicationArchiver applicationArchiver;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JobLockService jobLockService;
+
+    private final List<Long> sleeps = new ArrayList<>();
+    private MaintenanceJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new MaintenanceJob(applicationRepository, applicationArchiver, transactionManager, new RequestCoalescer(0, 100), jobLockService, new SimpleMeterRegistry(), true,
+                Duration.ofDays(30), Duration.ofDays(365), 2, 10, Duration.ofMillis(50), Duration.ofMinutes(30), sleeps::add);
+        lenient().when(jobLockService.tryAcquire(eq(MaintenanceJob.LOCK_NAME), any(Duration.class))).thenReturn(true);
+        lenient().when(jobLockService.renew(eq(MaintenanceJob.LOCK_NAME), any(Duration.class))).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should expire stale PENDING applications in keyset batches")
+    void run_ExpiresStalePendingInBatches() {
+        // Given
+        when(applicationRepository.findIdsByStatusAppliedBefore(eq(ApplicationStatus.PENDING), any(LocalDateTime.class),
+                eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(applicationRepository.findIdsByStatusAppliedBefore(eq(ApplicationStatus.PENDING), any(LocalDateTime.class),
+                eq(2L), any(Pageable.class))).thenReturn(List.of(7L));
+        when(applicationRepository.findIdsByStatusAppliedBefore(eq(ApplicationStatus.PENDING), any(LocalDateTime.class),
+                eq(7L), any(Pageable.class))).thenReturn(List.of());
+        when(applicationRepository.decide(anyList(), eq(ApplicationStatus.PENDING), eq(ApplicationStatus.REJECTED),
+                any(), eq(MaintenanceJob.EXPIRED_REASON), anyString(), any(LocalDateTime.class)))
+                .thenReturn(2, 1);
+
+        // When
+        job.run();
+
+        // Then
+        MaintenanceJob.Status status = job.status();
+        assertThat(status.state()).isEqualTo(MaintenanceJob.State.COMPLETED);
+        assertThat(status.expired()).isEqualTo(3);
+        assertThat(status.purged()).isZero();
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should purge old REJECTED applications through the archiver")
+    void run_PurgesOldRejectedThroughArchiver() {
+        // Given
+        when(applicationRepository.findIdsByStatusAppliedBefore(any(), any(), any(), any())).thenReturn(List.of());
+        when(applicationArchiver.enabled()).thenReturn(true);
+        when(applicationArchiver.runNow(eq(Set.of(ApplicationStatus.REJECTED)), any(LocalDateTime.class)))
+                .thenReturn(new ApplicationArchiver.Status(ApplicationArchiver.State.COMPLETED, 2, 2, 1,
+                        LocalDateTime.now(), LocalDateTime.now(), null));
+
+        // When
+        job.run();
+
+        // Then
+        assertThat(job.status().state()).isEqualTo(MaintenanceJob.State.COMPLETED);
+        assertThat(job.status().purged()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should skip the purge instead of deleting when archiving is disabled")
+    void run_ArchiveDisabled_SkipsPurge() {
+        // Given
+        when(applicationRepository.findIdsByStatusAppliedBefore(any(), any(), any(), any())).thenReturn(List.of());
+        when(applicationArchiver.enabled()).thenReturn(false);
+
+        // When
+        job.run();
+
+        // Then
+        assertThat(job.status().state()).isEqualTo(MaintenanceJob.State.COMPLETED);
+        assertThat(job.status().purged()).isZero();
+        verify(applicationArchiver, never()).runNow(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fail the run when archiving the REJECTED applications fails")
+    void run_ArchiverFails_MarksFailed() {
+        // Given
+        when(applicationRepository.findIdsByStatusAppliedBefore(any(), any(), any(), any())).thenReturn(List.of());
+        when(applicationArchiver.enabled()).thenReturn(true);
+        when(applicationArchiver.runNow(any(), any())).thenReturn(new ApplicationArchiver.Status(
+                ApplicationArchiver.State.FAILED, 0, 0, 0, LocalDateTime.now(), LocalDateTime.now(), "disk full"));
+
+        // When
+        job.run();
+
+        // Then
+        assertThat(job.status().state()).isEqualTo(MaintenanceJob.State.FAILED);
+        assertThat(job.status().error()).contains("disk full");
+    }
+
+    @Test
+    @DisplayName("Should pause between batches for at least the rows-per-second budget")
+    void run_ThrottlesBetweenBatches() {
+        // Given
+        when(applicationRepository.findIdsByStatusAppliedBefore(eq(ApplicationStatus.PENDING), any(LocalDateTime.class),
+                eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(applicationRepository.findIdsByStatusAppliedBefore(eq(ApplicationStatus.PENDING), any(LocalDateTime.class),
+                eq(2L), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        job.run();
+
+        // Then: 2 filas a 10 filas/s = 200 ms, por encima de la pausa mínima de 50 ms
+        assertThat(sleeps).hasSize(1);
+        assertThat(sleeps.get(0)).isGreaterThan(Duration.ofMillis(150).toNanos())
+                .isLessThanOrEqualTo(Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    @DisplayName("Should skip the run when another node holds the maintenance lock")
+    void run_LockHeldElsewhere_Skips() {
+        // Given
+        when(jobLockService.tryAcquire(eq(MaintenanceJob.LOCK_NAME), any(Duration.class))).thenReturn(false);
+
+        // When
+        job.run();
+
+        // Then
+        assertThat(job.status().state()).isEqualTo(MaintenanceJob.State.SKIPPED);
+        verifyNoInteractions(applicationRepository, applicationArchiver);
+        verify(jobLockService, never()).release(anyString());
+    }
+
+    @Test
+    @DisplayName("Should stop and release the lock when a renewal fails")
+    void run_LockLost_FailsAndReleases() {
+        // Given
+        when(applicationRepository.findIdsByStatusAppliedBefore(eq(ApplicationStatus.PENDING), any(LocalDateTime.class),
+                eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(jobLockService.renew(eq(MaintenanceJob.LOCK_NAME), any(Duration.class))).thenReturn(false);
+
+        // When
+        job.run();
+
+        // Then
+        assertThat(job.status().state()).isEqualTo(MaintenanceJob.State.FAILED);
+        verify(applicationRepository, times(1)).findIdsByStatusAppliedBefore(any(), any(), any(), any());
+        verify(applicationArchiver, never()).runNow(any(), any());
+        verify(jobLockService).release(MaintenanceJob.LOCK_NAME);
+    }
+}
@@ -0,0 +1,88 @@
+package com.prestek.davivienda.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("QuoteEligibilityFilter Unit Tests")
+class QuoteEligibilityFilterTest {
+
+    private QuoteEligibilityFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = QuoteEligibilityFilter.defaults();
+    }
+
+    @Test
+    @DisplayName("Should accept a regular request")
+    void shouldAcceptRegularRequest() {
+        assertThat(filter.check(10000000L, 36, 750, 5000000L, 1000000L))
+                .isEqualTo(QuoteEligibility.ELIGIBLE);
+    }
+
+    @Test
+    @DisplayName("Should reject requests without income")
+    void shouldRejectWithoutIncome() {
+        assertThat(filter.check(10000000L, 36, 750, 0L, 0L))
+                .isEqualTo(QuoteEligibility.NON_POSITIVE_INCOME);
+    }
+
+    @Test
+    @DisplayName("Should reject requests whose expenses are equal to income")
+    void shouldRejectWhenExpensesEqualIncome() {
+        assertThat(filter.check(10000000L, 36, 750, 3000000L, 3000000L))
+                .isEqualTo(QuoteEligibility.DTI_TOO_HIGH);
+    }
+
+    @Test
+    @DisplayName("Should reject amounts, terms and scores outside the configured bounds")
+    void shouldRejectOutOfRangeValues() {
+        assertThat(filter.check(1L, 36, 750, 5000000L, 1000000L))
+                .isEqualTo(QuoteEligibility.AMOUNT_OUT_OF_RANGE);
+        assertThat(filter.check(10000000L, 0, 750, 5000000L, 1000000L))
+                .isEqualTo(QuoteEligibility.TERM_OUT_OF_RANGE);
+        assertThat(filter.check(10000000L, 36, 5000, 5000000L, 1000000L))
+                .isEqualTo(QuoteEligibility.SCORE_OUT_OF_RANGE);
+    }
+
+    @Test
+    @DisplayName("Should honour custom thresholds")
+    void shouldHonourCustomThresholds() {
+        // Given
+        QuoteEligibilityFilter strict = new QuoteEligibilityFilter(1_000_000L, 50_000_000L, 6, 84, 500, 900, 0.6);
+
+        // When & Then
+        assertThat(strict.check(10000000L, 36, 750, 5000000L, 3500000L))
+                .isEqualTo(QuoteEligibility.DTI_TOO_HIGH);
+        assertThat(strict.check(10000000L, 120, 750, 5000000L, 1000000L))
+                .isEqualTo(QuoteEligibility.TERM_OUT_OF_RANGE);
+    }
+
+    @Test
+    @DisplayName("Should count checked requests per verdict")
+    void shouldCountVerdicts() {
+        // When
+        filter.check(10000000L, 36, 750, 5000000L, 1000000L);
+        filter.check(10000000L, 36, 750, 0L, 0L);
+        filter.check(10000000L, 36, 750, 0L, 0L);
+
+        // Then
+        assertThat(filter.count(QuoteEligibility.ELIGIBLE)).isEqualTo(1);
+        assertThat(filter.count(QuoteEligibility.NON_POSITIVE_INCOME)).isEqualTo(2);
+        assertThat(filter.counts()).containsEntry(QuoteEligibility.DTI_TOO_HIGH, 0L);
+    }
+
+    @Test
+    @DisplayName("Should evaluate without touching the quote counters")
+    void shouldEvaluateWithoutCounting() {
+        // When
+        QuoteEligibility verdict = filter.evaluate(10000000L, 36, 750, 0L, 0L);
+
+        // Then
+        assertThat(verdict).isEqualTo(QuoteEligibility.NON_POSITIVE_INCOME);
+        assertThat(filter.counts()).allSatisfy((v, count) -> assertThat(count).isZero());
+    }
+}
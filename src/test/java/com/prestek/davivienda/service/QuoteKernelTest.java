@@ -0,0 +1,141 @@
+package com.prestek.davivienda.service;
+
+import com.prestek.FinancialEntityCore.dto.QuoteDto;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Same scenarios and expectations as QuoteServiceTest, priced through the
+ * kernel into a QuoteBuffer.
+ */
+@DisplayName("QuoteKernel Unit Tests")
+class QuoteKernelTest {
+
+    private QuoteKernel kernel;
+    private QuoteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        kernel = new QuoteService().kernel();
+        buffer = new QuoteBuffer(4);
+    }
+
+    @Test
+    @DisplayName("Should generate valid quote with good credit profile")
+    void shouldGenerateValidQuoteWithGoodCreditProfile() {
+        // When
+        kernel.price(10000000L, 36, 750, 5000000L, 1000000L, buffer, 0);
+
+        // Then
+        assertThat(buffer.rateEAmin(0)).isGreaterThan(0);
+        assertThat(buffer.rateEAmax(0)).isGreaterThanOrEqualTo(buffer.rateEAmin(0));
+        assertThat(buffer.monthlyPaymentMin(0)).isGreaterThan(0);
+        assertThat(buffer.monthlyPaymentMax(0)).isGreaterThanOrEqualTo(buffer.monthlyPaymentMin(0));
+        assertThat(buffer.feesEstimated(0)).isBetween(25_000L, 80_000L);
+        assertThat(buffer.aprEAEstimated(0)).isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("Should generate different quotes for different credit scores")
+    void shouldGenerateDifferentQuotesForDifferentCreditScores() {
+        // When
+        kernel.price(10000000L, 36, 650, 5000000L, 1000000L, buffer, 0);
+        kernel.price(10000000L, 36, 750, 5000000L, 1000000L, buffer, 1);
+        kernel.price(10000000L, 36, 850, 5000000L, 1000000L, buffer, 2);
+
+        // Then
+        assertThat(buffer.aprEAEstimated(0)).isGreaterThan(buffer.aprEAEstimated(1));
+        assertThat(buffer.aprEAEstimated(1)).isGreaterThan(buffer.aprEAEstimated(2));
+    }
+
+    @Test
+    @DisplayName("Should charge more for higher DTI")
+    void shouldChargeMoreForHigherDti() {
+        // When
+        kernel.price(10000000L, 36, 750, 5000000L, 500000L, buffer, 0);
+        kernel.price(10000000L, 36, 750, 5000000L, 3000000L, buffer, 1);
+
+        // Then
+        assertThat(buffer.aprEAEstimated(1)).isGreaterThan(buffer.aprEAEstimated(0));
+    }
+
+    @Test
+    @DisplayName("Should respect floor and ceiling effective annual rates")
+    void shouldRespectFloorAndCeilingRates() {
+        // When
+        kernel.price(10000000L, 36, 850, 10000000L, 500000L, buffer, 0);
+        kernel.price(10000000L, 36, 550, 2000000L, 1500000L, buffer, 1);
+
+        // Then
+        assertThat(buffer.rateEAmin(0)).isGreaterThanOrEqualTo(0.16);
+        assertThat(buffer.rateEAmax(1)).isLessThanOrEqualTo(0.34);
+        assertThat(buffer.aprEAEstimated(0)).isLessThan(buffer.aprEAEstimated(1));
+    }
+
+    @Test
+    @DisplayName("Should price columns in bulk like row by row")
+    void shouldPriceColumnsLikeRowByRow() {
+        // Given
+        long[] amounts = {10000000L, 5000000L, 20000000L};
+        int[] terms = {36, 12, 60};
+        int[] scores = {750, 750, 750};
+        long[] incomes = {5000000L, 5000000L, 8000000L};
+        long[] expenses = {1000000L, 1000000L, 1500000L};
+        QuoteBuffer single = new QuoteBuffer(1);
+
+        // When
+        kernel.priceAll(amounts, terms, scores, incomes, expenses, 3, buffer);
+
+        // Then
+        for (int i = 0; i < 3; i++) {
+            kernel.price(amounts[i], terms[i], scores[i], incomes[i], expenses[i], single, 0);
+            assertThat(buffer.aprEAEstimated(i)).isEqualTo(single.aprEAEstimated(0));
+            assertThat(buffer.monthlyPaymentMin(i)).isEqualTo(single.monthlyPaymentMin(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should match QuoteService.quote field by field over a grid of inputs")
+    void shouldMatchQuoteServiceOverGrid() {
+        // Given
+        QuoteService quoteService = new QuoteService();
+        long[] amounts = {1000000L, 10000000L, 50000000L};
+        int[] terms = {6, 12, 36, 60, 120};
+        int[] scores = {450, 600, 700, 850};
+        long[] incomes = {1500000L, 5000000L, 20000000L};
+        double[] expenseRatios = {0.1, 0.3, 0.6};
+        int compared = 0;
+
+        for (long amount : amounts) {
+            for (int term : terms) {
+                for (int score : scores) {
+                    for (long income : incomes) {
+                        for (double ratio : expenseRatios) {
+                            long expenses = Math.round(income * ratio);
+                            QuoteDto expected = quoteService.quote(
+                                    new QuoteRequest(amount, term, score, income, expenses));
+
+                            // When
+                            kernel.price(amount, term, score, income, expenses, buffer, 0);
+
+                            // Then
+                            assertThat(buffer.rateEAmin(0)).isEqualTo(expected.rateEAmin());
+                            assertThat(buffer.rateEAmax(0)).isEqualTo(expected.rateEAmax());
+                            assertThat(buffer.monthlyPaymentMin(0)).isEqualTo(expected.monthlyPaymentMin());
+                            assertThat(buffer.monthlyPaymentMax(0)).isEqualTo(expected.monthlyPaymentMax());
+                            assertThat(buffer.feesEstimated(0)).isEqualTo(expected.feesEstimated());
+                            assertThat(buffer.aprEAEstimated(0)).isEqualTo(expected.aprEAEstimated());
+                            compared++;
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(compared).isEqualTo(
+                amounts.length * terms.length * scores.length * incomes.length * expenseRatios.length);
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayName("QuoteService Unit Tests")
 class QuoteServiceTest {
@@ -199,4 +200,30 @@ class QuoteServiceTest {
         double rateDifference = quoteHighDTI.aprEAEstimated() - quoteLowDTI.aprEAEstimated();
         assertThat(rateDifference).isGreaterThan(0); // Mayor DTI = mayor tasa
     }
+
+    @Test
+    @DisplayName("Should short-circuit requests whose expenses exceed income")
+    void shouldShortCircuitWhenExpensesExceedIncome() {
+        // Given
+        QuoteRequest hopeless = new QuoteRequest(10000000L, 36, 750, 2000000L, 2500000L);
+
+        // When & Then
+        assertThatThrownBy(() -> quoteService.quote(hopeless))
+                .isInstanceOf(IneligibleQuoteException.class)
+                .extracting(e -> ((IneligibleQuoteException) e).getReason())
+                .isEqualTo(QuoteEligibility.DTI_TOO_HIGH);
+    }
+
+    @Test
+    @DisplayName("Should short-circuit requests with absurd terms")
+    void shouldShortCircuitAbsurdTerm() {
+        // Given
+        QuoteRequest absurdTerm = new QuoteRequest(10000000L, 6000, 750, 5000000L, 1000000L);
+
+        // When & Then
+        assertThatThrownBy(() -> quoteService.quote(absurdTerm))
+                .isInstanceOf(IneligibleQuoteException.class)
+                .extracting(e -> ((IneligibleQuoteException) e).getReason())
+                .isEqualTo(QuoteEligibility.TERM_OUT_OF_RANGE);
+    }
 }
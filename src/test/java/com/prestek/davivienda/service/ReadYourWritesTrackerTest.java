@@ -0,0 +1,64 @@
+package com.prestek.davivienda.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReadYourWritesTracker Unit Tests")
+class ReadYourWritesTrackerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(5, clock::get);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should route every caller to the primary while full, then recover after the window")
+    void saturated_RoutesEveryoneToPrimaryUntilWindowPasses() {
+        // Given: el mapa lleno de escrituras vigentes
+        for (int i = 0; i < ReadYourWritesTracker.MAX_TRACKED_SUBJECTS; i++) {
+            as("user_" + i);
+            tracker.recordWrite();
+        }
+
+        // When: un escritor más no cabe
+        as("overflow");
+        tracker.recordWrite();
+
+        // Then: durante la ventana todos leen del primario, incluso quien nunca escribió
+        for (String caller : new String[]{"overflow", "user_0", "user_9999", "never-wrote"}) {
+            as(caller);
+            assertThat(tracker.requiresPrimary()).as(caller).isTrue();
+        }
+
+        // When: pasa la ventana
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        // Then: las entradas vencidas dejan de forzar el primario y hay espacio de nuevo
+        for (String caller : new String[]{"user_0", "never-wrote"}) {
+            as(caller);
+            assertThat(tracker.requiresPrimary()).as(caller).isFalse();
+        }
+        as("late-writer");
+        tracker.recordWrite();
+        assertThat(tracker.requiresPrimary()).isTrue();
+        as("never-wrote");
+        assertThat(tracker.requiresPrimary()).isFalse();
+    }
+
+    private static void as(String subject) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(subject, null, List.of()));
+    }
+}
@@ -0,0 +1,216 @@
+package com.prestek.davivienda.service;
+
+import com.prestek.FinancialEntityCore.model.Application;
+import com.prestek.davivienda.model.ApplicationQuoteInputs;
+import com.prestek.davivienda.model.RepricingCheckpoint;
+import com.prestek.davivienda.repository.ApplicationQuoteInputsRepository;
+import com.prestek.davivienda.repository.ApplicationRepository;
+import com.prestek.davivienda.repository.RepricingCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RepricingJob Unit Tests")
+class RepricingJobTest {
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private RepricingCheckpointRepository checkpointRepository;
+
+    @Mock
+    private ApplicationQuoteInputsRepository quoteInputsRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RepricingJob repricingJob;
+    private String version;
+
+    @BeforeEach
+    void setUp() {
+        QuoteService quoteService = new QuoteService();
+        version = quoteService.kernel().fingerprint();
+        repricingJob = new RepricingJob(applicationRepository, checkpointRepository, quoteInputsRepository,
+                jdbcTemplate, transactionManager, quoteService, 2, 2, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repricingJob.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should reprice all chunks in id order and complete the checkpoint")
+    @SuppressWarnings("unchecked")
+    void shouldRepriceAllChunks() {
+        // Given - la solicitud 2 no tiene datos del solicitante
+        when(quoteInputsRepository.findAllById(any())).thenAnswer(invocation ->
+                ((Collection<Long>) invocation.getArgument(0)).stream()
+                        .filter(id -> id != 2L)
+                        .map(RepricingJobTest::inputs)
+                        .toList());
+        when(checkpointRepository.findById(version)).thenReturn(Optional.empty());
+        when(applicationRepository.countByStatusIn(any())).thenReturn(3L);
+        when(applicationRepository.findChunkByStatusAfterId(any(), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(application(1L), application(2L)));
+        when(applicationRepository.findChunkByStatusAfterId(any(), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(application(5L)));
+        when(applicationRepository.findChunkByStatusAfterId(any(), eq(5L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // When
+        repricingJob.run(version);
+
+        // Then
+        RepricingJob.Status status = repricingJob.status();
+        assertThat(status.state()).isEqualTo(RepricingJob.State.COMPLETED);
+        assertThat(status.processed()).isEqualTo(3);
+        assertThat(status.skipped()).isEqualTo(1);
+        assertThat(status.lastApplicationId()).isEqualTo(5L);
+        verify(jdbcTemplate, times(4)).batchUpdate(anyString(), anyList());
+
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT"), batches.capture());
+        assertThat(batches.getAllValues().get(0)).extracting(row -> row[0]).containsExactly(1L);
+        assertThat(batches.getAllValues().get(1)).extracting(row -> row[0]).containsExactly(5L);
+
+        ArgumentCaptor<RepricingCheckpoint> saved = ArgumentCaptor.forClass(RepricingCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(saved.capture());
+        RepricingCheckpoint last = saved.getValue();
+        assertThat(last.getCompleted()).isTrue();
+        assertThat(last.getLastApplicationId()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("Should resume after the last checkpointed application")
+    void shouldResumeFromCheckpoint() {
+        // Given
+        RepricingCheckpoint checkpoint = RepricingCheckpoint.builder()
+                .constantsVersion(version).lastApplicationId(2L).processed(2L).completed(false).build();
+        when(checkpointRepository.findById(version)).thenReturn(Optional.of(checkpoint));
+        when(applicationRepository.findChunkByStatusAfterId(any(), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(application(5L)));
+        when(applicationRepository.findChunkByStatusAfterId(any(), eq(5L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // When
+        repricingJob.run(version);
+
+        // Then
+        assertThat(repricingJob.status().processed()).isEqualTo(3);
+        verify(applicationRepository, never()).findChunkByStatusAfterId(any(), eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should not start again when the current constants were already repriced")
+    void shouldNotRestartCompletedRun() {
+        // Given
+        RepricingCheckpoint completed = RepricingCheckpoint.builder()
+                .constantsVersion(version).lastApplicationId(9L).processed(9L).completed(true).build();
+        when(checkpointRepository.findById(version)).thenReturn(Optional.of(completed));
+
+        // When
+        boolean started = repricingJob.start(false);
+
+        // Then
+        assertThat(started).isFalse();
+        verify(applicationRepository, never()).findChunkByStatusAfterId(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should release the run flag when the checkpoint cannot be read")
+    void shouldReleaseRunFlagWhenStartFails() {
+        // Given
+        when(checkpointRepository.findById(version))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(Optional.of(RepricingCheckpoint.builder()
+                        .constantsVersion(version).lastApplicationId(9L).processed(9L).completed(true).build()));
+
+        // When
+        assertThatThrownBy(() -> repricingJob.start(false)).isInstanceOf(IllegalStateException.class);
+
+        // Then - un segundo intento vuelve a consultar en lugar de quedar "ya en curso"
+        assertThat(repricingJob.start(false)).isFalse();
+        verify(checkpointRepository, times(2)).findById(version);
+    }
+
+    @Test
+    @DisplayName("Should report failure and keep the last committed checkpoint")
+    void shouldReportFailure() {
+        // Given
+        when(checkpointRepository.findById(version)).thenReturn(Optional.empty());
+        when(applicationRepository.findChunkByStatusAfterId(any(), eq(0L), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("connection reset"));
+
+        // When
+        repricingJob.run(version);
+
+        // Then
+        RepricingJob.Status status = repricingJob.status();
+        assertThat(status.state()).isEqualTo(RepricingJob.State.FAILED);
+        assertThat(status.error()).isEqualTo("connection reset");
+    }
+
+    @Test
+    @DisplayName("Should mark the run as failed when an Error escapes the chunk loop")
+    void shouldReportFailureOnError() {
+        // Given
+        when(checkpointRepository.findById(version)).thenReturn(Optional.empty());
+        when(applicationRepository.findChunkByStatusAfterId(any(), eq(0L), any(Pageable.class)))
+                .thenThrow(new OutOfMemoryError("Java heap space"));
+
+        // When
+        assertThatThrownBy(() -> repricingJob.run(version)).isInstanceOf(OutOfMemoryError.class);
+
+        // Then
+        RepricingJob.Status status = repricingJob.status();
+        assertThat(status.state()).isEqualTo(RepricingJob.State.FAILED);
+        assertThat(status.error()).isEqualTo("java.lang.OutOfMemoryError: Java heap space");
+    }
+
+    private static ApplicationQuoteInputs inputs(Long id) {
+        return ApplicationQuoteInputs.builder()
+                .applicationId(id)
+                .termMonths(36)
+                .score(720)
+                .monthlyIncome(5000000L)
+                .monthlyExpenses(1200000L)
+                .build();
+    }
+
+    private static Application application(Long id) {
+        return Application.builder()
+                .id(id)
+                .userId("user" + id)
+                .amount(10000000.0)
+                .status(Application.ApplicationStatus.PENDING)
+                .build();
+    }
+}
@@ -0,0 +1,193 @@
+package com.prestek.davivienda.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RequestCoalescer Unit Tests")
+class RequestCoalescerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    @DisplayName("Should share one in-flight load among concurrent callers")
+    void execute_ConcurrentCallers_LoadOnce() throws Exception {
+        // Given
+        RequestCoalescer coalescer = new RequestCoalescer(0, 100, 2_000, clock::get);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // When
+            CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> coalescer.execute("k", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "value";
+            }), executor);
+            waitUntil(() -> coalescer.leaders() == 1);
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(
+                    () -> coalescer.execute("k", () -> "other"), executor);
+            CompletableFuture<String> second = CompletableFuture.supplyAsync(
+                    () -> coalescer.execute("k", () -> "other"), executor);
+            waitUntil(() -> coalescer.joined() == 2);
+            release.countDown();
+
+            // Then
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            assertThat(loads).hasValue(1);
+            assertThat(coalescer.size()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should load directly when the leader outlives the join timeout")
+    void execute_HungLeader_JoinerLoadsAfterTimeout() throws Exception {
+        // Given
+        RequestCoalescer coalescer = new RequestCoalescer(0, 100, 50, clock::get);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // When
+            CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> coalescer.execute("k", () -> {
+                await(release);
+                return "slow";
+            }), executor);
+            waitUntil(() -> coalescer.leaders() == 1);
+            String joiner = coalescer.execute("k", () -> "direct");
+
+            // Then
+            assertThat(joiner).isEqualTo("direct");
+            assertThat(coalescer.joined()).isEqualTo(1);
+            assertThat(coalescer.timedOut()).isEqualTo(1);
+            assertThat(leader).isNotDone();
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve the completed result during the linger window only")
+    void execute_Linger_ServesUntilExpired() {
+        // Given
+        RequestCoalescer coalescer = new RequestCoalescer(50, 100, 2_000, clock::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        coalescer.execute("k", loads::incrementAndGet);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+        int lingered = coalescer.execute("k", loads::incrementAndGet);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(40));
+        int reloaded = coalescer.execute("k", loads::incrementAndGet);
+
+        // Then
+        assertThat(lingered).isEqualTo(1);
+        assertThat(reloaded).isEqualTo(2);
+        assertThat(coalescer.lingered()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reload after invalidate even inside the linger window")
+    void invalidate_DropsLingeringResult() {
+        // Given
+        RequestCoalescer coalescer = new RequestCoalescer(1000, 100, 2_000, clock::get);
+        AtomicInteger loads = new AtomicInteger();
+        coalescer.execute("k", loads::incrementAndGet);
+
+        // When
+        coalescer.invalidate("k");
+        int result = coalescer.execute("k", loads::incrementAndGet);
+
+        // Then
+        assertThat(result).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not keep failures and let the next caller retry")
+    void execute_Failure_NotLingered() {
+        // Given
+        RequestCoalescer coalescer = new RequestCoalescer(1000, 100, 2_000, clock::get);
+
+        // When / Then
+        assertThatThrownBy(() -> coalescer.execute("k", () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(coalescer.execute("k", () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("Should load directly once max keys are tracked")
+    void execute_MaxKeys_Bypasses() {
+        // Given
+        RequestCoalescer coalescer = new RequestCoalescer(1000, 2, 2_000, clock::get);
+        coalescer.execute("a", () -> 1);
+        coalescer.execute("b", () -> 2);
+
+        // When
+        int result = coalescer.execute("c", () -> 3);
+
+        // Then
+        assertThat(result).isEqualTo(3);
+        assertThat(coalescer.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should sweep a full map at most once per interval")
+    void execute_MaxKeys_SweepsOncePerInterval() {
+        // Given: linger 100 ms, mapa lleno; el primer desborde barre sin liberar nada
+        RequestCoalescer coalescer = new RequestCoalescer(100, 2, 2_000, clock::get);
+        coalescer.execute("a", () -> 1);
+        coalescer.execute("b", () -> 2);
+        coalescer.execute("c", () -> 3);
+
+        // When: a y b ya vencieron, pero no toca barrer hasta dentro de 1 s
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        coalescer.execute("d", () -> 4);
+
+        // Then
+        assertThat(coalescer.size()).isEqualTo(2);
+        assertThat(coalescer.leaders()).isEqualTo(2);
+
+        // When
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        coalescer.execute("e", () -> 5);
+
+        // Then: el barrido libera a y b y e pasa a ser líder
+        assertThat(coalescer.size()).isEqualTo(1);
+        assertThat(coalescer.leaders()).isEqualTo(3);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
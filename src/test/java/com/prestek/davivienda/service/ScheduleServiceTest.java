@@ -0,0 +1,92 @@
+package com.prestek.davivienda.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prestek.FinancialEntityCore.dto.QuoteDto;
+import com.prestek.FinancialEntityCore.request.QuoteRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("ScheduleService Unit Tests")
+class ScheduleServiceTest {
+
+    private final QuoteService quoteService = new QuoteService();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduleService scheduleService = new ScheduleService(quoteService, objectMapper);
+
+    @Test
+    @DisplayName("Should amortize to zero at the rates and payments of the quote")
+    void write_MatchesQuote() throws Exception {
+        // Given
+        QuoteRequest request = new QuoteRequest(10000000L, 36, 750, 5000000L, 1000000L);
+        QuoteDto quote = quoteService.quote(request);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        scheduleService.write(scheduleService.plan(request), out);
+
+        // Then
+        JsonNode body = objectMapper.readTree(out.toByteArray());
+        assertThat(body.get("institution").asText()).isEqualTo("DAVIVIENDA");
+        assertThat(body.get("feesEstimated").asLong()).isEqualTo(quote.feesEstimated());
+        JsonNode scenarios = body.get("scenarios");
+        assertThat(scenarios).hasSize(2);
+        assertThat(scenarios.get(0).get("rateEA").asDouble()).isEqualTo(quote.rateEAmin());
+        assertThat(scenarios.get(0).get("monthlyPayment").asLong()).isEqualTo(quote.monthlyPaymentMin());
+        assertThat(scenarios.get(1).get("rateEA").asDouble()).isEqualTo(quote.rateEAmax());
+        assertThat(scenarios.get(1).get("monthlyPayment").asLong()).isEqualTo(quote.monthlyPaymentMax());
+
+        for (JsonNode scenario : scenarios) {
+            JsonNode rows = scenario.get("rows");
+            assertThat(rows).hasSize(36);
+            assertThat(rows.get(0).get("payment").asLong()).isEqualTo(scenario.get("monthlyPayment").asLong());
+            long principal = 0;
+            long interest = 0;
+            for (JsonNode row : rows) {
+                principal += row.get("principal").asLong();
+                interest += row.get("interest").asLong();
+            }
+            assertThat(principal).isEqualTo(10000000L);
+            assertThat(interest).isEqualTo(scenario.get("totalInterest").asLong());
+            assertThat(rows.get(35).get("balance").asLong()).isZero();
+            assertThat(scenario.get("totalPaid").asLong()).isEqualTo(10000000L + interest);
+        }
+    }
+
+    @Test
+    @DisplayName("Should track the closed-form balance without per-row pow")
+    void schedule_MatchesClosedFormBalance() {
+        // Given
+        AmortizationSchedule schedule = new AmortizationSchedule(200000000L, 360, 0.205);
+        double i = schedule.monthlyRate();
+        double payment = schedule.payment();
+
+        // When / Then
+        while (schedule.next()) {
+            int k = schedule.month();
+            double growth = Math.pow(1 + i, k);
+            double expected = 200000000.0 * growth - payment * (growth - 1) / i;
+            // Cota del redondeo por fila (medio peso por mes, capitalizado)
+            double tolerance = 0.5 * (growth - 1) / i + 1;
+            assertThat((double) schedule.balance()).isCloseTo(Math.max(0, expected), within(tolerance));
+        }
+        assertThat(schedule.month()).isEqualTo(360);
+        assertThat(schedule.balance()).isZero();
+        assertThat(schedule.next()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject requests that fail eligibility")
+    void plan_RejectsIneligible() {
+        QuoteRequest request = new QuoteRequest(10000000L, 36, 750, 2000000L, 2500000L);
+
+        assertThatThrownBy(() -> scheduleService.plan(request))
+                .isInstanceOf(IneligibleQuoteException.class);
+    }
+}